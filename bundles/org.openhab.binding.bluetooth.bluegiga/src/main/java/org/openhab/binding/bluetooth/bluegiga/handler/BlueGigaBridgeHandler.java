@@ -191,7 +191,8 @@ public class BlueGigaBridgeHandler extends AbstractBluetoothBridgeHandler<BlueGi
                 stop();
                 if (openSerialPort(configuration.port, 115200)) {
                     serialHandler = Optional.of(new BlueGigaSerialHandler(inputStream.get(), outputStream.get()));
-                    transactionManager = Optional.of(new BlueGigaTransactionManager(serialHandler.get(), executor));
+                    transactionManager = Optional.of(new BlueGigaTransactionManager(serialHandler.get(), executor,
+                            configuration.maxCommandsInFlight));
                     serialHandler.get().addHandlerListener(this);
                     transactionManager.get().addEventListener(this);
                     updateStatus(ThingStatus.UNKNOWN);
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Latency histogram and timeout counter of the transactions of one {@link BlueGigaCommand} type. The latency is the
+ * time from sending the command until the response is received, the time it waited in the send queue is not
+ * included.
+ *
+ * @author Sami Salonen - Initial contribution
+ *
+ */
+@NonNullByDefault
+public class BlueGigaCommandStatistics {
+
+    /**
+     * Upper bounds of the latency buckets in milliseconds. The last bucket counts all slower transactions.
+     */
+    public static final long[] LATENCY_BUCKETS_MS = { 1, 2, 5, 10, 20, 50, 100 };
+
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+    private final AtomicLong timeouts = new AtomicLong();
+
+    void addLatency(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && millis >= LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        latencyCounts.incrementAndGet(bucket);
+    }
+
+    void addTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of transactions that received a response.
+     */
+    public long getCompleted() {
+        long completed = 0;
+        for (int i = 0; i < latencyCounts.length(); i++) {
+            completed += latencyCounts.get(i);
+        }
+        return completed;
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Returns the number of transactions per latency bucket, see {@link #LATENCY_BUCKETS_MS}.
+     */
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[latencyCounts.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = latencyCounts.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("completed=");
+        builder.append(getCompleted());
+        builder.append(", timeouts=");
+        builder.append(getTimeouts());
+        builder.append(", latency=[");
+        long[] histogram = getLatencyHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            if (i < LATENCY_BUCKETS_MS.length) {
+                builder.append('<').append(LATENCY_BUCKETS_MS[i]);
+            } else {
+                builder.append(">=").append(LATENCY_BUCKETS_MS[i - 1]);
+            }
+            builder.append("ms: ");
+            builder.append(histogram[i]);
+        }
+        builder.append(']');
+        return builder.toString();
+    }
+}
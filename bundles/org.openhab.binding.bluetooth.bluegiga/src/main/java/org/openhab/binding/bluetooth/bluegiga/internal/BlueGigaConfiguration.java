@@ -32,14 +32,16 @@ public class BlueGigaConfiguration extends BaseBluetoothBridgeHandlerConfigurati
     public int connIntervalMax;
     public int connLatency;
     public int connTimeout;
+    public int maxCommandsInFlight = 1;
 
     @Override
     public String toString() {
         return String.format(
                 "[discovery=%b, port=%s, passiveScanIdleTime=%d, passiveScanInterval=%d, passiveScanWindow=%d"
                         + ", activeScanInterval=%d, activeScanWindow=%d, connIntervalMin=%d, connIntervalMax=%d"
-                        + ", connLatency=%d, connTimeout=%d]",
+                        + ", connLatency=%d, connTimeout=%d, maxCommandsInFlight=%d]",
                 backgroundDiscovery, port, passiveScanIdleTime, passiveScanInterval, passiveScanWindow,
-                activeScanInterval, activeScanWindow, connIntervalMin, connIntervalMax, connLatency, connTimeout);
+                activeScanInterval, activeScanWindow, connIntervalMin, connIntervalMax, connLatency, connTimeout,
+                maxCommandsInFlight);
     }
 }
@@ -12,20 +12,25 @@
  */
 package org.openhab.binding.bluetooth.bluegiga.internal;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -34,6 +39,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * This class provides transaction management and queuing of {@link BlueGigaCommand} frames.
+ * <p>
+ * By default only one transaction is in flight, as the BGAPI specifies. Optionally, transactions of
+ * {@link BlueGigaDeviceCommand}s on different connections whose responses are {@link BlueGigaDeviceResponse}s, which
+ * are correlated by the connection handle, are sent without waiting for the previous responses, so that a slow
+ * connection does not hold back the others. This relies on the module buffering commands and has to be verified with
+ * the hardware in use. Transactions on the same connection and all other commands are always sent one after another
+ * in the order they were queued.
  *
  * @author Pauli Anttila - Initial contribution
  *
@@ -43,6 +55,8 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
 
     private static final int TRANSACTION_TIMEOUT_PERIOD_MS = 100;
 
+    private static final int STATISTICS_LOG_INTERVAL_MIN = 10;
+
     private final Logger logger = LoggerFactory.getLogger(BlueGigaTransactionManager.class);
 
     /**
@@ -51,93 +65,200 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
     private AtomicInteger transactionId = new AtomicInteger();
 
     /**
-     * Ongoing transaction id. If not present, no ongoing transaction.
+     * The event listeners will be notified of any asynchronous events
      */
-    private volatile Optional<Integer> ongoingTransactionId = Optional.empty();
+    private final Set<BlueGigaEventListener> eventListeners = new CopyOnWriteArraySet<>();
 
-    /**
-     * Transaction listeners are used internally to correlate the commands and responses
-     */
-    private final List<BluetoothListener<? extends BlueGigaResponse>> transactionListeners = new CopyOnWriteArrayList<>();
+    private final Queue<Transaction<?>> sendQueue = new LinkedList<>();
 
     /**
-     * The event listeners will be notified of any asynchronous events
+     * Transactions that have been sent and wait for their response, in the order they were sent
      */
-    private final Set<BlueGigaEventListener> eventListeners = new CopyOnWriteArraySet<>();
+    private final List<Transaction<?>> inFlight = new ArrayList<>();
 
-    private final Queue<BlueGigaUniqueCommand> sendQueue = new LinkedList<>();
+    private final Map<String, BlueGigaCommandStatistics> statistics = new ConcurrentHashMap<>();
     private final ScheduledExecutorService executor;
     private final BlueGigaSerialHandler serialHandler;
-
-    private @Nullable Future<?> transactionTimeoutTimer;
+    private final int maxInFlightTransactions;
+    private final LongSupplier nanoTime;
+    private final ScheduledFuture<?> statisticsLogTask;
 
     /**
-     * Internal interface for transaction listeners.
+     * A queued or sent command and the future that is completed with its response.
      */
-    interface BluetoothListener<T extends BlueGigaResponse> {
-        boolean transactionEvent(BlueGigaResponse response, int transactionId);
+    private class Transaction<T extends BlueGigaResponse> {
+        final BlueGigaUniqueCommand query;
+        final Class<T> expected;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        long sentNanos;
+        @Nullable
+        ScheduledFuture<?> timeoutTimer;
+
+        Transaction(BlueGigaCommand bleCommand, Class<T> expected) {
+            this.query = new BlueGigaUniqueCommand(bleCommand, transactionId.getAndIncrement());
+            this.expected = expected;
+        }
+
+        /**
+         * Returns the connection handle, or -1 if the response can not be correlated by the connection and therefore
+         * has to be the only transaction in flight.
+         */
+        int getConnection() {
+            BlueGigaCommand command = query.getMessage();
+            return command instanceof BlueGigaDeviceCommand && BlueGigaDeviceResponse.class.isAssignableFrom(expected)
+                    ? ((BlueGigaDeviceCommand) command).getConnection()
+                    : -1;
+        }
 
-        boolean transactionTimeout(int transactionId);
+        boolean matches(BlueGigaResponse bleResponse) {
+            BlueGigaCommand bleCommand = query.getMessage();
+            if (bleCommand instanceof BlueGigaDeviceCommand && bleResponse instanceof BlueGigaDeviceResponse) {
+                BlueGigaDeviceCommand devCommand = (BlueGigaDeviceCommand) bleCommand;
+                BlueGigaDeviceResponse devResponse = (BlueGigaDeviceResponse) bleResponse;
+
+                logger.trace("Expected connection id: {}, received connection id: {}", devCommand.getConnection(),
+                        devResponse.getConnection());
+
+                if (devCommand.getConnection() != devResponse.getConnection()) {
+                    return false;
+                }
+            }
+            return expected.isInstance(bleResponse);
+        }
+
+        void complete(BlueGigaResponse bleResponse) {
+            getStatistics().addLatency(nanoTime.getAsLong() - sentNanos);
+            future.complete(expected.cast(bleResponse));
+        }
+
+        void timeout() {
+            getStatistics().addTimeout();
+            future.completeExceptionally(new TimeoutException("No response from BlueGiga controller"));
+        }
+
+        BlueGigaCommandStatistics getStatistics() {
+            return statistics.computeIfAbsent(query.getMessage().getClass().getSimpleName(),
+                    k -> new BlueGigaCommandStatistics());
+        }
     }
 
     public BlueGigaTransactionManager(BlueGigaSerialHandler serialHandler, ScheduledExecutorService executor) {
+        this(serialHandler, executor, 1);
+    }
+
+    /**
+     * Constructor of the transaction manager
+     *
+     * @param serialHandler the serial handler of the BlueGiga module
+     * @param executor the executor for timeouts and event listeners
+     * @param maxInFlightTransactions the maximum number of transactions on different connections that are sent without
+     *            waiting for the previous responses, 1 to send one transaction at a time
+     */
+    public BlueGigaTransactionManager(BlueGigaSerialHandler serialHandler, ScheduledExecutorService executor,
+            int maxInFlightTransactions) {
+        this(serialHandler, executor, maxInFlightTransactions, System::nanoTime);
+    }
+
+    BlueGigaTransactionManager(BlueGigaSerialHandler serialHandler, ScheduledExecutorService executor,
+            int maxInFlightTransactions, LongSupplier nanoTime) {
         this.serialHandler = serialHandler;
         this.executor = executor;
+        this.maxInFlightTransactions = Math.max(1, maxInFlightTransactions);
+        this.nanoTime = nanoTime;
         serialHandler.addEventListener(this);
+        statisticsLogTask = executor.scheduleWithFixedDelay(this::logCommandStatistics, STATISTICS_LOG_INTERVAL_MIN,
+                STATISTICS_LOG_INTERVAL_MIN, TimeUnit.MINUTES);
     }
 
     /**
      * Close transaction manager.
      */
     public void close() {
+        statisticsLogTask.cancel(false);
         serialHandler.removeEventListener(this);
-        cancelTransactionTimer();
-        sendQueue.clear();
-        transactionListeners.clear();
+        List<Transaction<?>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(inFlight);
+            pending.addAll(sendQueue);
+            inFlight.clear();
+            sendQueue.clear();
+        }
+        for (Transaction<?> transaction : pending) {
+            cancelTransactionTimer(transaction);
+            transaction.future.cancel(false);
+        }
         eventListeners.clear();
         logger.debug("Closed");
+        logCommandStatistics();
     }
 
-    private void startTransactionTimer() {
-        transactionTimeoutTimer = executor.schedule(() -> {
-            notifyTransactionTimeout(ongoingTransactionId);
-        }, TRANSACTION_TIMEOUT_PERIOD_MS, TimeUnit.MILLISECONDS);
+    private void logCommandStatistics() {
+        if (logger.isDebugEnabled()) {
+            getCommandStatistics().forEach((command, statistics) -> logger.debug("{}: {}", command, statistics));
+        }
     }
 
-    private void cancelTransactionTimer() {
-        if (transactionTimeoutTimer != null) {
-            transactionTimeoutTimer.cancel(true);
-            transactionTimeoutTimer = null;
-        }
+    private void startTransactionTimer(Transaction<?> transaction) {
+        transaction.timeoutTimer = executor.schedule(() -> {
+            notifyTransactionTimeout(transaction);
+        }, TRANSACTION_TIMEOUT_PERIOD_MS, TimeUnit.MILLISECONDS);
     }
 
-    private void sendNextFrame() {
-        getNextFrame().ifPresent(frame -> {
-            cancelTransactionTimer();
-            logger.debug("Send frame #{}: {}", frame.getTransactionId(), frame.getMessage());
-            ongoingTransactionId = Optional.of(frame.getTransactionId());
-            serialHandler.sendFrame(frame.getMessage());
-            startTransactionTimer();
-        });
+    private void cancelTransactionTimer(Transaction<?> transaction) {
+        ScheduledFuture<?> timeoutTimer = transaction.timeoutTimer;
+        if (timeoutTimer != null) {
+            timeoutTimer.cancel(false);
+            transaction.timeoutTimer = null;
+        }
     }
 
-    @SuppressWarnings({ "null", "unused" })
-    private Optional<BlueGigaUniqueCommand> getNextFrame() {
-        while (!sendQueue.isEmpty()) {
-            BlueGigaUniqueCommand frame = sendQueue.poll();
-            if (frame != null) {
-                if (frame.getMessage() != null) {
-                    return Optional.of(frame);
-                } else {
-                    logger.debug("Null message found from queue, skip it");
-                    continue;
-                }
-            } else {
-                logger.debug("Null frame found from queue, skip it");
+    /**
+     * Sends all queued transactions that can be in flight with the already sent ones. A queued transaction is not
+     * sent before an earlier queued transaction it depends on.
+     */
+    private synchronized void sendNextFrames() {
+        boolean exclusiveInFlight = inFlight.stream().anyMatch(transaction -> transaction.getConnection() < 0);
+        Set<Integer> busyConnections = new HashSet<>();
+        inFlight.forEach(transaction -> busyConnections.add(transaction.getConnection()));
+
+        Iterator<Transaction<?>> iterator = sendQueue.iterator();
+        while (iterator.hasNext() && !exclusiveInFlight && inFlight.size() < maxInFlightTransactions) {
+            Transaction<?> transaction = iterator.next();
+            if (transaction.future.isDone()) {
+                logger.debug("Transaction #{} was cancelled before it was sent, skip it",
+                        transaction.query.getTransactionId());
+                iterator.remove();
                 continue;
             }
+            int connection = transaction.getConnection();
+            if (connection < 0) {
+                // Commands without a connection wait for all earlier transactions and block all later ones
+                if (inFlight.isEmpty()) {
+                    iterator.remove();
+                    sendFrame(transaction);
+                }
+                break;
+            }
+            if (busyConnections.add(connection)) {
+                iterator.remove();
+                sendFrame(transaction);
+            }
+        }
+    }
+
+    private void sendFrame(Transaction<?> transaction) {
+        BlueGigaUniqueCommand frame = transaction.query;
+        logger.debug("Send frame #{}: {}", frame.getTransactionId(), frame.getMessage());
+        inFlight.add(transaction);
+        transaction.sentNanos = nanoTime.getAsLong();
+        startTransactionTimer(transaction);
+        try {
+            serialHandler.sendFrame(frame.getMessage());
+        } catch (IllegalStateException | BlueGigaException e) {
+            inFlight.remove(transaction);
+            cancelTransactionTimer(transaction);
+            transaction.future.completeExceptionally(e);
         }
-        return Optional.empty();
     }
 
     /**
@@ -145,153 +266,30 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
      * FIFO queue. This method queues a {@link BlueGigaCommand} frame without
      * waiting for a response.
      *
-     * @param transaction
-     *            {@link BlueGigaUniqueCommand}
+     * @param request
+     *            the {@link BlueGigaUniqueCommand} and its expected response
      */
-    public void queueFrame(BlueGigaUniqueCommand request) {
-        logger.trace("Queue TX BLE frame: {}", request);
+    private synchronized void queueFrame(Transaction<?> request) {
+        logger.trace("Queue TX BLE frame: {}", request.query);
         sendQueue.add(request);
         logger.trace("TX BLE queue size: {}", sendQueue.size());
     }
 
-    private void sendNextTransactionIfNoOngoing() {
-        synchronized (this) {
-            logger.trace("Send next transaction if no ongoing");
-            if (!ongoingTransactionId.isPresent()) {
-                sendNextFrame();
-            }
-        }
-    }
-
-    private void clearOngoingTransactionAndSendNext() {
-        synchronized (this) {
-            logger.trace("Clear ongoing transaction and send next frame from queue");
-            ongoingTransactionId = Optional.empty();
-            sendNextFrame();
-        }
-    }
-
-    private void addTransactionListener(BluetoothListener<? extends BlueGigaResponse> listener) {
-        if (transactionListeners.contains(listener)) {
-            return;
-        }
-
-        transactionListeners.add(listener);
-    }
-
-    private void removeTransactionListener(BluetoothListener<?> listener) {
-        transactionListeners.remove(listener);
-    }
-
     /**
-     * Sends an BlueGiga request without waiting for the response.
+     * Sends a {@link BlueGigaCommand} request to the NCP without waiting for the response.
+     * The response is correlated with the request and completes the returned future. The future fails with a
+     * {@link TimeoutException} if the NCP does not respond.
      *
      * @param bleCommand {@link BlueGigaCommand}
-     * @return response {@link Future} {@link BlueGigaResponse}
+     * @param expected the class of the expected response
+     * @return response {@link CompletableFuture} {@link BlueGigaResponse}
      */
-    private <T extends BlueGigaResponse> Future<T> sendBleRequestAsync(final BlueGigaCommand bleCommand,
-            final Class<T> expected) {
-        class TransactionWaiter implements Callable<T>, BluetoothListener<T> {
-            private volatile boolean complete;
-            private Optional<BlueGigaResponse> response = Optional.empty();
-            private BlueGigaUniqueCommand query = new BlueGigaUniqueCommand(bleCommand,
-                    transactionId.getAndIncrement());
-
-            @SuppressWarnings("unchecked")
-            @Override
-            public T call() throws TimeoutException {
-                // Register a listener
-                addTransactionListener(this);
-
-                // Send the transaction
-                queueFrame(query);
-                sendNextTransactionIfNoOngoing();
-
-                // Wait transaction completed or timeout
-                synchronized (this) {
-                    while (!complete) {
-                        try {
-                            wait();
-                        } catch (InterruptedException e) {
-                            complete = true;
-                        }
-                    }
-                }
-
-                cancelTransactionTimer();
-
-                // Remove the listener
-                removeTransactionListener(this);
-
-                // Send next transaction if any
-                executor.submit(BlueGigaTransactionManager.this::clearOngoingTransactionAndSendNext);
-
-                if (response.isPresent()) {
-                    return (T) response.get();
-                } else {
-                    throw new TimeoutException("No response from BlueGiga controller");
-                }
-            }
-
-            @Override
-            public boolean transactionEvent(BlueGigaResponse bleResponse, int transactionId) {
-                logger.trace("Expected transactionId: {}, received transactionId: {}", query.getTransactionId(),
-                        transactionId);
-
-                if (transactionId != query.getTransactionId()) {
-                    logger.trace("Ignore frame as received transaction Id {} doesn't match expected transaction Id {}.",
-                            transactionId, query.getTransactionId());
-                    return false;
-                }
-
-                logger.trace("Expected frame: {}, received frame: {}", expected.getSimpleName(), bleResponse);
-
-                if (bleCommand instanceof BlueGigaDeviceCommand && bleResponse instanceof BlueGigaDeviceResponse) {
-                    BlueGigaDeviceCommand devCommand = (BlueGigaDeviceCommand) bleCommand;
-                    BlueGigaDeviceResponse devResponse = (BlueGigaDeviceResponse) bleResponse;
-
-                    logger.trace("Expected connection id: {}, received connection id: {}", devCommand.getConnection(),
-                            devResponse.getConnection());
-
-                    if (devCommand.getConnection() != devResponse.getConnection()) {
-                        logger.trace("Ignore response as received connection id {} doesn't match expected id {}.",
-                                devResponse.getConnection(), devCommand.getConnection());
-                        return false;
-                    }
-                }
-
-                if (!expected.isInstance(bleResponse)) {
-                    logger.trace("Ignoring {} frame which has not been requested.",
-                            bleResponse.getClass().getSimpleName());
-                    return false;
-                }
-
-                // Response received, notify waiter
-                response = Optional.of(bleResponse);
-                complete = true;
-                logger.debug("Received frame #{}: {}", transactionId, bleResponse);
-                synchronized (this) {
-                    notify();
-                }
-                return true;
-            }
-
-            @Override
-            public boolean transactionTimeout(int transactionId) {
-                if (transactionId != query.getTransactionId()) {
-                    return false;
-                }
-                logger.debug("Timeout, no response received for transaction {}", query.getTransactionId());
-                complete = true;
-                synchronized (this) {
-                    notify();
-                }
-                return true;
-            }
-        }
-
-        Callable<T> worker = new TransactionWaiter();
-        return executor.submit(worker);
+    public <T extends BlueGigaResponse> CompletableFuture<T> sendTransactionAsync(BlueGigaCommand bleCommand,
+            Class<T> expected) {
+        Transaction<T> transaction = new Transaction<>(bleCommand, expected);
+        queueFrame(transaction);
+        sendNextFrames();
+        return transaction.future;
     }
 
     /**
@@ -306,15 +304,22 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
      */
     public <T extends BlueGigaResponse> T sendTransaction(BlueGigaCommand bleCommand, Class<T> expected, long timeout)
             throws BlueGigaException {
-        Future<T> futureResponse = sendBleRequestAsync(bleCommand, expected);
+        CompletableFuture<T> futureResponse = sendTransactionAsync(bleCommand, expected);
         try {
             return futureResponse.get(timeout, TimeUnit.MILLISECONDS);
         } catch (TimeoutException | InterruptedException | ExecutionException e) {
-            futureResponse.cancel(true);
+            futureResponse.cancel(false);
             throw new BlueGigaException(String.format("Error sending BLE transaction: %s", e.getMessage()), e);
         }
     }
 
+    /**
+     * Returns the transaction statistics by command name.
+     */
+    public Map<String, BlueGigaCommandStatistics> getCommandStatistics() {
+        return new TreeMap<>(statistics);
+    }
+
     public void addEventListener(BlueGigaEventListener listener) {
         eventListeners.add(listener);
     }
@@ -347,36 +352,43 @@ public class BlueGigaTransactionManager implements BlueGigaSerialEventListener {
     }
 
     /**
-     * Notify any internal transaction listeners when we receive a response.
+     * Completes the oldest transaction in flight the response belongs to.
      *
      * @param response
      *            the response data received
      */
     private void notifyTransactionComplete(final BlueGigaResponse response) {
-        ongoingTransactionId.ifPresent(id -> {
-            boolean processed = false;
-            for (BluetoothListener<? extends BlueGigaResponse> listener : transactionListeners) {
-                if (listener.transactionEvent(response, id)) {
-                    processed = true;
+        Transaction<?> completed = null;
+        synchronized (this) {
+            for (Transaction<?> transaction : inFlight) {
+                if (transaction.matches(response)) {
+                    completed = transaction;
+                    break;
                 }
             }
-            if (!processed) {
-                logger.debug("No listener found for received response: {}", response);
+            if (completed != null) {
+                inFlight.remove(completed);
+                cancelTransactionTimer(completed);
             }
-        });
+        }
+        if (completed == null) {
+            logger.debug("No transaction found for received response: {}", response);
+            return;
+        }
+        logger.debug("Received frame #{}: {}", completed.query.getTransactionId(), response);
+        completed.complete(response);
+        sendNextFrames();
     }
 
-    private void notifyTransactionTimeout(final Optional<Integer> transactionId) {
-        transactionId.ifPresent(id -> {
-            boolean processed = false;
-            for (BluetoothListener<? extends BlueGigaResponse> listener : transactionListeners) {
-                if (listener.transactionTimeout(id)) {
-                    processed = true;
-                }
-            }
-            if (!processed) {
-                logger.debug("No listener found for transaction timeout event, transaction id {}", id);
+    private void notifyTransactionTimeout(final Transaction<?> transaction) {
+        synchronized (this) {
+            if (!inFlight.remove(transaction)) {
+                return;
             }
-        });
+            transaction.timeoutTimer = null;
+        }
+        logger.debug("Timeout, no response received for transaction {}", transaction.query.getTransactionId());
+        transaction.timeout();
+        sendNextFrames();
     }
 }
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.bluegiga.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributeclient.BlueGigaReadByHandleCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributeclient.BlueGigaReadByHandleResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributedb.BlueGigaUserReadResponseCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.attributedb.BlueGigaUserReadResponseResponse;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaHelloCommand;
+import org.openhab.binding.bluetooth.bluegiga.internal.command.system.BlueGigaHelloResponse;
+
+/**
+ * Tests {@link BlueGigaTransactionManager}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class BlueGigaTransactionManagerTest {
+
+    private @NonNullByDefault({}) ScheduledExecutorService executor;
+    private @NonNullByDefault({}) BlueGigaSerialHandler serialHandler;
+    private @NonNullByDefault({}) BlueGigaTransactionManager transactionManager;
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        serialHandler = mock(BlueGigaSerialHandler.class);
+        transactionManager = new BlueGigaTransactionManager(serialHandler, executor, 4, nanoTime::get);
+    }
+
+    @After
+    public void tearDown() {
+        transactionManager.close();
+        executor.shutdownNow();
+    }
+
+    private static BlueGigaReadByHandleCommand readByHandle(int connection) {
+        return new BlueGigaReadByHandleCommand.CommandBuilder().withConnection(connection).withChrHandle(3).build();
+    }
+
+    private static BlueGigaReadByHandleResponse readByHandleResponse(int connection) {
+        return new BlueGigaReadByHandleResponse(new int[] { 0x00, 0x03, 0x04, 0x04, connection, 0x00, 0x00 });
+    }
+
+    @Test
+    public void oneTransactionIsInFlightByDefault() throws Exception {
+        transactionManager.close();
+        transactionManager = new BlueGigaTransactionManager(serialHandler, executor);
+        CompletableFuture<BlueGigaReadByHandleResponse> first = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        CompletableFuture<BlueGigaReadByHandleResponse> second = transactionManager
+                .sendTransactionAsync(readByHandle(2), BlueGigaReadByHandleResponse.class);
+        verify(serialHandler, times(1)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        first.get(1, TimeUnit.SECONDS);
+        verify(serialHandler, times(2)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(2));
+        second.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void transactionFailsIfFrameCannotBeSent() throws Exception {
+        doThrow(new BlueGigaException("Serial port closed")).when(serialHandler).sendFrame(any());
+        CompletableFuture<BlueGigaReadByHandleResponse> future = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("Transaction should fail if its frame cannot be sent");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BlueGigaException);
+        }
+    }
+
+    @Test
+    public void transactionsOnSameConnectionAreSentOneAfterAnother() throws Exception {
+        CompletableFuture<BlueGigaReadByHandleResponse> first = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        CompletableFuture<BlueGigaReadByHandleResponse> second = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        verify(serialHandler, times(1)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        first.get(1, TimeUnit.SECONDS);
+        assertFalse(second.isDone());
+        verify(serialHandler, times(2)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        second.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void commandWithoutConnectionIsSentAlone() throws Exception {
+        CompletableFuture<BlueGigaReadByHandleResponse> before = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        CompletableFuture<BlueGigaHelloResponse> hello = transactionManager
+                .sendTransactionAsync(new BlueGigaHelloCommand(), BlueGigaHelloResponse.class);
+        CompletableFuture<BlueGigaReadByHandleResponse> after = transactionManager
+                .sendTransactionAsync(readByHandle(2), BlueGigaReadByHandleResponse.class);
+        verify(serialHandler, times(1)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        before.get(1, TimeUnit.SECONDS);
+        verify(serialHandler, times(2)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(new BlueGigaHelloResponse(new int[] { 0x00, 0x00, 0x00, 0x01 }));
+        hello.get(1, TimeUnit.SECONDS);
+        verify(serialHandler, times(3)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(2));
+        after.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void deviceCommandWithoutDeviceResponseIsSentAlone() throws Exception {
+        BlueGigaUserReadResponseCommand userReadResponse = new BlueGigaUserReadResponseCommand();
+        userReadResponse.setConnection(2);
+        CompletableFuture<BlueGigaReadByHandleResponse> before = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        CompletableFuture<BlueGigaUserReadResponseResponse> response = transactionManager
+                .sendTransactionAsync(userReadResponse, BlueGigaUserReadResponseResponse.class);
+        // The response has no connection handle, so it could not be told apart from other responses
+        verify(serialHandler, times(1)).sendFrame(any());
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        before.get(1, TimeUnit.SECONDS);
+        verify(serialHandler, times(2)).sendFrame(any());
+
+        transactionManager
+                .bluegigaFrameReceived(new BlueGigaUserReadResponseResponse(new int[] { 0x00, 0x00, 0x02, 0x03 }));
+        response.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void latencyIsMeasuredFromSending() throws Exception {
+        CompletableFuture<BlueGigaReadByHandleResponse> first = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        CompletableFuture<BlueGigaReadByHandleResponse> second = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(70));
+
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        first.get(1, TimeUnit.SECONDS);
+        // The second transaction has been queued for as long, but it is only sent now
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(3));
+        transactionManager.bluegigaFrameReceived(readByHandleResponse(1));
+        second.get(1, TimeUnit.SECONDS);
+
+        BlueGigaCommandStatistics statistics = transactionManager.getCommandStatistics()
+                .get(BlueGigaReadByHandleCommand.class.getSimpleName());
+        assertNotNull(statistics);
+        assertEquals(2, statistics.getCompleted());
+        long[] histogram = statistics.getLatencyHistogram();
+        // Buckets 50-100 ms and 2-5 ms
+        assertEquals(1, histogram[6]);
+        assertEquals(1, histogram[2]);
+    }
+
+    @Test
+    public void timeoutIsCounted() throws Exception {
+        CompletableFuture<BlueGigaReadByHandleResponse> future = transactionManager
+                .sendTransactionAsync(readByHandle(1), BlueGigaReadByHandleResponse.class);
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("Transaction without response should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        BlueGigaCommandStatistics statistics = transactionManager.getCommandStatistics()
+                .get(BlueGigaReadByHandleCommand.class.getSimpleName());
+        assertNotNull(statistics);
+        assertEquals(1, statistics.getTimeouts());
+        assertEquals(0, statistics.getCompleted());
+    }
+}
@@ -58,6 +58,9 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     private BaseBluetoothBridgeHandlerConfiguration config = new BaseBluetoothBridgeHandlerConfiguration();
 
+    // Drops repeated advertisements before they reach the device listeners
+    private final BluetoothAdvertisementFilter advertisementFilter = new BluetoothAdvertisementFilter();
+
     private @Nullable ScheduledFuture<?> inactiveRemovalJob;
 
     /**
@@ -87,6 +90,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     @Override
     public void initialize() {
         config = getConfigAs(BaseBluetoothBridgeHandlerConfiguration.class);
+        advertisementFilter.configure(config.advertisementDuplicateWindow, config.rssiUpdateInterval);
 
         int intervalSecs = config.inactiveDeviceCleanupInterval;
         inactiveRemovalJob = scheduler.scheduleWithFixedDelay(this::removeInactiveDevices, intervalSecs, intervalSecs,
@@ -122,6 +126,8 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
                 }
             }
         }
+        logger.debug("Forwarded {} of {} received advertisements to the device listeners",
+                advertisementFilter.getForwarded(), advertisementFilter.getReceived());
     }
 
     protected void removeDevice(BD device) {
@@ -129,6 +135,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         synchronized (devices) {
             devices.remove(device.getAddress());
         }
+        advertisementFilter.remove(device.getAddress());
         discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
     }
 
@@ -192,6 +199,15 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     protected abstract BD createDevice(BluetoothAddress address);
 
+    /**
+     * Returns the filter that the devices of this bridge pass their scan records through.
+     *
+     * @return the {@link BluetoothAdvertisementFilter} of this bridge
+     */
+    public BluetoothAdvertisementFilter getAdvertisementFilter() {
+        return advertisementFilter;
+    }
+
     @Override
     public boolean hasHandlerForDevice(BluetoothAddress address) {
         String addrStr = address.toString();
@@ -22,6 +22,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -270,9 +271,20 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
             default:
                 break;
         }
+        if (event == BluetoothEventType.SCAN_RECORD && !acceptScanRecord((BluetoothScanNotification) args[0])) {
+            logger.trace("Dropping repeated advertisement of '{}'", address);
+            return;
+        }
         super.notifyListeners(event, args);
     }
 
+    private boolean acceptScanRecord(BluetoothScanNotification notification) {
+        if (adapter instanceof AbstractBluetoothBridgeHandler) {
+            return ((AbstractBluetoothBridgeHandler<?>) adapter).getAdvertisementFilter().accept(address, notification);
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification.BluetoothBeaconType;
+
+/**
+ * The {@link BluetoothAdvertisementFilter} drops repeated advertisements before they reach the device listeners.
+ * Most devices advertise the same payload several times per second, so an advertisement is only forwarded when its
+ * payload changed, when the RSSI changed and the last forwarded one is older than the RSSI update interval, or when
+ * the last forwarded one is older than the duplicate window.
+ * <p>
+ * Advertisements and scan responses usually carry different payloads, so the payload is compared per beacon type.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementFilter {
+
+    private static class AdvertisementState {
+        private final Map<BluetoothBeaconType, Integer> payloadHashes = new EnumMap<>(BluetoothBeaconType.class);
+        private int rssi = Integer.MIN_VALUE;
+        private long lastForwardedNanos;
+        private boolean forwardedOnce;
+    }
+
+    private final Map<BluetoothAddress, AdvertisementState> states = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong forwarded = new AtomicLong();
+
+    private volatile long duplicateWindowNanos = 0;
+    private volatile long rssiUpdateIntervalNanos = 0;
+
+    /**
+     * Sets the filter windows, a duplicate window of 0 disables the filter.
+     *
+     * @param duplicateWindow the time in seconds an unchanged advertisement is dropped
+     * @param rssiUpdateInterval the minimum time in seconds between forwarded RSSI changes
+     */
+    public void configure(int duplicateWindow, int rssiUpdateInterval) {
+        duplicateWindowNanos = TimeUnit.SECONDS.toNanos(Math.max(0, duplicateWindow));
+        rssiUpdateIntervalNanos = TimeUnit.SECONDS.toNanos(Math.max(0, rssiUpdateInterval));
+    }
+
+    /**
+     * Returns whether a scan notification should be forwarded to the device listeners.
+     *
+     * @param address the address of the device that sent the advertisement
+     * @param notification the received advertisement
+     * @return true if the advertisement carries new information
+     */
+    public boolean accept(BluetoothAddress address, BluetoothScanNotification notification) {
+        return accept(address, notification, System.nanoTime());
+    }
+
+    boolean accept(BluetoothAddress address, BluetoothScanNotification notification, long nowNanos) {
+        received.incrementAndGet();
+        long duplicateWindowNanos = this.duplicateWindowNanos;
+        if (duplicateWindowNanos <= 0) {
+            forwarded.incrementAndGet();
+            return true;
+        }
+
+        AdvertisementState state = states.computeIfAbsent(address, a -> new AdvertisementState());
+        synchronized (state) {
+            boolean payloadChanged = false;
+            byte[] manufacturerData = notification.getManufacturerData();
+            byte[] data = notification.getData();
+            if (manufacturerData != null || data != null) {
+                Integer hash = 31 * Arrays.hashCode(manufacturerData) + Arrays.hashCode(data);
+                payloadChanged = !hash.equals(state.payloadHashes.put(notification.getBeaconType(), hash));
+            }
+            int rssi = notification.getRssi();
+            boolean rssiChanged = rssi != Integer.MIN_VALUE && rssi != state.rssi;
+            long elapsedNanos = nowNanos - state.lastForwardedNanos;
+
+            if (!state.forwardedOnce || payloadChanged || elapsedNanos >= duplicateWindowNanos
+                    || (rssiChanged && elapsedNanos >= rssiUpdateIntervalNanos)) {
+                state.lastForwardedNanos = nowNanos;
+                state.forwardedOnce = true;
+                if (rssi != Integer.MIN_VALUE) {
+                    state.rssi = rssi;
+                }
+                forwarded.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Forgets the state of a device, so that its next advertisement is forwarded.
+     */
+    public void remove(BluetoothAddress address) {
+        states.remove(address);
+    }
+
+    /**
+     * Returns the number of advertisements received by the filter.
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * Returns the number of advertisements forwarded to the device listeners.
+     */
+    public long getForwarded() {
+        return forwarded.get();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification.BluetoothBeaconType;
+
+/**
+ * Tests {@link BluetoothAdvertisementFilter}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class BluetoothAdvertisementFilterTest {
+
+    private static final BluetoothAddress ADDRESS = new BluetoothAddress("12:34:56:78:9A:BC");
+
+    private final BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter();
+
+    @Before
+    public void setUp() {
+        filter.configure(10, 2);
+    }
+
+    private static BluetoothScanNotification advertisement(int rssi, byte... manufacturerData) {
+        BluetoothScanNotification notification = new BluetoothScanNotification();
+        notification.setRssi(rssi);
+        notification.setBeaconType(BluetoothBeaconType.BEACON_ADVERTISEMENT);
+        notification.setManufacturerData(manufacturerData);
+        return notification;
+    }
+
+    private static long seconds(long seconds) {
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    public void repeatedAdvertisementIsDropped() {
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertFalse(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(1)));
+        assertFalse(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(9)));
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(10)));
+
+        assertEquals(4, filter.getReceived());
+        assertEquals(2, filter.getForwarded());
+    }
+
+    @Test
+    public void changedPayloadIsForwarded() {
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 2), seconds(1)));
+    }
+
+    @Test
+    public void rssiChangeIsRateLimited() {
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertFalse(filter.accept(ADDRESS, advertisement(-70, (byte) 1), seconds(1)));
+        assertTrue(filter.accept(ADDRESS, advertisement(-70, (byte) 1), seconds(2)));
+        assertFalse(filter.accept(ADDRESS, advertisement(-70, (byte) 1), seconds(5)));
+    }
+
+    @Test
+    public void scanResponseDoesNotCountAsChangedAdvertisement() {
+        BluetoothScanNotification scanResponse = advertisement(-60, (byte) 9);
+        scanResponse.setBeaconType(BluetoothBeaconType.BEACON_SCANRESPONSE);
+
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertTrue(filter.accept(ADDRESS, scanResponse, seconds(0)));
+        assertFalse(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(1)));
+        assertFalse(filter.accept(ADDRESS, scanResponse, seconds(1)));
+    }
+
+    @Test
+    public void removedDeviceIsForwardedAgain() {
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        filter.remove(ADDRESS);
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(1)));
+    }
+
+    @Test
+    public void zeroWindowForwardsEverything() {
+        filter.configure(0, 0);
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertTrue(filter.accept(ADDRESS, advertisement(-60, (byte) 1), seconds(0)));
+        assertEquals(2, filter.getForwarded());
+    }
+}
@@ -13,12 +13,15 @@
 package org.openhab.binding.dsmr.internal.device;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.dsmr.internal.device.connector.DSMRConnectorErrorEvent;
 import org.openhab.binding.dsmr.internal.device.connector.DSMRConnectorListener;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramListener;
@@ -39,6 +42,7 @@ public class DSMRTelegramListener implements P1TelegramListener, DSMRConnectorLi
 
     private final Logger logger = LoggerFactory.getLogger(DSMRTelegramListener.class);
     private final TelegramParser parser;
+    private final P1TelegramParser p1Parser;
 
     private @NonNullByDefault({}) DSMREventListener dsmrEventListener;
 
@@ -48,7 +52,8 @@ public class DSMRTelegramListener implements P1TelegramListener, DSMRConnectorLi
      * @param eventListener listener to send received errors or messages to
      */
     public DSMRTelegramListener() {
-        parser = new P1TelegramParser(this);
+        p1Parser = new P1TelegramParser(this);
+        parser = p1Parser;
     }
 
     /**
@@ -57,7 +62,8 @@ public class DSMRTelegramListener implements P1TelegramListener, DSMRConnectorLi
      * @param decryptionKey Smarty decryption key
      */
     public DSMRTelegramListener(String decryptionKey) {
-        parser = new SmartyDecrypter(new P1TelegramParser(this), this, decryptionKey);
+        p1Parser = new P1TelegramParser(this);
+        parser = new SmartyDecrypter(p1Parser, this, decryptionKey);
     }
 
     /**
@@ -109,4 +115,11 @@ public class DSMRTelegramListener implements P1TelegramListener, DSMRConnectorLi
     public void setLenientMode(boolean lenientMode) {
         parser.setLenientMode(lenientMode);
     }
+
+    /**
+     * @param obisFilter the reduced OBIS Identifiers of the Cosem Objects to create, or null to create all
+     */
+    public void setObisFilter(@Nullable Set<OBISIdentifier> obisFilter) {
+        p1Parser.setObisFilter(obisFilter);
+    }
 }
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.dsmr.internal.device.cosem;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -30,8 +31,19 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class CosemObjectFactory {
+    /**
+     * Maximum number of entries in the raw OBIS Identifier lookup table. A meter only sends a limited set of
+     * identifiers, so the table only exceeds this size when corrupted data is received. In that case it's cleared.
+     */
+    private static final int MAX_RAW_LOOKUP_TABLE_SIZE = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
+    /**
+     * Lookup cache for OBIS Identifiers by the packed raw bytes as received in the P1 telegram
+     */
+    private final Map<Long, OBISIdentifier> obisLookupTableRaw = new HashMap<>();
+
     /**
      * Lookup cache for fixed OBIS Identifiers
      */
@@ -91,21 +103,111 @@ public class CosemObjectFactory {
      * @return CosemObject or null if parsing failed
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
-        OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
+        OBISIdentifier obisId = parseOBISIdentifier(obisIdString);
+
+        if (obisId == null) {
+            return null;
+        }
+        logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
+        return getCosemObject(obisId, cosemStringValues);
+    }
+
+    /**
+     * Returns the OBIS Identifier of the raw OBIS identifier bytes as received in a P1 telegram.
+     *
+     * Identifiers are looked up by their raw bytes, so each distinct identifier is only parsed the first time it's
+     * received.
+     *
+     * @param data buffer containing the OBIS identifier
+     * @param offset offset of the OBIS identifier in the buffer
+     * @param length length of the OBIS identifier
+     * @return OBISIdentifier or null if the data is not a valid OBIS identifier
+     */
+    public @Nullable OBISIdentifier getOBISIdentifier(byte[] data, int offset, int length) {
+        long key = packOBISIdentifier(data, offset, length);
+
+        if (key < 0) {
+            return parseOBISIdentifier(new String(data, offset, length, StandardCharsets.ISO_8859_1));
+        }
+        OBISIdentifier obisId = obisLookupTableRaw.get(key);
+
+        if (obisId == null) {
+            obisId = parseOBISIdentifier(new String(data, offset, length, StandardCharsets.ISO_8859_1));
+            if (obisId != null) {
+                if (obisLookupTableRaw.size() >= MAX_RAW_LOOKUP_TABLE_SIZE) {
+                    obisLookupTableRaw.clear();
+                }
+                obisLookupTableRaw.put(key, obisId);
+            }
+        }
+        return obisId;
+    }
 
+    /**
+     * Packs the raw OBIS identifier bytes in a long, 4 bits per character. Only characters that can be part of an OBIS
+     * identifier are supported. Because none of the characters is packed as 0, identifiers of different length never
+     * give the same value.
+     *
+     * @param data buffer containing the OBIS identifier
+     * @param offset offset of the OBIS identifier in the buffer
+     * @param length length of the OBIS identifier
+     * @return the packed value or -1 if the identifier is too long or contains unsupported characters
+     */
+    private static long packOBISIdentifier(byte[] data, int offset, int length) {
+        // 15 characters fit in 60 bits, this keeps the packed value positive
+        if (length > 15) {
+            return -1;
+        }
+        long key = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            final byte b = data[i];
+            final int nibble;
+
+            if (b >= '0' && b <= '9') {
+                nibble = b - '0' + 1;
+            } else if (b == '-') {
+                nibble = 11;
+            } else if (b == ':') {
+                nibble = 12;
+            } else if (b == '.') {
+                nibble = 13;
+            } else if (b == '*') {
+                nibble = 14;
+            } else {
+                return -1;
+            }
+            key = (key << 4) | nibble;
+        }
+        return key;
+    }
+
+    /**
+     * Parses the OBIS identifier string.
+     *
+     * @param obisIdString String containing the OBIS message identifier
+     * @return OBISIdentifier or null if the string is not a valid OBIS identifier
+     */
+    private @Nullable OBISIdentifier parseOBISIdentifier(String obisIdString) {
         try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
+            return new OBISIdentifier(obisIdString);
         } catch (final ParseException pe) {
             logger.debug("Received invalid OBIS identifier: {}", obisIdString);
             return null;
         }
+    }
 
-        logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
-
+    /**
+     * Return Cosem Object for the given OBIS Identifier or null if the values couldn't be parsed correctly or no
+     * corresponding Cosem Object was found
+     *
+     * @param obisId the OBIS message identifier
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(OBISIdentifier obisId, String cosemStringValues) {
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
+        OBISIdentifier reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
         CosemObject cosemObject = null;
 
         if (obisLookupTableFixed.containsKey(reducedObisId)) {
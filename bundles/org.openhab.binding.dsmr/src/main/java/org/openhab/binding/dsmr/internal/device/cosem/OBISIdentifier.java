@@ -48,6 +48,10 @@ public class OBISIdentifier {
 
     private boolean conflict;
 
+    /* lazily created reduced identifiers, the group values never change after construction */
+    private @Nullable OBISIdentifier reducedOBISIdentifier;
+    private @Nullable OBISIdentifier reducedOBISIdentifierGroupE;
+
     /**
      * Constructs a new OBIS Identifier (A-B:C.D.E.F)
      *
@@ -254,7 +258,12 @@ public class OBISIdentifier {
      * @return reduced OBIS Identifier
      */
     public OBISIdentifier getReducedOBISIdentifier() {
-        return new OBISIdentifier(groupA, groupB, groupC, groupD, groupE, null);
+        OBISIdentifier reduced = reducedOBISIdentifier;
+        if (reduced == null) {
+            reduced = new OBISIdentifier(groupA, groupB, groupC, groupD, groupE, null);
+            reducedOBISIdentifier = reduced;
+        }
+        return reduced;
     }
 
     /**
@@ -264,7 +273,12 @@ public class OBISIdentifier {
      * @return reduced OBIS Identifier
      */
     public OBISIdentifier getReducedOBISIdentifierGroupE() {
-        return new OBISIdentifier(groupA, groupB, groupC, groupD, null, null);
+        OBISIdentifier reduced = reducedOBISIdentifierGroupE;
+        if (reduced == null) {
+            reduced = new OBISIdentifier(groupA, groupB, groupC, groupD, null, null);
+            reducedOBISIdentifierGroupE = reduced;
+        }
+        return reduced;
     }
 
     /**
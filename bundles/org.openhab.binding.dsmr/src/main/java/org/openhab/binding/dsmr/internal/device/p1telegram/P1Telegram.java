@@ -70,17 +70,28 @@ public class P1Telegram {
     private final TelegramState telegramState;
     private final String rawTelegram;
     private final List<Entry<String, String>> unknownCosemObjects;
+    private final int skippedCosemObjects;
 
     public P1Telegram(List<CosemObject> cosemObjects, TelegramState telegramState) {
-        this(cosemObjects, telegramState, "", Collections.emptyList());
+        this(cosemObjects, telegramState, 0);
+    }
+
+    public P1Telegram(List<CosemObject> cosemObjects, TelegramState telegramState, int skippedCosemObjects) {
+        this(cosemObjects, telegramState, "", Collections.emptyList(), skippedCosemObjects);
     }
 
     public P1Telegram(List<CosemObject> cosemObjects, TelegramState telegramState, String rawTelegram,
             List<Entry<String, String>> unknownCosemObjects) {
+        this(cosemObjects, telegramState, rawTelegram, unknownCosemObjects, 0);
+    }
+
+    private P1Telegram(List<CosemObject> cosemObjects, TelegramState telegramState, String rawTelegram,
+            List<Entry<String, String>> unknownCosemObjects, int skippedCosemObjects) {
         this.cosemObjects = cosemObjects;
         this.telegramState = telegramState;
         this.rawTelegram = rawTelegram;
         this.unknownCosemObjects = unknownCosemObjects;
+        this.skippedCosemObjects = skippedCosemObjects;
     }
 
     /**
@@ -110,4 +121,11 @@ public class P1Telegram {
     public List<Entry<String, String>> getUnknownCosemObjects() {
         return unknownCosemObjects;
     }
+
+    /**
+     * @return The number of Cosem Objects in the telegram that were skipped because nothing uses them
+     */
+    public int getSkippedCosemObjects() {
+        return skippedCosemObjects;
+    }
 }
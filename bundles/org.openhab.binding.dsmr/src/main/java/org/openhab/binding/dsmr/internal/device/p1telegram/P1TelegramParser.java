@@ -15,14 +15,17 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +36,9 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The OBIS identifier and values are collected as raw bytes in reusable buffers. Strings are only created for Cosem
+ * Objects that pass the OBIS filter, if one is set.
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -60,9 +66,14 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal digits of the CRC-code
+     */
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * Initial size of the OBIS identifier and value buffers. The buffers grow when larger data is received.
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int INITIAL_BUFFER_SIZE = 64;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -71,12 +82,14 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private byte[] obisId = new byte[INITIAL_BUFFER_SIZE];
+    private int obisIdLength;
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private byte[] obisValue = new byte[INITIAL_BUFFER_SIZE];
+    private int obisValueLength;
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -84,9 +97,11 @@ public class P1TelegramParser implements TelegramParser {
     private final StringBuilder rawData = new StringBuilder();
 
     /**
-     * Current crc value read.
+     * Current crc value read, the number of characters read and if all characters are valid hexadecimal digits.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+    private int crcValueLength;
+    private boolean crcValueValid = true;
 
     /**
      * CRC calculation helper
@@ -123,6 +138,16 @@ public class P1TelegramParser implements TelegramParser {
      */
     private final List<Entry<String, String>> unknownCosemObjects = new ArrayList<>();
 
+    /**
+     * Number of Cosem Objects skipped in the P1Telegram that is currently received because they didn't pass the filter
+     */
+    private int skippedCosemObjects;
+
+    /**
+     * Reduced OBIS Identifiers of the Cosem Objects to create or null to create all Cosem Objects
+     */
+    private volatile @Nullable Set<OBISIdentifier> obisFilter;
+
     /**
      * Listener for new P1 telegrams
      */
@@ -242,18 +267,18 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState,
+                                Integer.toHexString(crcValue));
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueValid && crcValueLength == CRC_LENGTH) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
                                 if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                    logger.trace("received CRC value: 0x{}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -287,7 +312,7 @@ public class P1TelegramParser implements TelegramParser {
             return new P1Telegram(cosemObjectsCopy, telegramState, rawData.toString(),
                     unknownCosemObjects.isEmpty() ? Collections.emptyList() : new ArrayList<>(unknownCosemObjects));
         } else {
-            return new P1Telegram(cosemObjectsCopy, telegramState);
+            return new P1Telegram(cosemObjectsCopy, telegramState, skippedCosemObjects);
         }
     }
 
@@ -324,22 +349,22 @@ public class P1TelegramParser implements TelegramParser {
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
+                appendObisId((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
+                appendObisValue((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
+                appendObisValue((byte) c);
                 crc.processByte((byte) c);
                 break;
             case CRC_VALUE:
                 if (c == '!') {
                     crc.processByte((byte) c);
                 } else {
-                    crcValue.append(c);
+                    appendCrcValue(c);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,17 +373,59 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Stores a single byte of the OBIS identifier
+     *
+     * @param b the byte to store
+     */
+    private void appendObisId(byte b) {
+        if (obisIdLength == obisId.length) {
+            obisId = Arrays.copyOf(obisId, obisId.length * 2);
+        }
+        obisId[obisIdLength++] = b;
+    }
+
+    /**
+     * Stores a single byte of the OBIS value
+     *
+     * @param b the byte to store
+     */
+    private void appendObisValue(byte b) {
+        if (obisValueLength == obisValue.length) {
+            obisValue = Arrays.copyOf(obisValue, obisValue.length * 2);
+        }
+        obisValue[obisValueLength++] = b;
+    }
+
+    /**
+     * Adds a single character to the CRC value read
+     *
+     * @param c the character to add
+     */
+    private void appendCrcValue(char c) {
+        if (c >= '0' && c <= '9') {
+            crcValue = (crcValue << 4) | (c - '0');
+        } else if (c >= 'A' && c <= 'F') {
+            crcValue = (crcValue << 4) | (c - 'A' + 10);
+        } else {
+            crcValueValid = false;
+        }
+        crcValueLength++;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        clearObisData();
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
+        skippedCosemObjects = 0;
     }
 
     /**
@@ -367,27 +434,36 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
-
-        if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
-
-            if (cosemObject == null) {
-                if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
-                }
+        if (obisIdLength > 0) {
+            final OBISIdentifier obisIdentifier = factory.getOBISIdentifier(obisId, 0, obisIdLength);
+            final Set<OBISIdentifier> filter = obisFilter;
+
+            if (obisIdentifier != null && filter != null && !lenientMode
+                    && !filter.contains(obisIdentifier.getReducedOBISIdentifier())) {
+                logger.trace("Skipping Cosem Object {}, it's not used", obisIdentifier);
+                skippedCosemObjects++;
             } else {
-                logger.trace("Adding {} to list of Cosem Objects", cosemObject);
-                cosemObjects.add(cosemObject);
+                final String obisValueString = new String(obisValue, 0, obisValueLength, StandardCharsets.ISO_8859_1);
+                CosemObject cosemObject = obisIdentifier == null ? null
+                        : factory.getCosemObject(obisIdentifier, obisValueString);
+
+                if (cosemObject == null) {
+                    if (lenientMode) {
+                        unknownCosemObjects.add(new SimpleEntry<>(
+                                new String(obisId, 0, obisIdLength, StandardCharsets.ISO_8859_1), obisValueString));
+                    }
+                } else {
+                    logger.trace("Adding {} to list of Cosem Objects", cosemObject);
+                    cosemObjects.add(cosemObject);
+                }
             }
         }
         clearObisData();
@@ -428,4 +504,14 @@ public class P1TelegramParser implements TelegramParser {
     public void setLenientMode(boolean lenientMode) {
         this.lenientMode = lenientMode;
     }
+
+    /**
+     * Sets the OBIS Identifiers of the Cosem Objects to create. Cosem Objects with other identifiers are skipped
+     * without parsing their values. The filter is ignored in lenient mode.
+     *
+     * @param obisFilter set of reduced OBIS Identifiers or null to create all Cosem Objects
+     */
+    public void setObisFilter(@Nullable Set<OBISIdentifier> obisFilter) {
+        this.obisFilter = obisFilter;
+    }
 }
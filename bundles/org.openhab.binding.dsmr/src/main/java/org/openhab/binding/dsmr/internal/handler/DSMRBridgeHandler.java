@@ -15,16 +15,21 @@ package org.openhab.binding.dsmr.internal.handler;
 import static org.openhab.binding.dsmr.internal.DSMRBindingConstants.THING_TYPE_SMARTY_BRIDGE;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.io.transport.serial.SerialPortManager;
 import org.openhab.binding.dsmr.internal.device.DSMRDevice;
@@ -36,6 +41,7 @@ import org.openhab.binding.dsmr.internal.device.DSMRSerialAutoDevice;
 import org.openhab.binding.dsmr.internal.device.DSMRTelegramListener;
 import org.openhab.binding.dsmr.internal.device.connector.DSMRConnectorErrorEvent;
 import org.openhab.binding.dsmr.internal.device.connector.DSMRSerialSettings;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramListener;
 import org.slf4j.Logger;
@@ -74,6 +80,11 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
      */
     private @NonNullByDefault({}) DSMRDevice dsmrDevice;
 
+    /**
+     * The listener passing the data of the dsmrDevice to the telegram parser.
+     */
+    private @Nullable DSMRTelegramListener telegramListener;
+
     /**
      * Long running process that controls the DSMR device connection.
      */
@@ -154,6 +165,7 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
         dsmrDeviceThread.start();
         watchdog = scheduler.scheduleWithFixedDelay(this::alive, receivedTimeoutNanos, receivedTimeoutNanos,
                 TimeUnit.NANOSECONDS);
+        updateObisFilter(null);
     }
 
     /**
@@ -165,11 +177,14 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
     private DSMRDevice createDevice(DSMRDeviceConfiguration deviceConfig) {
         final DSMRDevice dsmrDevice;
 
+        final DSMRTelegramListener telegramListener;
+
         if (smartyMeter) {
+            telegramListener = new DSMRTelegramListener(deviceConfig.decryptionKey);
             dsmrDevice = new DSMRFixedConfigDevice(serialPortManager, deviceConfig.serialPort,
-                    DSMRSerialSettings.HIGH_SPEED_SETTINGS, this, new DSMRTelegramListener(deviceConfig.decryptionKey));
+                    DSMRSerialSettings.HIGH_SPEED_SETTINGS, this, telegramListener);
         } else {
-            final DSMRTelegramListener telegramListener = new DSMRTelegramListener();
+            telegramListener = new DSMRTelegramListener();
 
             if (deviceConfig.isSerialFixedSettings()) {
                 dsmrDevice = new DSMRFixedConfigDevice(serialPortManager, deviceConfig.serialPort,
@@ -179,6 +194,7 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
                         telegramListener, scheduler, deviceConfig.receivedTimeout);
             }
         }
+        this.telegramListener = telegramListener;
         return dsmrDevice;
     }
 
@@ -190,7 +206,10 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
      */
     public boolean registerDSMRMeterListener(P1TelegramListener meterListener) {
         logger.trace("Register DSMRMeterListener");
-        return meterListeners.add(meterListener);
+        boolean added = meterListeners.add(meterListener);
+
+        updateObisFilter(null);
+        return added;
     }
 
     /**
@@ -201,7 +220,51 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
      */
     public boolean unregisterDSMRMeterListener(P1TelegramListener meterListener) {
         logger.trace("Unregister DSMRMeterListener");
-        return meterListeners.remove(meterListener);
+        boolean removed = meterListeners.remove(meterListener);
+
+        updateObisFilter(null);
+        return removed;
+    }
+
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        updateObisFilter(null);
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        updateObisFilter(childHandler);
+    }
+
+    /**
+     * Updates the filter of Cosem Objects the parser creates to the Cosem Objects used by the meters of this bridge.
+     * When meter listeners are registered all Cosem Objects are needed, and therefore no filter is set.
+     *
+     * @param disposedHandler meter handler that is disposed and should not be taken into account or null
+     */
+    synchronized void updateObisFilter(@Nullable ThingHandler disposedHandler) {
+        final DSMRTelegramListener localTelegramListener = telegramListener;
+
+        if (localTelegramListener == null) {
+            return;
+        }
+        @Nullable
+        Set<OBISIdentifier> obisFilter = null;
+
+        if (meterListeners.isEmpty()) {
+            final Set<OBISIdentifier> identifiers = new HashSet<>();
+
+            for (Thing child : getThing().getThings()) {
+                final ThingHandler handler = child.getHandler();
+
+                if (handler instanceof DSMRMeterHandler && handler != disposedHandler) {
+                    identifiers.addAll(((DSMRMeterHandler) handler).getLinkedIdentifiers());
+                }
+            }
+            obisFilter = identifiers.isEmpty() ? null : identifiers;
+        }
+        logger.trace("Set OBIS filter: {}", obisFilter);
+        localTelegramListener.setObisFilter(obisFilter);
     }
 
     /**
@@ -240,7 +303,7 @@ public class DSMRBridgeHandler extends BaseBridgeHandler implements DSMREventLis
 
     @Override
     public synchronized void handleTelegramReceived(P1Telegram telegram) {
-        if (telegram.getCosemObjects().isEmpty()) {
+        if (telegram.getCosemObjects().isEmpty() && telegram.getSkippedCosemObjects() == 0) {
             logger.debug("Parsing worked but something went wrong, so there were no CosemObjects:{}",
                     telegram.getTelegramState().stateDetails);
             deviceOffline(ThingStatusDetail.COMMUNICATION_ERROR, telegram.getTelegramState().stateDetails);
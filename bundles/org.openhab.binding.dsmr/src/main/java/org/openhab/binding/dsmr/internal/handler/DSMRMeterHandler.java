@@ -12,25 +12,33 @@
  */
 package org.openhab.binding.dsmr.internal.handler;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectType;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramListener;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeter;
@@ -191,6 +199,63 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
         }
     }
 
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        super.channelLinked(channelUID);
+        updateBridgeObisFilter();
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        super.channelUnlinked(channelUID);
+        updateBridgeObisFilter();
+    }
+
+    /**
+     * Returns the identifiers of the Cosem Objects that are used by this meter. These are the Cosem Objects with a
+     * linked channel. When no channel is linked all Cosem Objects of the meter are used, so the meter can still detect
+     * if it receives data.
+     *
+     * @return Set of reduced OBIS Identifiers used by this meter
+     */
+    public Set<OBISIdentifier> getLinkedIdentifiers() {
+        final DSMRMeter localMeter = meter;
+
+        if (localMeter == null) {
+            return Collections.emptySet();
+        }
+        List<CosemObjectType> supportedTypes = Arrays
+                .asList(localMeter.getMeterDescriptor().getMeterType().supportedCosemObjects);
+        Set<CosemObjectType> linkedTypes = EnumSet.noneOf(CosemObjectType.class);
+
+        for (Channel channel : getThing().getChannels()) {
+            if (isLinked(channel.getUID())) {
+                String channelId = channel.getUID().getId();
+
+                for (CosemObjectType cosemObjectType : supportedTypes) {
+                    String typeChannelId = cosemObjectType.name().toLowerCase();
+
+                    if (channelId.equals(typeChannelId) || channelId.startsWith(typeChannelId + "_")) {
+                        linkedTypes.add(cosemObjectType);
+                    }
+                }
+            }
+        }
+        return localMeter.getIdentifiers(linkedTypes.isEmpty() ? supportedTypes : linkedTypes);
+    }
+
+    /**
+     * Lets the bridge update the Cosem Objects it parses after the linked channels of this meter have changed.
+     */
+    private void updateBridgeObisFilter() {
+        final Bridge bridge = getBridge();
+        final ThingHandler bridgeHandler = bridge == null ? null : bridge.getHandler();
+
+        if (bridgeHandler instanceof DSMRBridgeHandler) {
+            ((DSMRBridgeHandler) bridgeHandler).updateObisFilter(null);
+        }
+    }
+
     /**
      * @return Returns the {@link DSMRMeterDescriptor} this object is configured with
      */
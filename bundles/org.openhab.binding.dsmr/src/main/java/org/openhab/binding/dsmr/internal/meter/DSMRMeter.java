@@ -12,8 +12,12 @@
  */
 package org.openhab.binding.dsmr.internal.meter;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -42,9 +46,14 @@ public class DSMRMeter {
     private final DSMRMeterDescriptor meterDescriptor;
 
     /**
-     * List of supported message identifiers for this meter
+     * Supported message identifiers for this meter
      */
-    private List<OBISIdentifier> supportedIdentifiers = new ArrayList<>();
+    private final Map<CosemObjectType, OBISIdentifier> supportedIdentifiers = new EnumMap<>(CosemObjectType.class);
+
+    /**
+     * Set of all supported message identifiers for fast lookup
+     */
+    private final Set<OBISIdentifier> supportedIdentifierSet = new HashSet<>();
 
     /**
      * Creates a new DSMRMeter
@@ -57,12 +66,13 @@ public class DSMRMeter {
         for (CosemObjectType msgType : meterDescriptor.getMeterType().supportedCosemObjects) {
             OBISIdentifier obisId = msgType.obisId;
             if (msgType.obisId.getGroupB() == null) {
-                supportedIdentifiers.add(new OBISIdentifier(obisId.getGroupA(), meterDescriptor.getChannel(),
+                supportedIdentifiers.put(msgType, new OBISIdentifier(obisId.getGroupA(), meterDescriptor.getChannel(),
                         obisId.getGroupC(), obisId.getGroupD(), obisId.getGroupE(), msgType.obisId.getGroupF()));
             } else {
-                supportedIdentifiers.add(msgType.obisId);
+                supportedIdentifiers.put(msgType, msgType.obisId);
             }
         }
+        supportedIdentifierSet.addAll(supportedIdentifiers.values());
     }
 
     /**
@@ -74,12 +84,31 @@ public class DSMRMeter {
     public List<CosemObject> filterMeterValues(List<CosemObject> cosemObjects) {
         logger.trace("supported identifiers: {}, searching for objects {}", supportedIdentifiers, cosemObjects);
         List<CosemObject> filteredValues = cosemObjects.stream()
-                .filter(cosemObject -> supportedIdentifiers
+                .filter(cosemObject -> supportedIdentifierSet
                         .contains(cosemObject.getObisIdentifier().getReducedOBISIdentifier()))
                 .collect(Collectors.toList());
         return filteredValues;
     }
 
+    /**
+     * Returns the identifiers as used by this meter of the given {@link CosemObjectType}s.
+     *
+     * @param cosemObjectTypes the types to get the identifiers for
+     * @return Set of identifiers of the types that are supported by this meter
+     */
+    public Set<OBISIdentifier> getIdentifiers(Collection<CosemObjectType> cosemObjectTypes) {
+        Set<OBISIdentifier> identifiers = new HashSet<>();
+
+        for (CosemObjectType cosemObjectType : cosemObjectTypes) {
+            OBISIdentifier obisId = supportedIdentifiers.get(cosemObjectType);
+
+            if (obisId != null) {
+                identifiers.add(obisId);
+            }
+        }
+        return identifiers;
+    }
+
     /**
      * @return Returns the {@link DSMRMeterDescriptor} this object is configured with
      */
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.p1telegram;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectType;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+
+/**
+ * Test class for the byte level handling of {@link P1TelegramParser}: CRC check, OBIS filter and chunked data.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class P1TelegramParserObisFilterTest {
+
+    private static final String TELEGRAM_DATA = "/ISk5\\2MT382-1000\r\n\r\n" + "1-3:0.2.8(50)\r\n"
+            + "1-0:1.8.1(123456.789*kWh)\r\n" + "1-0:1.8.2(000012.345*kWh)\r\n" + "!";
+
+    private final AtomicReference<P1Telegram> telegram = new AtomicReference<>();
+    private final P1TelegramParser parser = new P1TelegramParser(telegram::set);
+
+    private static byte[] createTelegram(boolean validCrc) {
+        byte[] data = TELEGRAM_DATA.getBytes(StandardCharsets.US_ASCII);
+        int crc = new CRC16(CRC16.Polynom.CRC16_IBM).calculate(data, 0);
+        String crcString = String.format("%04X\r\n", validCrc ? crc : crc ^ 1);
+
+        return (TELEGRAM_DATA + crcString).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testValidCrc() {
+        byte[] data = createTelegram(true);
+
+        parser.parse(data, data.length);
+        assertNotNull("Telegram should have been received", telegram.get());
+        assertEquals(TelegramState.OK, telegram.get().getTelegramState());
+        assertEquals(3, telegram.get().getCosemObjects().size());
+        assertEquals(0, telegram.get().getSkippedCosemObjects());
+    }
+
+    @Test
+    public void testInvalidCrc() {
+        byte[] data = createTelegram(false);
+
+        parser.parse(data, data.length);
+        assertNotNull("Telegram should have been received", telegram.get());
+        assertEquals(TelegramState.CRC_ERROR, telegram.get().getTelegramState());
+    }
+
+    @Test
+    public void testChunkedData() {
+        byte[] data = createTelegram(true);
+
+        for (int i = 0; i < data.length; i++) {
+            parser.parse(new byte[] { data[i] }, 1);
+        }
+        assertNotNull("Telegram should have been received", telegram.get());
+        assertEquals(TelegramState.OK, telegram.get().getTelegramState());
+        assertEquals(3, telegram.get().getCosemObjects().size());
+    }
+
+    @Test
+    public void testObisFilter() {
+        byte[] data = createTelegram(true);
+
+        parser.setObisFilter(Collections.singleton(new OBISIdentifier(1, 0, 1, 8, 1, null)));
+        parser.parse(data, data.length);
+        assertNotNull("Telegram should have been received", telegram.get());
+        assertEquals(TelegramState.OK, telegram.get().getTelegramState());
+        assertEquals(1, telegram.get().getCosemObjects().size());
+        assertEquals(CosemObjectType.EMETER_DELIVERY_TARIFF1, telegram.get().getCosemObjects().get(0).getType());
+        assertEquals(2, telegram.get().getSkippedCosemObjects());
+    }
+
+    @Test
+    public void testObisFilterIgnoredInLenientMode() {
+        byte[] data = createTelegram(true);
+
+        parser.setObisFilter(Collections.singleton(new OBISIdentifier(1, 0, 1, 8, 1, null)));
+        parser.setLenientMode(true);
+        parser.parse(data, data.length);
+        assertNotNull("Telegram should have been received", telegram.get());
+        assertEquals(3, telegram.get().getCosemObjects().size());
+    }
+}
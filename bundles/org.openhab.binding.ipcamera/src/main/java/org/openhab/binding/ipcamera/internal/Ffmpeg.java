@@ -53,18 +53,18 @@ public class Ffmpeg {
     private IpCameraFfmpegThread ipCameraFfmpegThread = new IpCameraFfmpegThread();
     private int keepAlive = 8;
     private boolean running = false;
+    private String outArguments;
+    private String output;
+    private @Nullable FfmpegPipeline pipeline = null;
+    private boolean shared = false;
 
     public Ffmpeg(IpCameraHandler handle, FFmpegFormat format, String ffmpegLocation, String inputArguments,
             String input, String outArguments, String output, String username, String password) {
         this.format = format;
         ipCameraHandler = handle;
-        String altInput = input;
-        // Input can be snapshots not just rtsp or http
-        if (!password.isEmpty() && !input.contains("@") && input.contains("rtsp")) {
-            String credentials = username + ":" + password + "@";
-            // will not work for https: but currently binding does not use https
-            altInput = input.substring(0, 7) + credentials + input.substring(7);
-        }
+        this.outArguments = outArguments;
+        this.output = output;
+        String altInput = addCredentials(input, username, password);
         if (inputArguments.isEmpty()) {
             ffmpegCommand = "-i " + altInput + " " + outArguments + " " + output;
         } else {
@@ -75,6 +75,39 @@ public class Ffmpeg {
         commandArrayList.add(0, ffmpegLocation);
     }
 
+    /**
+     * Creates a long running output of the shared FFmpeg process of a camera, which is used for HLS and MJPEG. The
+     * output runs in its own process if it can not share the process.
+     */
+    public Ffmpeg(IpCameraHandler handle, FFmpegFormat format, FfmpegPipeline pipeline, String outArguments,
+            String output) {
+        this(handle, format, pipeline.getFfmpegLocation(), pipeline.getInputArguments(), pipeline.getInput(),
+                outArguments, output, "", "");
+        this.pipeline = pipeline;
+    }
+
+    static String addCredentials(String input, String username, String password) {
+        // Input can be snapshots not just rtsp or http
+        if (!password.isEmpty() && !input.contains("@") && input.contains("rtsp")) {
+            String credentials = username + ":" + password + "@";
+            // will not work for https: but currently binding does not use https
+            return input.substring(0, 7) + credentials + input.substring(7);
+        }
+        return input;
+    }
+
+    String getOutArguments() {
+        return outArguments;
+    }
+
+    String getOutput() {
+        return output;
+    }
+
+    boolean usesFilterComplex() {
+        return outArguments.contains("-filter_complex");
+    }
+
     public void setKeepAlive(int seconds) {
         if (seconds == -1) {
             keepAlive = -1;
@@ -118,8 +151,11 @@ public class Ffmpeg {
         @Override
         public void run() {
             try {
-                process = Runtime.getRuntime().exec(commandArrayList.toArray(new String[commandArrayList.size()]));
+                Process process = Runtime.getRuntime()
+                        .exec(commandArrayList.toArray(new String[commandArrayList.size()]));
+                Ffmpeg.this.process = process;
                 if (process != null) {
+                    ipCameraHandler.ffmpegCpuTime.add(process);
                     InputStream errorStream = process.getErrorStream();
                     InputStreamReader errorStreamReader = new InputStreamReader(errorStream);
                     BufferedReader bufferedReader = new BufferedReader(errorStreamReader);
@@ -149,30 +185,47 @@ public class Ffmpeg {
                         } else {
                             logger.debug("{}", line);
                         }
+                        ipCameraHandler.ffmpegCpuTime.sampleIfDue(process);
                     }
+                    // The output ends when FFmpeg exits, sample it before it is gone
+                    ipCameraHandler.ffmpegCpuTime.sample(process);
                 }
             } catch (IOException e) {
                 logger.warn("An error occured trying to process the messages from FFmpeg.");
             } finally {
-                switch (format) {
-                    case GIF:
-                        threadPool.schedule(this::gifCreated, 800, TimeUnit.MILLISECONDS);
-                        break;
-                    case RECORD:
-                        threadPool.schedule(this::mp4Created, 800, TimeUnit.MILLISECONDS);
-                        break;
-                    default:
-                        break;
-                }
+                outputClosed();
             }
         }
     }
 
+    /**
+     * Called once the process that wrote the output has stopped and the output file is complete.
+     */
+    private void outputClosed() {
+        IpCameraFfmpegThread thread = ipCameraFfmpegThread;
+        switch (format) {
+            case GIF:
+                thread.threadPool.schedule(thread::gifCreated, 800, TimeUnit.MILLISECONDS);
+                break;
+            case RECORD:
+                thread.threadPool.schedule(thread::mp4Created, 800, TimeUnit.MILLISECONDS);
+                break;
+            default:
+                break;
+        }
+    }
+
     public void startConverting() {
-        if (!ipCameraFfmpegThread.isAlive()) {
-            ipCameraFfmpegThread = new IpCameraFfmpegThread();
-            logger.debug("Starting ffmpeg with this command now:{}", ffmpegCommand);
-            ipCameraFfmpegThread.start();
+        if (!shared && !ipCameraFfmpegThread.isAlive()) {
+            FfmpegPipeline pipeline = this.pipeline;
+            if (pipeline != null && pipeline.addOutput(this)) {
+                logger.debug("Adding the ffmpeg {} output to the shared ffmpeg process", format);
+                shared = true;
+            } else {
+                ipCameraFfmpegThread = new IpCameraFfmpegThread();
+                logger.debug("Starting ffmpeg with this command now:{}", ffmpegCommand);
+                ipCameraFfmpegThread.start();
+            }
             running = true;
             if (format.equals(FFmpegFormat.HLS)) {
                 ipCameraHandler.setChannelState(CHANNEL_START_STREAM, OnOffType.ON);
@@ -188,10 +241,15 @@ public class Ffmpeg {
     }
 
     public void stopConverting() {
-        if (ipCameraFfmpegThread.isAlive()) {
+        if (shared || ipCameraFfmpegThread.isAlive()) {
             logger.debug("Stopping ffmpeg {} now", format);
             running = false;
-            if (process != null) {
+            FfmpegPipeline pipeline = this.pipeline;
+            if (shared && pipeline != null) {
+                shared = false;
+                pipeline.removeOutput(this);
+            } else if (process != null) {
+                ipCameraHandler.ffmpegCpuTime.sample(process);
                 process.destroyForcibly();
             }
             if (format.equals(FFmpegFormat.HLS)) {
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link FfmpegPipeline} class runs a single FFmpeg process per camera that reads and decodes the input once and
+ * feeds the long running HLS and MJPEG outputs, so that both at the same time do not each connect to the camera and
+ * decode the stream. GIF recordings and snapshots run in their own process.
+ * <p>
+ * FFmpeg can not add an output to a running process, so the process is restarted when a new output is started.
+ * Changes are collected for a short delay to avoid restarting once per output. Stopping an output does not restart
+ * the process, which would cut off the viewers of the other output. The stopped output keeps being written until the
+ * process is restarted or the last output stops, and starting it again in the meantime needs no restart.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+
+@NonNullByDefault
+public class FfmpegPipeline {
+    private static final long RESTART_DELAY_MS = 500;
+    private static final long RESTART_AFTER_FAILURE_MS = 8000;
+    private static final long STOP_TIMEOUT_S = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final String ffmpegLocation;
+    private final String inputArguments;
+    private final String input;
+    private final ProcessCpuTime cpuTime;
+
+    // The outputs that are requested, guarded by this
+    private final List<Ffmpeg> outputs = new ArrayList<>();
+    private @Nullable ScheduledFuture<?> restartJob = null;
+    private boolean stopped = false;
+
+    // The process, only changed by the scheduler thread, and its outputs, guarded by this
+    private volatile @Nullable Process process = null;
+    private volatile List<Ffmpeg> runningOutputs = Collections.emptyList();
+
+    public FfmpegPipeline(String ffmpegLocation, String inputArguments, String input, String username,
+            String password, ProcessCpuTime cpuTime) {
+        this.cpuTime = cpuTime;
+        this.ffmpegLocation = ffmpegLocation;
+        this.inputArguments = inputArguments;
+        this.input = Ffmpeg.addCredentials(input, username, password);
+    }
+
+    String getFfmpegLocation() {
+        return ffmpegLocation;
+    }
+
+    String getInputArguments() {
+        return inputArguments;
+    }
+
+    String getInput() {
+        return input;
+    }
+
+    /**
+     * Adds an output to the shared process. Only one output can use a -filter_complex, because the unlabeled output of
+     * a complex filter graph always goes to the first output of the process.
+     *
+     * @return false if the output can not share the process and needs to run on its own
+     */
+    synchronized boolean addOutput(Ffmpeg output) {
+        if (stopped) {
+            return false;
+        }
+        if (!outputs.contains(output)) {
+            if (output.usesFilterComplex() && outputs.stream().anyMatch(Ffmpeg::usesFilterComplex)) {
+                return false;
+            }
+            outputs.add(output);
+            // A stopped output that the running process still writes is attached again without a restart
+            if (!runningOutputs.contains(output) || process == null) {
+                scheduleRestart(RESTART_DELAY_MS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes an output from the shared process. The process is only stopped once no output is left.
+     */
+    synchronized void removeOutput(Ffmpeg output) {
+        if (outputs.remove(output) && outputs.isEmpty()) {
+            scheduleRestart(RESTART_DELAY_MS);
+        }
+    }
+
+    private synchronized void scheduleRestart(long delay) {
+        if (!stopped && restartJob == null) {
+            restartJob = scheduler.schedule(this::restart, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void restart() {
+        List<Ffmpeg> outputs;
+        synchronized (this) {
+            restartJob = null;
+            outputs = new ArrayList<>(this.outputs);
+            // The output that uses a complex filter graph has to come first
+            outputs.sort((a, b) -> Boolean.compare(b.usesFilterComplex(), a.usesFilterComplex()));
+            runningOutputs = outputs;
+        }
+        stopProcess();
+        if (outputs.isEmpty()) {
+            return;
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ffmpegLocation);
+        Collections.addAll(command, (inputArguments + " -i " + input).trim().split("\\s+"));
+        for (Ffmpeg output : outputs) {
+            Collections.addAll(command, (output.getOutArguments() + " " + output.getOutput()).trim().split("\\s+"));
+        }
+        logger.debug("Starting shared ffmpeg with this command now:{}", String.join(" ", command));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            this.process = process;
+            cpuTime.add(process);
+            Thread thread = new Thread(() -> logMessages(process), "ipcamera-ffmpeg");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException e) {
+            logger.warn("Could not start the shared FFmpeg process:{}", e.getMessage());
+        }
+    }
+
+    private void logMessages(Process process) {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = null;
+            while ((line = bufferedReader.readLine()) != null) {
+                logger.debug("{}", line);
+                cpuTime.sampleIfDue(process);
+            }
+        } catch (IOException e) {
+            logger.warn("An error occured trying to process the messages from FFmpeg.");
+        }
+        // The output ends when FFmpeg exits, sample it before it is gone
+        cpuTime.sample(process);
+        if (this.process == process && !runningOutputs.isEmpty()) {
+            logger.debug("The shared FFmpeg process stopped unexpectedly, restarting it soon.");
+            scheduleRestart(RESTART_AFTER_FAILURE_MS);
+        }
+    }
+
+    /**
+     * Asks FFmpeg to finish its outputs, and kills it if it does not stop.
+     */
+    private void stopProcess() {
+        Process process = this.process;
+        if (process == null) {
+            return;
+        }
+        this.process = null;
+        cpuTime.sample(process);
+        try {
+            OutputStream stdin = process.getOutputStream();
+            stdin.write('q');
+            stdin.flush();
+        } catch (IOException e) {
+            // FFmpeg has already stopped reading its input.
+        }
+        try {
+            if (!process.waitFor(STOP_TIMEOUT_S, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the shared process and all outputs, the pipeline can not be used afterwards.
+     */
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            outputs.clear();
+            ScheduledFuture<?> restartJob = this.restartJob;
+            if (restartJob != null) {
+                restartJob.cancel(false);
+                this.restartJob = null;
+            }
+        }
+        scheduler.execute(this::restart);
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ProcessCpuTime} class adds up the CPU time used by all FFmpeg processes of a camera, including the ones
+ * that have already stopped. The CPU time of a process is only known while it is running, so the last sample of a
+ * process is counted once it has stopped. The thread that reads the output of a process samples it while the process
+ * is running and once more when the output ends, so that processes which exit on their own are counted up to their
+ * exit.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+
+@NonNullByDefault
+public class ProcessCpuTime {
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The last CPU time sample of a process.
+     */
+    private static class Sample {
+        long millis;
+        long sampledNanos;
+    }
+
+    // The last sample of every process that was running when it was last sampled
+    private final Map<Process, Sample> processes = new HashMap<>();
+    private long stoppedMillis = 0;
+
+    /**
+     * Starts counting the CPU time of a process.
+     */
+    public synchronized void add(Process process) {
+        processes.putIfAbsent(process, new Sample());
+    }
+
+    /**
+     * Reads the CPU time of a process that is about to be stopped or whose output has ended.
+     */
+    public synchronized void sample(Process process) {
+        Sample sample = processes.get(process);
+        if (sample != null) {
+            update(process, sample, System.nanoTime());
+        }
+    }
+
+    /**
+     * Reads the CPU time of a running process, at most once per second. Called by the thread reading the output of
+     * the process.
+     */
+    public synchronized void sampleIfDue(Process process) {
+        Sample sample = processes.get(process);
+        long now = System.nanoTime();
+        if (sample != null && now - sample.sampledNanos >= SAMPLE_INTERVAL_NANOS) {
+            update(process, sample, now);
+        }
+    }
+
+    private static void update(Process process, Sample sample, long now) {
+        long millis = readCpuTime(process);
+        if (millis >= 0) {
+            sample.millis = millis;
+        }
+        sample.sampledNanos = now;
+    }
+
+    /**
+     * Returns the CPU time in milliseconds used by all processes up to their last sample.
+     */
+    public synchronized long getMillis() {
+        long runningMillis = 0;
+        long now = System.nanoTime();
+        Iterator<Entry<Process, Sample>> iterator = processes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Process, Sample> entry = iterator.next();
+            Process process = entry.getKey();
+            if (process.isAlive()) {
+                update(process, entry.getValue(), now);
+                runningMillis += entry.getValue().millis;
+            } else {
+                stoppedMillis += entry.getValue().millis;
+                iterator.remove();
+            }
+        }
+        return stoppedMillis + runningMillis;
+    }
+
+    /**
+     * Returns the user and system CPU time of a process in milliseconds, or -1 if it is not known.
+     */
+    static long readCpuTime(Process process) {
+        try {
+            // ProcessHandle is only available from Java 9 onwards
+            Object handle = Process.class.getMethod("toHandle").invoke(process);
+            Object info = Class.forName("java.lang.ProcessHandle").getMethod("info").invoke(handle);
+            Object cpuDuration = Class.forName("java.lang.ProcessHandle$Info").getMethod("totalCpuDuration")
+                    .invoke(info);
+            if (cpuDuration instanceof Optional) {
+                return ((Optional<?>) cpuDuration).map(duration -> ((Duration) duration).toMillis()).orElse(-1L);
+            }
+            return -1;
+        } catch (NoSuchMethodException e) {
+            return readProcStat(process);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Java 8 fallback for Linux, which reads the CPU time from /proc. The kernel reports utime and stime in clock
+     * ticks of USER_HZ, which is assumed to be 100 Hz: Java 8 cannot query sysconf(_SC_CLK_TCK), and 100 Hz is the
+     * value on all common Linux architectures. On a kernel with a different USER_HZ the CPU time is scaled wrongly.
+     */
+    private static long readProcStat(Process process) {
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+            String stat = new String(Files.readAllBytes(Paths.get("/proc/" + pidField.getInt(process) + "/stat")),
+                    StandardCharsets.US_ASCII);
+            // The process name in brackets may contain spaces, the state is the first field after it.
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            // utime and stime are counted in clock ticks of 10ms, see above
+            return (Long.parseLong(fields[11]) + Long.parseLong(fields[12])) * 10;
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link StreamMetrics} class counts the MJPEG frames a camera sends to its viewers, so that the frame rate, the
+ * bandwidth and the frames dropped for slow viewers can be reported.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+
+@NonNullByDefault
+public class StreamMetrics {
+    private long frames = 0;
+    private long bytes = 0;
+    private long droppedFrames = 0;
+    private long lastReportTime = System.nanoTime();
+
+    /**
+     * Counts a frame that was sent to the viewers of a stream.
+     *
+     * @param frameBytes the size of the frame including the multipart headers
+     * @param viewers the number of viewers the frame was sent to
+     * @param slowViewers the number of viewers that skipped the frame because they could not keep up
+     */
+    public synchronized void frameSent(int frameBytes, int viewers, int slowViewers) {
+        frames++;
+        bytes += (long) frameBytes * viewers;
+        droppedFrames += slowViewers;
+    }
+
+    /**
+     * Returns a summary of the frames sent since the last report and starts a new report interval, or an empty string
+     * if no frames were sent.
+     */
+    public synchronized String report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(0.001, (now - lastReportTime) / 1e9);
+        String report = frames == 0 ? ""
+                : String.format("%.1f fps, %d kB/s to all viewers, %d frames dropped for slow viewers",
+                        frames / seconds, (long) (bytes / seconds / 1024), droppedFrames);
+        frames = 0;
+        bytes = 0;
+        droppedFrames = 0;
+        lastReportTime = now;
+        return report;
+    }
+}
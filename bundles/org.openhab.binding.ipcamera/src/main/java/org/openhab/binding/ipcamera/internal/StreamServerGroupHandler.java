@@ -139,7 +139,8 @@ public class StreamServerGroupHandler extends ChannelInboundHandlerAdapter {
         IpCameraHandler handler = ipCameraGroupHandler.cameraOrder.get(ipCameraGroupHandler.cameraIndex);
         handler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(handler.currentSnapshot);
+            // Snapshots are replaced and never modified, so the array can be shared
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(handler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
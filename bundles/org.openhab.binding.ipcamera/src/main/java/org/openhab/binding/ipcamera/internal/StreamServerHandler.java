@@ -26,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -57,9 +59,9 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private static final int MAX_INCOMING_COMPONENTS = 1024;
+    private @Nullable CompositeByteBuf incomingJpeg = null; // the received chunks, without copying them
     private String whiteList = "";
-    private int recievedBytes = 0;
     private boolean updateSnapshot = false;
     private boolean onvifEvent = false;
 
@@ -177,32 +179,27 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                int index = 0;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().capacity()];
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().capacity()];
-
-                    for (; index < temp.length; index++) {
-                        incomingJpeg[index] = temp[index];
-                    }
+                CompositeByteBuf incoming = incomingJpeg;
+                if (incoming == null) {
+                    incoming = ctx.alloc().compositeBuffer(MAX_INCOMING_COMPONENTS);
+                    incomingJpeg = incoming;
                 }
-                for (int i = 0; i < content.content().capacity(); i++) {
-                    incomingJpeg[index++] = content.content().getByte(i);
-                }
-                recievedBytes = incomingJpeg.length;
+                incoming.addComponent(true, content.content().retain());
                 if (content instanceof LastHttpContent) {
+                    incomingJpeg = null;
                     if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
+                        ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(incoming));
+                        incoming.release();
                     } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
+                        ipCameraHandler.onvifCamera.eventRecieved(incoming.toString(StandardCharsets.UTF_8));
+                        incoming.release();
                     } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
-                        if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
+                        if (incoming.readableBytes() > 1000) {
+                            ipCameraHandler.sendMjpegFrame(incoming, ipCameraHandler.mjpegChannelGroup);
+                        } else {
+                            incoming.release();
                         }
                     }
-                    recievedBytes = 0;
                 }
             }
         } finally {
@@ -214,7 +211,8 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         ipCameraHandler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
+            // Snapshots are replaced and never modified, so the array can be shared
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
@@ -286,6 +284,11 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+        CompositeByteBuf incoming = incomingJpeg;
+        if (incoming != null) {
+            incomingJpeg = null;
+            incoming.release();
+        }
         if (ctx == null) {
             return;
         }
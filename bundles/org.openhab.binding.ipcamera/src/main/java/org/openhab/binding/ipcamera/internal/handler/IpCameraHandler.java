@@ -60,6 +60,7 @@ import org.openhab.binding.ipcamera.internal.ChannelTracking;
 import org.openhab.binding.ipcamera.internal.DahuaHandler;
 import org.openhab.binding.ipcamera.internal.DoorBirdHandler;
 import org.openhab.binding.ipcamera.internal.Ffmpeg;
+import org.openhab.binding.ipcamera.internal.FfmpegPipeline;
 import org.openhab.binding.ipcamera.internal.FoscamHandler;
 import org.openhab.binding.ipcamera.internal.GroupTracker;
 import org.openhab.binding.ipcamera.internal.Helper;
@@ -69,6 +70,7 @@ import org.openhab.binding.ipcamera.internal.InstarHandler;
 import org.openhab.binding.ipcamera.internal.IpCameraActions;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.MyNettyAuthHandler;
+import org.openhab.binding.ipcamera.internal.ProcessCpuTime;
 import org.openhab.binding.ipcamera.internal.StreamServerHandler;
 import org.openhab.binding.ipcamera.internal.onvif.OnvifConnection;
 import org.slf4j.Logger;
@@ -77,6 +79,9 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -86,6 +91,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -124,6 +130,12 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    private static final String MJPEG_BOUNDARY = "thisMjpegStream";
+    private static final ByteBuf MJPEG_FRAME_FOOTER = Unpooled
+            .unreleasableBuffer(Unpooled.copiedBuffer("\r\n", StandardCharsets.UTF_8));
+    // Stream viewers with more than the high water mark of data queued skip frames until they are back below the low
+    private static final WriteBufferWaterMark STREAM_WATER_MARK = new WriteBufferWaterMark(512 * 1024,
+            2 * 1024 * 1024);
     public final Logger logger = LoggerFactory.getLogger(getClass());
     private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
     private GroupTracker groupTracker;
@@ -140,6 +152,11 @@ public class IpCameraHandler extends BaseThingHandler {
     public @Nullable Ffmpeg ffmpegRtspHelper = null;
     public @Nullable Ffmpeg ffmpegMjpeg = null;
     public @Nullable Ffmpeg ffmpegSnapshot = null;
+    // HLS and MJPEG share one FFmpeg process that decodes the rtspUri only once.
+    private @Nullable FfmpegPipeline ffmpegPipeline = null;
+    public final ProcessCpuTime ffmpegCpuTime = new ProcessCpuTime();
+    private long lastFfmpegCpuTime = 0;
+    private long lastFfmpegCpuReport = System.nanoTime();
     public boolean streamingAutoFps = false;
     public boolean motionDetected = false;
 
@@ -197,6 +214,7 @@ public class IpCameraHandler extends BaseThingHandler {
     public boolean ffmpegSnapshotGeneration = false;
     public boolean snapshotPolling = false;
     public OnvifConnection onvifCamera = new OnvifConnection(this, "", "", "");
+    private final StreamMetrics streamMetrics = new StreamMetrics();
 
     // These methods handle the response from all camera brands, nothing specific to 1 brand.
     private class CommonCameraHandler extends ChannelDuplexHandler {
@@ -666,6 +684,7 @@ public class IpCameraHandler extends BaseThingHandler {
                 serverBootstrap = new ServerBootstrap();
                 serverBootstrap.group(serversLoopGroup);
                 serverBootstrap.channel(NioServerSocketChannel.class);
+                serverBootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, STREAM_WATER_MARK);
                 // IP "0.0.0.0" will bind the server to all network connections//
                 serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", cameraConfig.getServerPort()));
                 serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
@@ -818,8 +837,7 @@ public class IpCameraHandler extends BaseThingHandler {
 
     // sends direct to ctx so can be either snapshots.mjpeg or normal mjpeg stream
     public void sendMjpegFirstPacket(ChannelHandlerContext ctx) {
-        final String BOUNDARY = "thisMjpegStream";
-        String contentType = "multipart/x-mixed-replace; boundary=" + BOUNDARY;
+        String contentType = "multipart/x-mixed-replace; boundary=" + MJPEG_BOUNDARY;
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
         response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
@@ -830,16 +848,34 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
-        final String BOUNDARY = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
-        String header = "--" + BOUNDARY + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
-                + "\r\n\r\n";
-        ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-        streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        // Snapshots are replaced and never modified, so the array can be shared with the viewers
+        sendMjpegFrame(Unpooled.wrappedBuffer(jpg), channelGroup);
+    }
+
+    /**
+     * Sends a JPEG as one MJPEG frame to all viewers of the channelGroup. The frame is a single composite buffer that
+     * all viewers share without copying the JPEG. Viewers that can not keep up with the stream skip the frame instead
+     * of buffering it. The ownership of the jpg buffer is passed to this method.
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
+        int length = jpg.readableBytes();
+        String header = "--" + MJPEG_BOUNDARY + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: "
+                + length + "\r\n\r\n";
+        CompositeByteBuf frame = ByteBufAllocator.DEFAULT.compositeBuffer(3);
+        frame.addComponents(true, ByteBufUtil.writeAscii(ByteBufAllocator.DEFAULT, header), jpg,
+                MJPEG_FRAME_FOOTER.duplicate());
+        int viewers = 0;
+        int slowViewers = 0;
+        for (Channel channel : channelGroup) {
+            if (channel.isWritable()) {
+                viewers++;
+            } else {
+                slowViewers++;
+            }
+        }
+        streamMetrics.frameSent(frame.readableBytes(), viewers, slowViewers);
+        // The group writes a retained duplicate to every matching channel and releases the frame afterwards
+        channelGroup.writeAndFlush(frame, Channel::isWritable);
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -899,17 +935,8 @@ public class IpCameraHandler extends BaseThingHandler {
         switch (format) {
             case HLS:
                 if (ffmpegHLS == null) {
-                    if (!inputOptions.isEmpty()) {
-                        ffmpegHLS = new Ffmpeg(this, format, cameraConfig.getFfmpegLocation(),
-                                "-hide_banner -loglevel warning " + inputOptions, rtspUri,
-                                cameraConfig.getHlsOutOptions(), cameraConfig.getFfmpegOutput() + "ipcamera.m3u8",
-                                cameraConfig.getUser(), cameraConfig.getPassword());
-                    } else {
-                        ffmpegHLS = new Ffmpeg(this, format, cameraConfig.getFfmpegLocation(),
-                                "-hide_banner -loglevel warning", rtspUri, cameraConfig.getHlsOutOptions(),
-                                cameraConfig.getFfmpegOutput() + "ipcamera.m3u8", cameraConfig.getUser(),
-                                cameraConfig.getPassword());
-                    }
+                    ffmpegHLS = new Ffmpeg(this, format, getFfmpegPipeline(inputOptions),
+                            cameraConfig.getHlsOutOptions(), cameraConfig.getFfmpegOutput() + "ipcamera.m3u8");
                 }
                 if (ffmpegHLS != null) {
                     ffmpegHLS.startConverting();
@@ -1007,15 +1034,9 @@ public class IpCameraHandler extends BaseThingHandler {
                 break;
             case MJPEG:
                 if (ffmpegMjpeg == null) {
-                    if (inputOptions.isEmpty()) {
-                        inputOptions = "-hide_banner -loglevel warning";
-                    } else {
-                        inputOptions = inputOptions + " -hide_banner -loglevel warning";
-                    }
-                    ffmpegMjpeg = new Ffmpeg(this, format, cameraConfig.getFfmpegLocation(), inputOptions, rtspUri,
+                    ffmpegMjpeg = new Ffmpeg(this, format, getFfmpegPipeline(inputOptions),
                             cameraConfig.getMjpegOptions(),
-                            "http://127.0.0.1:" + cameraConfig.getServerPort() + "/ipcamera.jpg",
-                            cameraConfig.getUser(), cameraConfig.getPassword());
+                            "http://127.0.0.1:" + cameraConfig.getServerPort() + "/ipcamera.jpg");
                 }
                 if (ffmpegMjpeg != null) {
                     ffmpegMjpeg.startConverting();
@@ -1042,6 +1063,17 @@ public class IpCameraHandler extends BaseThingHandler {
         }
     }
 
+    private FfmpegPipeline getFfmpegPipeline(String inputOptions) {
+        FfmpegPipeline pipeline = ffmpegPipeline;
+        if (pipeline == null) {
+            pipeline = new FfmpegPipeline(cameraConfig.getFfmpegLocation(),
+                    ("-y -hide_banner -loglevel warning " + inputOptions).trim(), rtspUri, cameraConfig.getUser(),
+                    cameraConfig.getPassword(), ffmpegCpuTime);
+            ffmpegPipeline = pipeline;
+        }
+        return pipeline;
+    }
+
     public void noMotionDetected(String thisAlarmsChannel) {
         setChannelState(thisAlarmsChannel, OnOffType.OFF);
         firstMotionAlarm = false;
@@ -1584,6 +1616,19 @@ public class IpCameraHandler extends BaseThingHandler {
         if (ffmpegHLS != null) {
             ffmpegHLS.checkKeepAlive();
         }
+        String streamReport = streamMetrics.report();
+        if (!streamReport.isEmpty()) {
+            logger.debug("MJPEG streams of camera {}: {}", cameraConfig.getIp(), streamReport);
+        }
+        long cpuTime = ffmpegCpuTime.getMillis();
+        long now = System.nanoTime();
+        if (cpuTime > lastFfmpegCpuTime) {
+            long intervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - lastFfmpegCpuReport));
+            logger.debug("FFmpeg used {}% of a CPU core for camera {}, {} seconds of CPU time in total.",
+                    (cpuTime - lastFfmpegCpuTime) * 100 / intervalMillis, cameraConfig.getIp(), cpuTime / 1000);
+        }
+        lastFfmpegCpuReport = now;
+        lastFfmpegCpuTime = cpuTime;
         if (openChannels.size() > 18) {
             logger.debug("There are {} open Channels being tracked.", openChannels.size());
             cleanChannels();
@@ -1737,6 +1782,10 @@ public class IpCameraHandler extends BaseThingHandler {
             ffmpegSnapshot.stopConverting();
             ffmpegSnapshot = null;
         }
+        if (ffmpegPipeline != null) {
+            ffmpegPipeline.stop();
+            ffmpegPipeline = null;
+        }
         channelTrackingMap.clear();
     }
 
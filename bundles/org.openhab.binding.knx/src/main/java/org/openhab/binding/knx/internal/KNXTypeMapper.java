@@ -17,6 +17,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.types.Type;
 
 import tuwien.auto.calimero.datapoint.Datapoint;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
 import tuwien.auto.calimero.process.ProcessEvent;
 
 /**
@@ -41,6 +42,19 @@ public interface KNXTypeMapper {
     @Nullable
     public String toDPTValue(Type type, @Nullable String dpt);
 
+    /**
+     * maps an openHAB command/state directly to a translator holding its datapoint value in KNX, without a string
+     * representation of the value
+     *
+     * @param type a command or state
+     * @param dpt the corresponding datapoint type
+     * @return a translator holding the value, or null if the value must be mapped by {@link #toDPTValue}
+     */
+    @Nullable
+    public default DPTXlator toDPTXlator(Type type, String dpt) {
+        return null;
+    }
+
     /**
      * maps a datapoint value to an openHAB command or state
      *
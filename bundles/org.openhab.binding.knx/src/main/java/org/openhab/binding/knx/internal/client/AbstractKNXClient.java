@@ -14,7 +14,6 @@ package org.openhab.binding.knx.internal.client;
 
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -41,6 +40,7 @@ import tuwien.auto.calimero.KNXException;
 import tuwien.auto.calimero.datapoint.CommandDP;
 import tuwien.auto.calimero.datapoint.Datapoint;
 import tuwien.auto.calimero.device.ProcessCommunicationResponder;
+import tuwien.auto.calimero.dptxlator.DPTXlator;
 import tuwien.auto.calimero.link.KNXNetworkLink;
 import tuwien.auto.calimero.link.NetworkLinkListener;
 import tuwien.auto.calimero.mgmt.Destination;
@@ -64,6 +64,12 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    /** Interval of checking the read queue in adaptive reading mode, i.e. when reading pause is 0 */
+    private static final int ADAPTIVE_READING_INTERVAL = 20;
+    /** Longest time spent reading in one go in adaptive reading mode, to give other tasks a chance to run */
+    private static final long ADAPTIVE_READING_MAX_BATCH_MILLIS = 1000;
+    /** Upper limit of the pause after failed reads in adaptive reading mode */
+    private static final long ADAPTIVE_READING_MAX_BACKOFF_MILLIS = 5000;
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -86,7 +92,9 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> connectJob;
 
     private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
-    private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final ReadQueue readDatapoints = new ReadQueue();
+    private long readBackoffMillis;
+    private long nextReadMillis;
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -196,8 +204,13 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
-                    TimeUnit.MILLISECONDS);
+            if (readingPause > 0) {
+                busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
+                        TimeUnit.MILLISECONDS);
+            } else {
+                busJob = knxScheduler.scheduleWithFixedDelay(() -> readQueuedDatapoints(), 0,
+                        ADAPTIVE_READING_INTERVAL, TimeUnit.MILLISECONDS);
+            }
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
             connectJob = null;
@@ -270,14 +283,43 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
+    /**
+     * Read the queued datapoints back-to-back, as fast as the bus responds.
+     *
+     * Read requests wait for the response (or the response timeout), so the pace follows the confirmations of the
+     * connection. After a failed read the reading pauses, doubling the pause on consecutive failures.
+     */
+    private void readQueuedDatapoints() {
+        long start = System.currentTimeMillis();
+        if (start < nextReadMillis || !connectIfNotAutomatic()) {
+            return;
+        }
+        while (!readDatapoints.isEmpty() && System.currentTimeMillis() - start < ADAPTIVE_READING_MAX_BATCH_MILLIS) {
+            if (readNextQueuedDatapoint()) {
+                readBackoffMillis = 0;
+            } else {
+                readBackoffMillis = Math.min(ADAPTIVE_READING_MAX_BACKOFF_MILLIS,
+                        Math.max(ADAPTIVE_READING_INTERVAL, 2 * readBackoffMillis));
+                nextReadMillis = System.currentTimeMillis() + readBackoffMillis;
+                logger.trace("Pausing reading for {} ms", readBackoffMillis);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read the next queued datapoint
+     *
+     * @return {@code false} if the datapoint could not be read, {@code true} otherwise
+     */
     @SuppressWarnings("null")
-    private void readNextQueuedDatapoint() {
+    private boolean readNextQueuedDatapoint() {
         if (!connectIfNotAutomatic()) {
-            return;
+            return false;
         }
         ProcessCommunicator processCommunicator = this.processCommunicator;
         if (processCommunicator == null) {
-            return;
+            return false;
         }
         ReadDatapoint datapoint = readDatapoints.poll();
         if (datapoint != null) {
@@ -287,18 +329,25 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
                 processCommunicator.read(datapoint.getDatapoint());
             } catch (KNXException e) {
                 if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
+                    readDatapoints.retry(datapoint);
                     logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
                             datapoint.getDatapoint().getMainAddress(), e.getMessage());
                 } else {
                     logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
                             datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
                 }
+                return false;
             } catch (InterruptedException e) {
                 logger.debug("Interrupted sending KNX read request");
-                return;
+                return false;
+            }
+            if (readDatapoints.isEmpty()) {
+                logger.debug("Read {} datapoints in {} ms, at most {} datapoints were waiting",
+                        readDatapoints.getDrainedCount(), readDatapoints.getDrainMillis(),
+                        readDatapoints.getMaxSize());
             }
         }
+        return true;
     }
 
     public void dispose() {
@@ -366,15 +415,22 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
-        synchronized (this) {
-            ReadDatapoint retryDatapoint = new ReadDatapoint(datapoint, readRetriesLimit);
-            if (!readDatapoints.contains(retryDatapoint)) {
-                readDatapoints.add(retryDatapoint);
-            }
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
+        if (readDatapoints.add(new ReadDatapoint(datapoint, readRetriesLimit), priority)) {
+            logger.trace("Queued datapoint {} for reading with priority {}, {} datapoints waiting",
+                    datapoint.getMainAddress(), priority, readDatapoints.size());
         }
     }
 
+    /**
+     * Number of datapoints waiting to be read
+     *
+     * @return size of the read queue
+     */
+    public int getReadQueueSize() {
+        return readDatapoints.size();
+    }
+
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
         return groupAddressListeners.add(listener);
@@ -445,17 +501,24 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
 
         Datapoint datapoint = new CommandDP(groupAddress, thingUID.toString(), 0, dpt);
-        String mappedValue = toDPTValue(type, dpt);
+        // the main numeric and boolean types are mapped without formatting the value as a string
+        DPTXlator translator = typeHelper.toDPTXlator(type, dpt);
+        String mappedValue = translator == null ? toDPTValue(type, dpt) : null;
 
-        logger.trace("sendToKNX mappedValue: '{}' groupAddress: '{}'", mappedValue, groupAddress);
+        logger.trace("sendToKNX mappedValue: '{}' groupAddress: '{}'", translator == null ? mappedValue : translator,
+                groupAddress);
 
-        if (mappedValue == null) {
+        if (translator == null && mappedValue == null) {
             logger.debug("Value '{}' cannot be mapped to datapoint '{}'", type, datapoint);
             return;
         }
         for (int i = 0; i < MAX_SEND_ATTEMPTS; i++) {
             try {
-                communicator.write(datapoint, mappedValue);
+                if (translator != null) {
+                    communicator.write(groupAddress, translator);
+                } else if (mappedValue != null) {
+                    communicator.write(datapoint, mappedValue);
+                }
                 logger.debug("Wrote value '{}' to datapoint '{}' ({}. attempt).", type, datapoint, i);
                 break;
             } catch (KNXException e) {
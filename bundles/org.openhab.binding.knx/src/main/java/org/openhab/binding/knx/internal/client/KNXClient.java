@@ -79,9 +79,12 @@ public interface KNXClient {
     /**
      * Schedule the given data point for asynchronous reading.
      *
+     * Data points with the same group address are read only once, even if scheduled many times before being read.
+     *
      * @param datapoint the datapoint
+     * @param priority the priority of the read
      */
-    void readDatapoint(Datapoint datapoint);
+    void readDatapoint(Datapoint datapoint, ReadPriority priority);
 
     /**
      * Write a command to the KNX bus.
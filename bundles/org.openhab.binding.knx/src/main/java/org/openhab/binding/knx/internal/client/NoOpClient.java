@@ -59,7 +59,7 @@ public class NoOpClient implements KNXClient {
     }
 
     @Override
-    public void readDatapoint(Datapoint datapoint) {
+    public void readDatapoint(Datapoint datapoint, ReadPriority priority) {
     }
 
     @Override
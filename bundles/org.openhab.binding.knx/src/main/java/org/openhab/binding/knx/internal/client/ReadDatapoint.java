@@ -24,6 +24,7 @@ public class ReadDatapoint {
     private final Datapoint datapoint;
     private int retries;
     private final int limit;
+    private ReadPriority priority = ReadPriority.REFRESH;
 
     public ReadDatapoint(Datapoint datapoint, int limit) {
         this.datapoint = datapoint;
@@ -47,6 +48,14 @@ public class ReadDatapoint {
         return limit;
     }
 
+    public ReadPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(ReadPriority priority) {
+        this.priority = priority;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Priority classes of queued read requests, in the order of decreasing priority.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public enum ReadPriority {
+    /** Reads triggered by the user, e.g. by a REFRESH command */
+    USER,
+    /** Initial reads when things are initialized or channels linked */
+    STARTUP,
+    /** Periodic reads refreshing the values */
+    REFRESH
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of datapoints waiting to be read from the KNX bus.
+ *
+ * Each group address is queued at most once: queuing an address which is already waiting is a no-op, apart from
+ * raising its priority if needed. Datapoints are polled in the order of {@link ReadPriority}, and in insertion order
+ * within the same priority. All operations are constant time.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+class ReadQueue {
+
+    private final Map<GroupAddress, ReadDatapoint> pending = new HashMap<>();
+    private final Map<ReadPriority, Deque<ReadDatapoint>> queues = new EnumMap<>(ReadPriority.class);
+
+    private long drainStartedMillis;
+    private int drainedCount;
+    private int maxSize;
+
+    ReadQueue() {
+        for (ReadPriority priority : ReadPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Queue a datapoint, unless its group address is already queued.
+     *
+     * @param datapoint datapoint to read
+     * @param priority priority of the read
+     * @return {@code true} if the datapoint was queued, {@code false} if its group address was queued already
+     */
+    synchronized boolean add(ReadDatapoint datapoint, ReadPriority priority) {
+        GroupAddress address = datapoint.getDatapoint().getMainAddress();
+        ReadDatapoint queued = pending.get(address);
+        if (queued != null) {
+            if (priority.compareTo(queued.getPriority()) < 0) {
+                // the entry in the lower priority queue becomes stale, and is skipped when encountered
+                queued.setPriority(priority);
+                queues.get(priority).add(queued);
+            }
+            return false;
+        }
+        if (pending.isEmpty()) {
+            drainStartedMillis = System.currentTimeMillis();
+            drainedCount = 0;
+        }
+        datapoint.setPriority(priority);
+        pending.put(address, datapoint);
+        queues.get(priority).add(datapoint);
+        maxSize = Math.max(maxSize, pending.size());
+        return true;
+    }
+
+    /**
+     * Re-queue a datapoint after a failed read, keeping its priority.
+     *
+     * @param datapoint datapoint to read
+     */
+    synchronized void retry(ReadDatapoint datapoint) {
+        add(datapoint, datapoint.getPriority());
+    }
+
+    /**
+     * Take the next datapoint to read.
+     *
+     * @return datapoint with the highest priority, or {@code null} if the queue is empty
+     */
+    synchronized @Nullable ReadDatapoint poll() {
+        for (Map.Entry<ReadPriority, Deque<ReadDatapoint>> entry : queues.entrySet()) {
+            Deque<ReadDatapoint> queue = entry.getValue();
+            ReadDatapoint datapoint;
+            while ((datapoint = queue.poll()) != null) {
+                GroupAddress address = datapoint.getDatapoint().getMainAddress();
+                if (datapoint.getPriority() == entry.getKey() && pending.get(address) == datapoint) {
+                    pending.remove(address);
+                    drainedCount++;
+                    return datapoint;
+                }
+            }
+        }
+        return null;
+    }
+
+    synchronized void clear() {
+        pending.clear();
+        queues.values().forEach(Deque::clear);
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Largest number of datapoints waiting at the same time
+     */
+    synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of datapoints taken from the queue since it was empty the last time
+     */
+    synchronized int getDrainedCount() {
+        return drainedCount;
+    }
+
+    /**
+     * Milliseconds since the queue was empty the last time
+     */
+    synchronized long getDrainMillis() {
+        return System.currentTimeMillis() - drainStartedMillis;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -107,6 +108,35 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /** caches the resolved datapoint type for each DPT id seen in {@link #toDPTValue(Type, String)} */
+    private final Map<String, DPT> dptCache = new ConcurrentHashMap<>();
+
+    /**
+     * caches a translator per DPT id for {@link #toType(Datapoint, byte[])}.
+     * Translators are stateful, hence each thread gets its own instances.
+     */
+    private final ThreadLocal<Map<String, CachedTranslator>> translatorCache = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Translator together with the information derived from its DPT id, so that it does not need to be
+     * parsed and looked up again for every telegram.
+     */
+    private static class CachedTranslator {
+        final DPTXlator translator;
+        final String id;
+        final int mainNumber;
+        final int subNumber;
+        final Class<? extends Type> typeClass;
+
+        CachedTranslator(DPTXlator translator, int mainNumber, int subNumber, Class<? extends Type> typeClass) {
+            this.translator = translator;
+            this.id = translator.getType().getID();
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+        }
+    }
+
     public KNXCoreTypeMapper() {
         @SuppressWarnings("unused")
         final List<Class<?>> xlators = Arrays.<Class<?>> asList(DPTXlator1BitControlled.class,
@@ -584,11 +614,15 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
             return null;
         }
 
-        try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
-            dpt = translator.getType();
-        } catch (KNXException e) {
-            return null;
+        dpt = dptCache.get(dptID);
+        if (dpt == null) {
+            try {
+                DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+                dpt = translator.getType();
+            } catch (KNXException e) {
+                return null;
+            }
+            dptCache.put(dptID, dpt);
         }
 
         try {
@@ -670,26 +704,78 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Maps the main numeric and boolean datapoint types 1, 5, 9 and 14 directly to a translator, so that the value is
+     * not formatted to a string and parsed again by the translator. All other types return null and are mapped by
+     * {@link #toDPTValue(Type, String)}.
+     */
+    @Override
+    public DPTXlator toDPTXlator(Type type, String dptID) {
+        int mainNumber = getMainNumber(dptID);
+        if (mainNumber != 1 && mainNumber != 5 && mainNumber != 9 && mainNumber != 14) {
+            return null;
+        }
+        // HSBType extends PercentType, but is mapped to its hue or brightness
+        if (type instanceof HSBType) {
+            return null;
+        }
+        try {
+            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            if (translator instanceof DPTXlatorBoolean) {
+                if (type instanceof OnOffType) {
+                    ((DPTXlatorBoolean) translator).setValue(type.equals(OnOffType.ON));
+                } else if (type instanceof UpDownType) {
+                    ((DPTXlatorBoolean) translator).setValue(type.equals(UpDownType.DOWN));
+                } else if (type instanceof OpenClosedType) {
+                    ((DPTXlatorBoolean) translator).setValue(type.equals(OpenClosedType.OPEN));
+                } else if (type instanceof StopMoveType) {
+                    ((DPTXlatorBoolean) translator).setValue(type.equals(StopMoveType.MOVE));
+                } else {
+                    return null;
+                }
+                return translator;
+            }
+            if (!(type instanceof DecimalType)) {
+                return null;
+            }
+            DecimalType decimal = (DecimalType) type;
+            if (translator instanceof DPTXlator8BitUnsigned) {
+                // fractional values are rounded by the translator when parsed from a string
+                if (decimal.toBigDecimal().stripTrailingZeros().scale() > 0) {
+                    return null;
+                }
+                ((DPTXlator8BitUnsigned) translator).setValue(decimal.intValue());
+            } else if (translator instanceof DPTXlator2ByteFloat) {
+                ((DPTXlator2ByteFloat) translator).setValue(decimal.floatValue());
+            } else if (translator instanceof DPTXlator4ByteFloat) {
+                ((DPTXlator4ByteFloat) translator).setValue(decimal.floatValue());
+            } else {
+                return null;
+            }
+            return translator;
+        } catch (KNXException | KNXIllegalArgumentException e) {
+            logger.debug("toDPTXlator: Couldn't convert type {} to dpt id {}: {}", type, dptID, e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            CachedTranslator cached = getTranslator(datapoint);
+            if (cached == null) {
+                return null;
+            }
+            DPTXlator translator = cached.translator;
             translator.setData(data);
-            String value = translator.getValue();
+            // the textual value is only needed by a few types, so it is created lazily
+            String value = null;
 
-            String id = translator.getType().getID();
+            String id = cached.id;
             logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
 
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
-                return null;
-            }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
-            }
+            int mainNumber = cached.mainNumber;
+            int subNumber = cached.subNumber;
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
@@ -707,7 +793,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         case 19:
                             return translatorBoolean.getValueBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
                         case 22:
-                            return DecimalType.valueOf(translatorBoolean.getValueBoolean() ? "1" : "0");
+                            return new DecimalType(translatorBoolean.getValueBoolean() ? 1 : 0);
                         default:
                             return translatorBoolean.getValueBoolean() ? OnOffType.ON : OnOffType.OFF;
                     }
@@ -729,32 +815,11 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                         case 8:
                             return translator3BitControlled.getControlBit() ? UpDownType.DOWN : UpDownType.UP;
                     }
-                case 14:
-                    /*
-                     * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
-                     * locale when
-                     * translating a Float to String. It could happen the a ',' is used as separator, such as
-                     * 3,14159E20.
-                     * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
-                     * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
-                     * there.
-                     */
-                    DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
-                    Float f = translator4ByteFloat.getValueFloat();
-                    if (Math.abs(f) < 100000) {
-                        value = String.valueOf(f);
-                    } else {
-                        NumberFormat dcf = NumberFormat.getInstance(Locale.US);
-                        if (dcf instanceof DecimalFormat) {
-                            ((DecimalFormat) dcf).applyPattern("0.#####E0");
-                        }
-                        value = dcf.format(f);
-                    }
                     break;
                 case 18:
                     DPTXlatorSceneControl translatorSceneControl = (DPTXlatorSceneControl) translator;
                     int decimalValue = translatorSceneControl.getSceneNumber();
-                    if (value.startsWith("learn")) {
+                    if (translator.getValue().startsWith("learn")) {
                         decimalValue += 0x80;
                     }
                     value = String.valueOf(decimalValue);
@@ -812,7 +877,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     break;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
+            Class<? extends Type> typeClass = cached.typeClass;
             if (typeClass == null) {
                 return null;
             }
@@ -823,6 +888,9 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
             if (typeClass.equals(DecimalType.class)) {
                 return new DecimalType(translator.getNumericValue());
             }
+            if (value == null) {
+                value = getValue(translator, mainNumber);
+            }
             if (typeClass.equals(StringType.class)) {
                 return StringType.valueOf(value);
             }
@@ -859,6 +927,68 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Returns the translator for the given datapoint, creating and caching it for the current thread if needed.
+     *
+     * @param datapoint the datapoint to get the translator for
+     * @return the cached translator or {@code null} if the DPT id of the datapoint is invalid
+     * @throws KNXException if no translator is available for the datapoint type
+     */
+    private CachedTranslator getTranslator(Datapoint datapoint) throws KNXException {
+        Map<String, CachedTranslator> translators = translatorCache.get();
+        CachedTranslator cached = translators.get(datapoint.getDPT());
+        if (cached == null) {
+            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            String id = translator.getType().getID();
+            int mainNumber = getMainNumber(id);
+            if (mainNumber == -1) {
+                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+                return null;
+            }
+            int subNumber = getSubNumber(id);
+            if (subNumber == -1) {
+                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+                return null;
+            }
+            cached = new CachedTranslator(translator, mainNumber, subNumber, toTypeClass(id));
+            translators.put(datapoint.getDPT(), cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the textual value of the translator.
+     *
+     * @param translator translator holding the received data
+     * @param mainNumber main number of the datapoint type of the translator
+     * @return the value as string
+     */
+    private String getValue(DPTXlator translator, int mainNumber) {
+        if (mainNumber == 14) {
+            /*
+             * FIXME: Workaround for a bug in Calimero / Openhab DPTXlator4ByteFloat.makeString(): is using a
+             * locale when
+             * translating a Float to String. It could happen the a ',' is used as separator, such as
+             * 3,14159E20.
+             * Openhab's DecimalType expects this to be in US format and expects '.': 3.14159E20.
+             * There is no issue with DPTXlator2ByteFloat since calimero is using a non-localized translation
+             * there.
+             */
+            DPTXlator4ByteFloat translator4ByteFloat = (DPTXlator4ByteFloat) translator;
+            Float f = translator4ByteFloat.getValueFloat();
+            if (Math.abs(f) < 100000) {
+                return String.valueOf(f);
+            } else {
+                NumberFormat dcf = NumberFormat.getInstance(Locale.US);
+                if (dcf instanceof DecimalFormat) {
+                    ((DecimalFormat) dcf).applyPattern("0.#####E0");
+                }
+                return dcf.format(f);
+            }
+        }
+        return translator.getValue();
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
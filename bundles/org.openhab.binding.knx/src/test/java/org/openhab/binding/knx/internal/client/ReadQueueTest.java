@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+
+/**
+ *
+ * @author Sami Salonen - Initial contribution
+ *
+ */
+public class ReadQueueTest {
+
+    private final ReadQueue queue = new ReadQueue();
+
+    private static ReadDatapoint datapoint(int address) {
+        return new ReadDatapoint(new CommandDP(new GroupAddress(address), "test", 0, "1.001"), 3);
+    }
+
+    private static int address(ReadDatapoint datapoint) {
+        return datapoint.getDatapoint().getMainAddress().getRawAddress();
+    }
+
+    @Test
+    public void testDuplicatesAreQueuedOnce() {
+        assertTrue(queue.add(datapoint(1), ReadPriority.REFRESH));
+        assertFalse(queue.add(datapoint(1), ReadPriority.REFRESH));
+        assertTrue(queue.add(datapoint(2), ReadPriority.REFRESH));
+
+        assertEquals(2, queue.size());
+        assertEquals(1, address(queue.poll()));
+        assertEquals(2, address(queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testHigherPriorityIsPolledFirst() {
+        queue.add(datapoint(1), ReadPriority.REFRESH);
+        queue.add(datapoint(2), ReadPriority.STARTUP);
+        queue.add(datapoint(3), ReadPriority.USER);
+        queue.add(datapoint(4), ReadPriority.STARTUP);
+
+        assertEquals(3, address(queue.poll()));
+        assertEquals(2, address(queue.poll()));
+        assertEquals(4, address(queue.poll()));
+        assertEquals(1, address(queue.poll()));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testPriorityIsRaised() {
+        queue.add(datapoint(1), ReadPriority.REFRESH);
+        queue.add(datapoint(2), ReadPriority.REFRESH);
+        assertFalse(queue.add(datapoint(2), ReadPriority.USER));
+        // lower priority does not change anything
+        assertFalse(queue.add(datapoint(1), ReadPriority.REFRESH));
+
+        assertEquals(2, queue.size());
+        assertEquals(2, address(queue.poll()));
+        assertEquals(1, address(queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testRetryKeepsPriority() {
+        queue.add(datapoint(1), ReadPriority.REFRESH);
+        queue.add(datapoint(2), ReadPriority.USER);
+        ReadDatapoint failed = queue.poll();
+        queue.retry(failed);
+
+        assertEquals(2, address(queue.poll()));
+        assertEquals(1, address(queue.poll()));
+    }
+
+    @Test
+    public void testStatistics() {
+        queue.add(datapoint(1), ReadPriority.REFRESH);
+        queue.add(datapoint(2), ReadPriority.REFRESH);
+        queue.poll();
+        queue.poll();
+        queue.add(datapoint(3), ReadPriority.REFRESH);
+
+        assertEquals(2, queue.getMaxSize());
+        assertEquals(0, queue.getDrainedCount());
+        queue.poll();
+        assertEquals(1, queue.getDrainedCount());
+    }
+}
@@ -12,11 +12,21 @@
  */
 package org.openhab.binding.knx.internal.dpt;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.junit.Test;
 
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
+
 /**
  *
  * @author Simon Kaufmann - initial contribution and API
@@ -29,4 +39,51 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    @Test
+    public void testToType_cachedTranslatorsDoNotKeepPreviousData() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Datapoint switchDP = new CommandDP(new GroupAddress(1, 0, 1), "switch", 0, "1.001");
+        Datapoint scalingDP = new CommandDP(new GroupAddress(1, 0, 2), "scaling", 0, "5.001");
+        Datapoint temperatureDP = new CommandDP(new GroupAddress(1, 0, 3), "temperature", 0, "9.001");
+        Datapoint floatDP = new CommandDP(new GroupAddress(1, 0, 4), "float", 0, "14.019");
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(OnOffType.ON, mapper.toType(switchDP, new byte[] { 1 }));
+            assertEquals(OnOffType.OFF, mapper.toType(switchDP, new byte[] { 0 }));
+            assertEquals(new PercentType(100), mapper.toType(scalingDP, new byte[] { (byte) 0xFF }));
+            assertEquals(new PercentType(50), mapper.toType(scalingDP, new byte[] { (byte) 0x80 }));
+            assertEquals(new DecimalType(21.5), mapper.toType(temperatureDP, new byte[] { 0x0C, 0x33 }));
+            assertEquals(new DecimalType(0), mapper.toType(temperatureDP, new byte[] { 0, 0 }));
+            assertEquals(new DecimalType(1.5), mapper.toType(floatDP, new byte[] { 0x3F, (byte) 0xC0, 0, 0 }));
+        }
+    }
+
+    @Test
+    public void testToDPTValue_cachedDPT() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals("on", mapper.toDPTValue(OnOffType.ON, "1.001"));
+        assertEquals("off", mapper.toDPTValue(OnOffType.OFF, "1.001"));
+        assertEquals("true", mapper.toDPTValue(OnOffType.ON, "1.002"));
+    }
+
+    @Test
+    public void testToDPTXlator_mainTypes() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals("on", mapper.toDPTXlator(OnOffType.ON, "1.001").getValue());
+        assertEquals("down", mapper.toDPTXlator(UpDownType.DOWN, "1.008").getValue());
+        assertEquals(50, mapper.toDPTXlator(new PercentType(50), "5.001").getNumericValue(), 0);
+        assertEquals(21.5, mapper.toDPTXlator(new DecimalType("21.5"), "9.001").getNumericValue(), 0.01);
+        assertEquals(1.5E6, mapper.toDPTXlator(new DecimalType("1.5E6"), "14.019").getNumericValue(), 1);
+    }
+
+    @Test
+    public void testToDPTXlator_otherTypesUseToDPTValue() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.toDPTXlator(new DecimalType("3"), "17.001"));
+        assertNull(mapper.toDPTXlator(new HSBType("120,100,50"), "5.001"));
+        // a fractional value is rounded by the translator when it is parsed from the string
+        assertNull(mapper.toDPTXlator(new DecimalType("50.5"), "5.001"));
+        assertNull(mapper.toDPTXlator(new StringType("on"), "1.001"));
+    }
 }
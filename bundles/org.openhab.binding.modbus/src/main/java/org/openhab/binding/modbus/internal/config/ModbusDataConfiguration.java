@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.modbus.internal.config;
 
+import java.math.BigDecimal;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -34,6 +36,8 @@ public class ModbusDataConfiguration {
     private boolean writeMultipleEvenWithSingleRegisterOrCoil;
     private int writeMaxTries = 3; // backwards compatibility and tests
     private long updateUnchangedValuesEveryMillis = 1000L;
+    private @Nullable BigDecimal readDeadband;
+    private @Nullable BigDecimal readDeadbandPercent;
 
     public @Nullable String getReadStart() {
         return readStart;
@@ -114,4 +118,20 @@ public class ModbusDataConfiguration {
     public void setUpdateUnchangedValuesEveryMillis(long updateUnchangedValuesEveryMillis) {
         this.updateUnchangedValuesEveryMillis = updateUnchangedValuesEveryMillis;
     }
+
+    public @Nullable BigDecimal getReadDeadband() {
+        return readDeadband;
+    }
+
+    public void setReadDeadband(BigDecimal readDeadband) {
+        this.readDeadband = readDeadband;
+    }
+
+    public @Nullable BigDecimal getReadDeadbandPercent() {
+        return readDeadbandPercent;
+    }
+
+    public void setReadDeadbandPercent(BigDecimal readDeadbandPercent) {
+        this.readDeadbandPercent = readDeadbandPercent;
+    }
 }
@@ -37,6 +37,8 @@ public class ModbusSerialConfiguration {
     private int timeBetweenTransactionsMillis;
     private int connectMaxTries;
     private int connectTimeoutMillis;
+    private int readCoalescingMaxGap = -1;
+    private int dedicatedQueueSize;
     private boolean enableDiscovery;
 
     public @Nullable String getPort() {
@@ -151,6 +153,22 @@ public class ModbusSerialConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getReadCoalescingMaxGap() {
+        return readCoalescingMaxGap;
+    }
+
+    public void setReadCoalescingMaxGap(int readCoalescingMaxGap) {
+        this.readCoalescingMaxGap = readCoalescingMaxGap;
+    }
+
+    public int getDedicatedQueueSize() {
+        return dedicatedQueueSize;
+    }
+
+    public void setDedicatedQueueSize(int dedicatedQueueSize) {
+        this.dedicatedQueueSize = dedicatedQueueSize;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
@@ -31,6 +31,8 @@ public class ModbusTcpConfiguration {
     private int connectMaxTries;
     private int reconnectAfterMillis;
     private int connectTimeoutMillis;
+    private int readCoalescingMaxGap = -1;
+    private int dedicatedQueueSize;
     private boolean enableDiscovery;
 
     public @Nullable String getHost() {
@@ -97,6 +99,22 @@ public class ModbusTcpConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getReadCoalescingMaxGap() {
+        return readCoalescingMaxGap;
+    }
+
+    public void setReadCoalescingMaxGap(int readCoalescingMaxGap) {
+        this.readCoalescingMaxGap = readCoalescingMaxGap;
+    }
+
+    public int getDedicatedQueueSize() {
+        return dedicatedQueueSize;
+    }
+
+    public void setDedicatedQueueSize(int dedicatedQueueSize) {
+        this.dedicatedQueueSize = dedicatedQueueSize;
+    }
+
     public boolean isDiscoveryEnabled() {
         return enableDiscovery;
     }
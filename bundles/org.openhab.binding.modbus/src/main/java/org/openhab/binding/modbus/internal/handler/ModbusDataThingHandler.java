@@ -119,6 +119,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         CHANNEL_ID_TO_ACCEPTED_TYPES.put(ModbusBindingConstantsInternal.CHANNEL_ROLLERSHUTTER,
                 new RollershutterItem("").getAcceptedDataTypes());
     }
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal(100);
     // data channels + 4 for read/write last error/success
     private static final int NUMER_OF_CHANNELS_HINT = CHANNEL_ID_TO_ACCEPTED_TYPES.size() + 4;
 
@@ -138,6 +139,10 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile @Nullable ModbusReadFunctionCode functionCode;
     private volatile @Nullable ModbusReadRequestBlueprint readRequest;
     private volatile long updateUnchangedValuesEveryMillis;
+    private volatile @Nullable BigDecimal readDeadband;
+    private volatile @Nullable BigDecimal readDeadbandPercent;
+    private volatile @Nullable State lastPublishedNumericState;
+    private volatile long lastPublishedNumericStateMillis;
     private volatile @NonNullByDefault({}) ModbusCommunicationInterface comms;
     private volatile boolean isWriteEnabled;
     private volatile boolean isReadEnabled;
@@ -333,6 +338,10 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             logger.trace("initialize() of thing {} '{}' starting", thing.getUID(), thing.getLabel());
             ModbusDataConfiguration localConfig = config = getConfigAs(ModbusDataConfiguration.class);
             updateUnchangedValuesEveryMillis = localConfig.getUpdateUnchangedValuesEveryMillis();
+            readDeadband = localConfig.getReadDeadband();
+            readDeadbandPercent = localConfig.getReadDeadbandPercent();
+            lastPublishedNumericState = null;
+            lastPublishedNumericStateMillis = 0L;
             Bridge bridge = getBridge();
             if (bridge == null || !bridge.getStatus().equals(ThingStatus.ONLINE)) {
                 logger.debug("Thing {} '{}' has no bridge or it is not online", getThing().getUID(),
@@ -413,6 +422,17 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        readDeadband = null;
+        readDeadbandPercent = null;
+        lastPublishedNumericState = null;
+        lastPublishedNumericStateMillis = 0L;
+    }
+
+    @Override
+    public synchronized void channelLinked(ChannelUID channelUID) {
+        // Make sure the newly linked channel receives state with the next poll, even if the value is unchanged
+        lastPublishedNumericState = null;
+        super.channelLinked(channelUID);
     }
 
     @Override
@@ -825,6 +845,25 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             logger.trace("No transformation available, aborting processUpdatedValue");
             return Collections.emptyMap();
         }
+        long now = System.currentTimeMillis();
+        if (!isPublishNeeded(numericState, now)) {
+            // Value unchanged (or within deadband), skip transformation and update only the last read success
+            logger.trace("Polled value {} is unchanged compared to previously updated value {}. Not updating channels.",
+                    numericState, lastPublishedNumericState);
+            Map<ChannelUID, State> states = new HashMap<>();
+            ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+            if (isLinked(lastReadSuccessUID)) {
+                states.put(lastReadSuccessUID, new DateTimeType());
+            }
+            synchronized (this) {
+                updateStatusIfChanged(ThingStatus.ONLINE);
+                states.forEach((uid, state) -> tryUpdateState(uid, state));
+            }
+            return states;
+        }
+        lastPublishedNumericState = numericState;
+        lastPublishedNumericStateMillis = now;
+
         Map<ChannelUID, State> states = new HashMap<>();
         CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
             ChannelUID channelUID = getChannelUID(channelId);
@@ -887,6 +926,44 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         return states;
     }
 
+    /**
+     * Check whether polled value should be transformed and updated to channels
+     *
+     * The value is compared to the previously updated value. Unchanged values, or numeric values within the configured
+     * deadband, are updated only when updateUnchangedValuesEveryMillis has passed since the previous update.
+     *
+     * @param numericState numeric state corresponding to polled data
+     * @param now current time in milliseconds
+     * @return true if the value should be updated
+     */
+    private boolean isPublishNeeded(State numericState, long now) {
+        State lastState = lastPublishedNumericState;
+        if (lastState == null || updateUnchangedValuesEveryMillis == 0L) {
+            return true;
+        }
+        if (updateUnchangedValuesEveryMillis > 0L
+                && now - lastPublishedNumericStateMillis > updateUnchangedValuesEveryMillis) {
+            return true;
+        }
+        if (lastState.equals(numericState)) {
+            return false;
+        }
+        if (numericState instanceof DecimalType && lastState instanceof DecimalType) {
+            BigDecimal lastValue = ((DecimalType) lastState).toBigDecimal();
+            BigDecimal difference = ((DecimalType) numericState).toBigDecimal().subtract(lastValue).abs();
+            BigDecimal localReadDeadband = readDeadband;
+            if (localReadDeadband != null && difference.compareTo(localReadDeadband) <= 0) {
+                return false;
+            }
+            BigDecimal localReadDeadbandPercent = readDeadbandPercent;
+            if (localReadDeadbandPercent != null && difference.multiply(ONE_HUNDRED)
+                    .compareTo(localReadDeadbandPercent.multiply(lastValue.abs())) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
@@ -904,8 +981,9 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         State lastState = channelLastState.get(uid);
         long lastUpdatedMillis = channelLastUpdated.getOrDefault(uid, 0L);
         long millisSinceLastUpdate = now - lastUpdatedMillis;
-        if (lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis <= 0L
-                || millisSinceLastUpdate > updateUnchangedValuesEveryMillis || !lastState.equals(state)) {
+        if (lastUpdatedMillis <= 0L || lastState == null || updateUnchangedValuesEveryMillis == 0L
+                || (updateUnchangedValuesEveryMillis > 0L && millisSinceLastUpdate > updateUnchangedValuesEveryMillis)
+                || !lastState.equals(state)) {
             tryUpdateState(uid, state);
             channelLastUpdated.put(uid, now);
         }
@@ -41,6 +41,11 @@ public class ChannelConfig {
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
     public boolean trigger = false;
+    /**
+     * If true, a received message is ignored if its payload is identical to the payload of the previous message that
+     * set the state. Does not apply to trigger channels and channels with {@link #postCommand}.
+     */
+    public boolean skipIdenticalPayloads = false;
     public String unit = "";
 
     public String transformationPattern = "";
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -25,9 +26,10 @@ import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
-import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.openhab.binding.mqtt.generic.values.TextValue;
@@ -63,6 +65,12 @@ public class ChannelState implements MqttMessageSubscriber {
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
 
+    /**
+     * Payload of the last message that set the channel state to an absolute value. Only used if
+     * {@link ChannelConfig#skipIdenticalPayloads} is set.
+     */
+    private byte @Nullable [] lastPayload;
+
     /**
      * Creates a new channel state.
      *
@@ -146,9 +154,22 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        final boolean skipIdenticalPayloads = config.skipIdenticalPayloads && !config.trigger && !config.postCommand;
+        if (skipIdenticalPayloads) {
+            if (Arrays.equals(payload, lastPayload)) {
+                logger.trace("Skipping message on topic {}, payload is identical to the previous one", topic);
+                receivedOrTimeout();
+                return;
+            }
+            lastPayload = null;
+        }
+
         if (cachedValue.isBinary()) {
             cachedValue.update(payload);
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
+            if (skipIdenticalPayloads) {
+                lastPayload = payload;
+            }
             receivedOrTimeout();
             return;
         }
@@ -173,7 +194,7 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+        Command command = cachedValue.parseCommand(strValue);
         if (command == null) {
             logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
                     cachedValue.getClass().getSimpleName());
@@ -203,6 +224,10 @@ public class ChannelState implements MqttMessageSubscriber {
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
+        // Relative commands like INCREASE change the state on every message, those must never be skipped
+        if (skipIdenticalPayloads && command instanceof State && !(command instanceof UpDownType)) {
+            lastPayload = payload;
+        }
         receivedOrTimeout();
     }
 
@@ -255,6 +280,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastPayload = null;
         cachedValue.resetState();
     }
 
@@ -333,6 +359,8 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<Boolean> publishValue(Command command) {
         cachedValue.update(command);
+        // The state no longer reflects the last received payload
+        lastPayload = null;
 
         Value mqttCommandValue = cachedValue;
 
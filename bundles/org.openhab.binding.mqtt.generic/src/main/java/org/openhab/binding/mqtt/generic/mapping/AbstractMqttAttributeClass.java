@@ -102,6 +102,9 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient List<SubscribeFieldToMQTTtopic> subscriptions = new ArrayList<>();
     public transient WeakReference<@Nullable MqttBrokerConnection> connection = new WeakReference<>(null);
     protected transient WeakReference<@Nullable ScheduledExecutorService> scheduler = new WeakReference<>(null);
+    private transient @Nullable MqttTopicRouter topicRouter;
+    // The router the current subscriptions have been registered with, if any
+    private transient @Nullable MqttTopicRouter subscribedRouter;
     private final String prefix;
     private transient String basetopic = "";
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
@@ -131,6 +134,17 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         prefix = (topicUsesPrefix != null) ? topicUsesPrefix.value() : "";
     }
 
+    /**
+     * Use the given router instead of one subscription per field for all subsequent calls of
+     * {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)}, if
+     * the router covers the topics of the fields.
+     *
+     * @param topicRouter A router that is subscribed to a parent topic tree. Null to subscribe per field.
+     */
+    public void setTopicRouter(@Nullable MqttTopicRouter topicRouter) {
+        this.topicRouter = topicRouter;
+    }
+
     /**
      * Unsubscribe from all topics of the managed object.
      *
@@ -139,6 +153,13 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
      * @return Returns a future that completes as soon as all unsubscriptions have been performed.
      */
     public CompletableFuture<@Nullable Void> unsubscribe() {
+        final MqttTopicRouter subscribedRouter = this.subscribedRouter;
+        if (subscribedRouter != null) {
+            subscriptions.forEach(m -> subscribedRouter.unsubscribe(m.topic, m));
+            subscriptions.clear();
+            this.subscribedRouter = null;
+            return CompletableFuture.completedFuture(null);
+        }
         final MqttBrokerConnection connection = this.connection.get();
         if (connection == null) {
             subscriptions.clear();
@@ -191,8 +212,16 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
         subscriptions = getAllFields(getFieldsOf().getClass()).stream().filter(AbstractMqttAttributeClass::filterField)
                 .map(this::mapFieldToSubscriber).collect(Collectors.toList());
 
-        final CompletableFuture<?>[] futures = subscriptions.stream()
-                .map(m -> m.subscribeAndReceive(connection, timeout)).toArray(CompletableFuture[]::new);
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        final CompletableFuture<?>[] futures;
+        if (topicRouter != null && subscriptions.stream().allMatch(m -> topicRouter.covers(m.topic))) {
+            subscribedRouter = topicRouter;
+            futures = subscriptions.stream().map(m -> m.subscribeAndReceive(topicRouter, timeout))
+                    .toArray(CompletableFuture[]::new);
+        } else {
+            futures = subscriptions.stream().map(m -> m.subscribeAndReceive(connection, timeout))
+                    .toArray(CompletableFuture[]::new);
+        }
         return CompletableFuture.allOf(startFuture, CompletableFuture.allOf(futures));
     }
 
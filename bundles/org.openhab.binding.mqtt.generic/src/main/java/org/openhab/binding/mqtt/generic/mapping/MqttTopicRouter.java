@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.handler.MqttTopicTrie;
+
+/**
+ * Subscribes to a whole topic tree with a single wildcard subscription (like "homie/device/#") and routes the
+ * received messages to the subscribers of topics within that tree.
+ * <p>
+ * The last payload of every topic is kept, so that a subscriber registered after the broker has sent the retained
+ * messages receives the current value immediately. An empty payload removes the topic.
+ * </p>
+ * <p>
+ * A topic filter restricts routing and caching to the topics of interest, so that for example frequently changing
+ * values within the tree are neither routed nor kept.
+ * </p>
+ * Used by {@link AbstractMqttAttributeClass} to avoid one broker subscription per attribute.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class MqttTopicRouter implements MqttMessageSubscriber {
+    private final String topic;
+    private final Predicate<String> topicFilter;
+    private final MqttTopicTrie<MqttMessageSubscriber> subscribers = new MqttTopicTrie<>();
+    private final Map<String, byte[]> lastPayloads = new HashMap<>();
+    private @Nullable MqttBrokerConnection connection;
+
+    /**
+     * Creates a router.
+     *
+     * @param topic The wildcard topic to subscribe to, for example "homie/device/#"
+     */
+    public MqttTopicRouter(String topic) {
+        this(topic, t -> true);
+    }
+
+    /**
+     * Creates a router that ignores the messages of topics not accepted by the given filter.
+     *
+     * @param topic The wildcard topic to subscribe to, for example "homie/device/#"
+     * @param topicFilter Returns true for the topics to route and cache
+     */
+    public MqttTopicRouter(String topic, Predicate<String> topicFilter) {
+        this.topic = topic;
+        this.topicFilter = topicFilter;
+    }
+
+    /**
+     * Returns the wildcard topic of this router.
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Returns true if the given topic is part of the topic tree of this router.
+     *
+     * @param topic A topic or topic filter
+     */
+    public boolean covers(String topic) {
+        return MqttTopicTrie.covers(this.topic, topic);
+    }
+
+    /**
+     * Subscribe to the wildcard topic on the given connection. Does nothing if already subscribed on that connection.
+     *
+     * @param connection A broker connection
+     * @return Completes with true if successful. Completes with false if not connected yet. Exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection) {
+        @Nullable
+        final MqttBrokerConnection previousConnection;
+        synchronized (this) {
+            previousConnection = this.connection;
+            if (previousConnection == connection) {
+                return CompletableFuture.completedFuture(true);
+            }
+            this.connection = connection;
+            lastPayloads.clear();
+        }
+        if (previousConnection != null) {
+            previousConnection.unsubscribe(topic, this);
+        }
+        return connection.subscribe(topic, this);
+    }
+
+    /**
+     * Unsubscribe from the wildcard topic and forget all received payloads. Registered subscribers are kept.
+     *
+     * @return Completes with true if successful. Exceptionally otherwise.
+     */
+    public CompletableFuture<Boolean> stop() {
+        @Nullable
+        final MqttBrokerConnection connection;
+        synchronized (this) {
+            connection = this.connection;
+            this.connection = null;
+            lastPayloads.clear();
+        }
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(topic, this);
+    }
+
+    /**
+     * Register a subscriber for a topic within the topic tree of this router. The last received payloads of matching
+     * topics are passed to the subscriber before this method returns.
+     *
+     * @param topic A topic, can contain wildcards
+     * @param subscriber The subscriber
+     */
+    public void subscribe(String topic, MqttMessageSubscriber subscriber) {
+        List<Entry<String, byte[]>> replay = new ArrayList<>();
+        synchronized (this) {
+            subscribers.add(topic, subscriber);
+            if (topic.contains("+") || topic.contains("#")) {
+                lastPayloads.forEach((t, payload) -> {
+                    if (MqttTopicTrie.matches(topic, t)) {
+                        replay.add(new SimpleImmutableEntry<>(t, payload));
+                    }
+                });
+            } else {
+                final byte @Nullable [] payload = lastPayloads.get(topic);
+                if (payload != null) {
+                    replay.add(new SimpleImmutableEntry<>(topic, payload));
+                }
+            }
+        }
+        replay.forEach(e -> subscriber.processMessage(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Remove a subscriber.
+     *
+     * @param topic The topic, as given to {@link #subscribe(String, MqttMessageSubscriber)}
+     * @param subscriber The subscriber
+     */
+    public synchronized void unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        subscribers.remove(topic, subscriber);
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        if (!topicFilter.test(topic)) {
+            return;
+        }
+        final List<MqttMessageSubscriber> matches;
+        synchronized (this) {
+            if (payload.length == 0) {
+                lastPayloads.remove(topic);
+            } else {
+                lastPayloads.put(topic, payload);
+            }
+            matches = subscribers.match(topic);
+        }
+        matches.forEach(subscriber -> subscriber.processMessage(topic, payload));
+    }
+}
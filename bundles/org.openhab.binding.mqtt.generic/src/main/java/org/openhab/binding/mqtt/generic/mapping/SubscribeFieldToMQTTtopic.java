@@ -197,6 +197,25 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Subscribe to the MQTT topic via a router, which is subscribed to the whole topic tree already. The last known
+     * value is received immediately. Like {@link #subscribeAndReceive(MqttBrokerConnection, int)}, the returned future
+     * waits for a value until the timeout, for optional fields as well.
+     * A {@link SubscribeFieldToMQTTtopic} cannot be stopped. You need to manually unsubscribe from the router.
+     *
+     * @param router A router covering the topic of this field
+     * @param timeout Timeout in milliseconds. The returned future completes after this time even if no message has
+     *            been received for the MQTT topic.
+     * @return Returns a future that completes if either a value is received for the topic or a timeout happens.
+     */
+    public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttTopicRouter router, int timeout) {
+        router.subscribe(topic, this);
+        if (!future.isDone()) {
+            this.scheduledFuture = scheduler.schedule(this::timeoutReached, timeout, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
     /**
      * Return true if the corresponding field has received a value at least once.
      */
@@ -15,18 +15,34 @@ package org.openhab.binding.mqtt.generic.values;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URLConnection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
+import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.HSBType;
+import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
+import org.eclipse.smarthome.core.library.types.QuantityType;
 import org.eclipse.smarthome.core.library.types.RawType;
+import org.eclipse.smarthome.core.library.types.StopMoveType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.library.types.UpDownType;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.CommandDescriptionBuilder;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescriptionFragmentBuilder;
+import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 /**
@@ -51,13 +67,44 @@ import org.eclipse.smarthome.core.types.UnDefType;
  */
 @NonNullByDefault
 public abstract class Value {
+    /**
+     * Parsers of the core command types. They call the same valueOf(String) method as {@link TypeParser} does, but
+     * without looking it up by reflection for every parsed value.
+     */
+    private static final Map<Class<?>, Function<String, @Nullable Command>> COMMAND_PARSERS = new HashMap<>();
+    static {
+        COMMAND_PARSERS.put(DateTimeType.class, DateTimeType::valueOf);
+        COMMAND_PARSERS.put(DecimalType.class, DecimalType::valueOf);
+        COMMAND_PARSERS.put(HSBType.class, HSBType::valueOf);
+        COMMAND_PARSERS.put(IncreaseDecreaseType.class, IncreaseDecreaseType::valueOf);
+        COMMAND_PARSERS.put(OnOffType.class, OnOffType::valueOf);
+        COMMAND_PARSERS.put(OpenClosedType.class, OpenClosedType::valueOf);
+        COMMAND_PARSERS.put(PercentType.class, PercentType::valueOf);
+        COMMAND_PARSERS.put(PointType.class, PointType::valueOf);
+        COMMAND_PARSERS.put(QuantityType.class, QuantityType::valueOf);
+        COMMAND_PARSERS.put(StopMoveType.class, StopMoveType::valueOf);
+        COMMAND_PARSERS.put(StringType.class, StringType::valueOf);
+        COMMAND_PARSERS.put(UpDownType.class, UpDownType::valueOf);
+    }
+
     protected State state = UnDefType.UNDEF;
     protected final List<Class<? extends Command>> commandTypes;
+    private final List<Function<String, @Nullable Command>> commandParsers;
     private final String itemType;
 
     protected Value(String itemType, List<Class<? extends Command>> commandTypes) {
         this.itemType = itemType;
         this.commandTypes = commandTypes;
+        this.commandParsers = commandTypes.stream().map(Value::getCommandParser).collect(Collectors.toList());
+    }
+
+    private static Function<String, @Nullable Command> getCommandParser(Class<? extends Command> commandType) {
+        Function<String, @Nullable Command> parser = COMMAND_PARSERS.get(commandType);
+        if (parser != null) {
+            return parser;
+        }
+        List<Class<? extends Command>> commandTypes = Collections.singletonList(commandType);
+        return value -> TypeParser.parseCommand(commandTypes, value);
     }
 
     /**
@@ -80,6 +127,27 @@ public abstract class Value {
         return commandTypes;
     }
 
+    /**
+     * Parses the given string into one of the supported command types. The command types are tried in the order of
+     * {@link #getSupportedCommandTypes()}, exactly like {@link TypeParser#parseCommand(List, String)} does.
+     *
+     * @param value The string to parse, for example a received MQTT value
+     * @return The command or null if the string could not be parsed into any of the supported command types
+     */
+    public @Nullable Command parseCommand(String value) {
+        for (Function<String, @Nullable Command> parser : commandParsers) {
+            try {
+                Command command = parser.apply(value);
+                if (command != null) {
+                    return command;
+                }
+            } catch (RuntimeException e) {
+                // Not parsable into this type, try the next one
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the item-type (one of {@link CoreItemFactory}).
      */
@@ -174,6 +174,28 @@ public class ChannelStateTests {
         verify(channelStateUpdateListener, times(3)).updateChannelState(eq(channelUID), any());
     }
 
+    @Test
+    public void receiveIdenticalPayloadSkippedTest() {
+        NumberValue value = new NumberValue(null, null, new BigDecimal(10), null);
+        ChannelConfig skipConfig = ChannelConfigBuilder.create("state", "command").build();
+        skipConfig.skipIdenticalPayloads = true;
+        ChannelState c = spy(new ChannelState(skipConfig, channelUID, value, channelStateUpdateListener));
+        c.start(connection, mock(ScheduledExecutorService.class), 100);
+
+        c.processMessage("state", "15".getBytes());
+        c.processMessage("state", "15".getBytes());
+        verify(channelStateUpdateListener, times(1)).updateChannelState(eq(channelUID), any());
+
+        // Relative commands are processed each time
+        c.processMessage("state", "INCREASE".getBytes());
+        c.processMessage("state", "INCREASE".getBytes());
+        assertThat(value.getChannelState().toString(), is("35"));
+
+        c.processMessage("state", "15".getBytes());
+        assertThat(value.getChannelState().toString(), is("15"));
+        verify(channelStateUpdateListener, times(4)).updateChannelState(eq(channelUID), any());
+    }
+
     @Test
     public void receiveDecimalFractionalTest() {
         NumberValue value = new NumberValue(null, null, new BigDecimal(10.5), null);
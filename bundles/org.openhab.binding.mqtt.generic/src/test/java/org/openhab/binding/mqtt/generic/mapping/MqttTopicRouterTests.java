@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.mapping;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Tests cases for {@link MqttTopicRouter}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class MqttTopicRouterTests {
+    @Mock
+    MqttBrokerConnection connection;
+
+    @Mock
+    MqttMessageSubscriber subscriber;
+
+    @Mock
+    MqttMessageSubscriber otherSubscriber;
+
+    MqttTopicRouter router;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        router = new MqttTopicRouter("homie/device/#");
+    }
+
+    @Test
+    public void singleBrokerSubscription() {
+        router.start(connection);
+        router.start(connection);
+        verify(connection, times(1)).subscribe(eq("homie/device/#"), eq(router));
+
+        router.stop();
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(router));
+    }
+
+    @Test
+    public void covers() {
+        assertTrue(router.covers("homie/device/$name"));
+        assertTrue(router.covers("homie/device/node/property/$datatype"));
+        assertFalse(router.covers("homie/otherdevice/$name"));
+    }
+
+    @Test
+    public void routesToMatchingSubscribers() {
+        router.start(connection);
+        router.subscribe("homie/device/$name", subscriber);
+        router.subscribe("homie/device/node/+", otherSubscriber);
+
+        final byte[] name = "Name".getBytes();
+        router.processMessage("homie/device/$name", name);
+        verify(subscriber).processMessage(eq("homie/device/$name"), eq(name));
+        verify(otherSubscriber, never()).processMessage(any(), any());
+
+        final byte[] nodeName = "Node".getBytes();
+        router.processMessage("homie/device/node/$name", nodeName);
+        verify(otherSubscriber).processMessage(eq("homie/device/node/$name"), eq(nodeName));
+        verify(subscriber, never()).processMessage(eq("homie/device/node/$name"), any());
+
+        router.unsubscribe("homie/device/$name", subscriber);
+        router.processMessage("homie/device/$name", name);
+        verify(subscriber, times(1)).processMessage(eq("homie/device/$name"), any());
+    }
+
+    @Test
+    public void replaysRetainedPayloadToLateSubscriber() {
+        router.start(connection);
+        final byte[] name = "Name".getBytes();
+        router.processMessage("homie/device/node/$name", name);
+
+        // Received before anyone was interested in the node
+        router.subscribe("homie/device/node/$name", subscriber);
+        verify(subscriber).processMessage(eq("homie/device/node/$name"), eq(name));
+
+        router.subscribe("homie/device/+/$name", otherSubscriber);
+        verify(otherSubscriber).processMessage(eq("homie/device/node/$name"), eq(name));
+    }
+
+    @Test
+    public void emptyPayloadRemovesRetainedPayload() {
+        router.start(connection);
+        router.processMessage("homie/device/node/$name", "Name".getBytes());
+        router.processMessage("homie/device/node/$name", new byte[0]);
+
+        router.subscribe("homie/device/node/$name", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+    }
+
+    @Test
+    public void stopForgetsRetainedPayloads() {
+        router.start(connection);
+        router.processMessage("homie/device/$name", "Name".getBytes());
+        router.stop();
+
+        router.subscribe("homie/device/$name", subscriber);
+        verify(subscriber, never()).processMessage(any(), any());
+    }
+
+    @Test
+    public void ignoresTopicsRejectedByFilter() {
+        router = new MqttTopicRouter("homie/device/#", t -> t.contains("/$"));
+        router.start(connection);
+        router.subscribe("homie/device/#", subscriber);
+        router.processMessage("homie/device/node/property", "1".getBytes());
+        router.processMessage("homie/device/node/$name", "Name".getBytes());
+
+        verify(subscriber, never()).processMessage(eq("homie/device/node/property"), any());
+        verify(subscriber).processMessage(eq("homie/device/node/$name"), any());
+
+        router.subscribe("homie/device/node/property", otherSubscriber);
+        verify(otherSubscriber, never()).processMessage(any(), any());
+    }
+}
@@ -315,4 +315,19 @@ public class ValueTests {
                 null);
         v.update(new DecimalType(9.0));
     }
+
+    @Test
+    public void parseCommandMatchesTypeParser() {
+        Value[] values = { new TextValue(), new NumberValue(null, null, null, null),
+                new PercentageValue(null, null, null, null, null), new OnOffValue(null, null), new OpenCloseValue(),
+                new RollershutterValue(null, null, null), new ColorValue(ColorMode.HSB, null, null, 10),
+                new DateTimeValue(), new LocationValue() };
+        String[] inputs = { "", "abc", "15", "-1.5", "50", "ON", "OFF", "OPEN", "CLOSED", "UP", "DOWN", "STOP",
+                "INCREASE", "DECREASE", "10,20,30", "52.5,13.4", "2019-10-12T07:20:00.000+0200", "15 W" };
+        for (Value v : values) {
+            for (String input : inputs) {
+                assertEquals(v.getClass().getSimpleName() + " " + input, p(v, input), v.parseCommand(input));
+            }
+        }
+    }
 }
@@ -24,6 +24,7 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -51,25 +52,42 @@ import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 
 /**
  * The {@link HomeAssistantDiscovery} is responsible for discovering device nodes that follow the
  * Home Assistant MQTT discovery convention (https://www.home-assistant.io/docs/mqtt/discovery/).
+ * <p>
+ * Brokers resend all retained config topics on every (re)connect. To keep that cheap, a hash of each config payload is
+ * remembered and unchanged payloads are not parsed again. Results are published in batches: A batch is published
+ * {@value #PUBLISH_DELAY_MS} ms after the last change, but at most {@value #MAX_PUBLISH_LATENCY_MS} ms after its first
+ * change.
+ * </p>
  *
  * @author David Graeff - Initial contribution
  */
 @Component(immediate = true, service = DiscoveryService.class, configurationPid = "discovery.mqttha")
 @NonNullByDefault
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
-    @SuppressWarnings("unused")
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantDiscovery.class);
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
     protected final Map<String, DiscoveryResult> results = new ConcurrentHashMap<>();
+    // Hash of the last processed config payload per topic
+    protected final Map<String, Long> payloadHashPerTopic = new ConcurrentHashMap<>();
+
+    static final int PUBLISH_DELAY_MS = 2000;
+    static final int MAX_PUBLISH_LATENCY_MS = 10000;
 
     private @Nullable ScheduledFuture<?> future;
+    // System.nanoTime() of the first result not yet published
+    private long firstPendingResultTime;
     private final Gson gson;
 
+    private final AtomicLong topicsSeen = new AtomicLong();
+    private final AtomicLong topicsParsed = new AtomicLong();
+    private final AtomicLong resultsPublished = new AtomicLong();
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -126,6 +144,40 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         return typeProvider.getThingTypeUIDs();
     }
 
+    @Override
+    protected void startScan() {
+        // Process all retained config topics again, a result might have been removed from the inbox meanwhile
+        payloadHashPerTopic.clear();
+        super.startScan();
+    }
+
+    @Override
+    protected void startBackgroundDiscovery() {
+        payloadHashPerTopic.clear();
+        super.startBackgroundDiscovery();
+    }
+
+    /**
+     * Returns the number of received config messages.
+     */
+    public long getTopicsSeen() {
+        return topicsSeen.get();
+    }
+
+    /**
+     * Returns the number of config messages that were parsed. Messages with an unchanged payload are not parsed.
+     */
+    public long getTopicsParsed() {
+        return topicsParsed.get();
+    }
+
+    /**
+     * Returns the number of published discovery results.
+     */
+    public long getResultsPublished() {
+        return resultsPublished.get();
+    }
+
     @Override
     public void receivedMessage(ThingUID connectionBridge, MqttBrokerConnection connection, String topic,
             byte[] payload) {
@@ -138,17 +190,22 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
+        topicsSeen.incrementAndGet();
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
+        // Retained config topics are received again on every reconnect, usually unchanged
+        final Long hash = hash(connectionBridge, payload);
+        if (hash.equals(payloadHashPerTopic.put(topic, hash))) {
+            return;
         }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
+        topicsParsed.incrementAndGet();
 
-        BaseChannelConfiguration config = BaseChannelConfiguration
-                .fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        BaseChannelConfiguration config;
+        try {
+            config = BaseChannelConfiguration.fromString(new String(payload, StandardCharsets.UTF_8), gson);
+        } catch (JsonParseException e) {
+            logger.debug("Invalid Home Assistant config on topic {}: {}", topic, e.getMessage());
+            return;
+        }
 
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
@@ -162,35 +219,73 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
         final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
 
-        thingIDPerTopic.put(topic, thingUID);
+        final DiscoveryResult result;
+        synchronized (componentsPerThingID) {
+            thingIDPerTopic.put(topic, thingUID);
+
+            // We need to keep track of already found component topics for a specific thing
+            Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID,
+                    key -> ConcurrentHashMap.newKeySet());
+            components.add(haID);
 
-        // We need to keep track of already found component topics for a specific thing
-        Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID, key -> ConcurrentHashMap.newKeySet());
-        components.add(haID);
+            final String componentNames = components.stream().map(id -> id.component)
+                    .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
 
-        final String componentNames = components.stream().map(id -> id.component)
-                .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
+            final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
 
-        final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+            Map<String, Object> properties = new HashMap<>();
+            HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
+            properties = handlerConfig.appendToProperties(properties);
+            properties = config.appendToProperties(properties);
 
-        Map<String, Object> properties = new HashMap<>();
-        HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
-        properties = handlerConfig.appendToProperties(properties);
-        properties = config.appendToProperties(properties);
+            result = DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+                    .withRepresentationProperty(thingID).withBridge(connectionBridge)
+                    .withLabel(config.getThingName() + " (" + componentNames + ")").build();
+        }
 
         // Because we need the new properties map with the updated "components" list
-        results.put(thingUID.getAsString(),
-                DiscoveryResultBuilder.create(thingUID).withProperties(properties).withRepresentationProperty(thingID)
-                        .withBridge(connectionBridge).withLabel(config.getThingName() + " (" + componentNames + ")")
-                        .build());
+        results.put(thingUID.getAsString(), result);
+        schedulePublish();
+    }
+
+    /**
+     * Hash of the payload and the bridge it was received from, 64 bit FNV-1a.
+     */
+    private static Long hash(ThingUID connectionBridge, byte[] payload) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : connectionBridge.getAsString().getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        for (byte b : payload) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Reset the found-component timer. We will collect components for the thing label description for another 2
+     * seconds, but do not delay results for more than {@link #MAX_PUBLISH_LATENCY_MS}.
+     */
+    private synchronized void schedulePublish() {
+        final long now = System.nanoTime();
+        final ScheduledFuture<?> future = this.future;
+        if (future != null && !future.isDone()) {
+            future.cancel(false);
+        } else {
+            firstPendingResultTime = now;
+        }
+        long remaining = MAX_PUBLISH_LATENCY_MS - TimeUnit.NANOSECONDS.toMillis(now - firstPendingResultTime);
+        this.future = scheduler.schedule(this::publishResults, Math.max(0, Math.min(PUBLISH_DELAY_MS, remaining)),
+                TimeUnit.MILLISECONDS);
     }
 
     protected void publishResults() {
         Collection<DiscoveryResult> localResults;
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
+        synchronized (componentsPerThingID) {
+            localResults = new ArrayList<>(results.values());
+            results.clear();
+        }
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
             ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
@@ -198,6 +293,9 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
             thingDiscovered(result);
         }
+        resultsPublished.addAndGet(localResults.size());
+        logger.debug("Published {} Home Assistant discovery results. Config topics seen: {}, parsed: {}",
+                localResults.size(), topicsSeen.get(), topicsParsed.get());
     }
 
     @Override
@@ -205,16 +303,21 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
+        payloadHashPerTopic.remove(topic);
+        synchronized (componentsPerThingID) {
+            @Nullable
             ThingUID thingUID = thingIDPerTopic.remove(topic);
-            final String thingID = thingUID.getId();
+            if (thingUID != null) {
+                final String thingID = thingUID.getId();
 
-            HaID haID = new HaID(topic);
+                HaID haID = new HaID(topic);
 
-            Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
-            components.remove(haID);
-            if (components.isEmpty()) {
-                thingRemoved(thingUID);
+                Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
+                components.remove(haID);
+                if (components.isEmpty()) {
+                    componentsPerThingID.remove(thingID);
+                    thingRemoved(thingUID);
+                }
             }
         }
     }
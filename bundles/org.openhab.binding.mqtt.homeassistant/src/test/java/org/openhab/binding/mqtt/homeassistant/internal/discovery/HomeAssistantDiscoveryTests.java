@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mqtt.generic.MqttChannelTypeProvider;
+
+/**
+ * Tests the incremental processing of {@link HomeAssistantDiscovery}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class HomeAssistantDiscoveryTests {
+    private static final String TOPIC = "homeassistant/light/node/object/config";
+    private static final String CONFIG = "{\"name\":\"Light\",\"unique_id\":\"abc\","
+            + "\"device\":{\"identifiers\":\"dev1\",\"name\":\"Lamp\"}}";
+
+    private final ThingUID bridgeUID = new ThingUID("mqtt:broker:test");
+    private final MqttBrokerConnection connection = mock(MqttBrokerConnection.class);
+    private HomeAssistantDiscovery discovery;
+
+    @Before
+    public void setUp() {
+        discovery = new HomeAssistantDiscovery();
+        discovery.setTypeProvider(mock(MqttChannelTypeProvider.class, RETURNS_DEEP_STUBS));
+    }
+
+    private void receive(String topic, String payload) {
+        discovery.receivedMessage(bridgeUID, connection, topic, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void unchangedPayloadIsNotParsedAgain() {
+        receive(TOPIC, CONFIG);
+        receive(TOPIC, CONFIG);
+        receive("homeassistant/light/node/object/state", "ON");
+
+        assertThat(discovery.getTopicsSeen(), is(2L));
+        assertThat(discovery.getTopicsParsed(), is(1L));
+        assertThat(discovery.results.size(), is(1));
+
+        receive(TOPIC, CONFIG.replace("Lamp", "Other lamp"));
+        assertThat(discovery.getTopicsParsed(), is(2L));
+        assertThat(discovery.results.values().iterator().next().getLabel(), is("Other lamp (Light)"));
+    }
+
+    @Test
+    public void componentsAreKeptAfterPublishing() {
+        receive(TOPIC, CONFIG);
+        discovery.publishResults();
+        assertThat(discovery.getResultsPublished(), is(1L));
+        assertThat(discovery.results.isEmpty(), is(true));
+
+        receive("homeassistant/switch/node/object/config", CONFIG);
+        String label = discovery.results.values().iterator().next().getLabel();
+        assertThat(label, containsString("Light"));
+        assertThat(label, containsString("Switch"));
+    }
+
+    @Test
+    public void vanishedTopicIsParsedAgain() {
+        receive(TOPIC, CONFIG);
+        discovery.topicVanished(bridgeUID, connection, TOPIC);
+        receive(TOPIC, CONFIG);
+        assertThat(discovery.getTopicsParsed(), is(2L));
+    }
+}
@@ -28,6 +28,7 @@ import org.eclipse.smarthome.core.util.UIDUtils;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.ChannelConfig;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
 import org.slf4j.Logger;
@@ -36,6 +37,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Homie 3.x Device. This is also the base class to subscribe to and parse a homie MQTT topic tree.
  * First use {@link #subscribe(AbstractMqttAttributeClass)} to subscribe to the device/nodes/properties tree.
+ * A single wildcard subscription ("homie/device/#") is used for the attributes of the whole tree, the received
+ * retained messages are routed to the device, node and property attributes by a {@link MqttTopicRouter}.
+ * Property values, which are not "$" attributes, are neither routed nor cached by the router.
  * If everything has been received and parsed, call {@link #startChannels(MqttBrokerConnection, HomieThingHandler)}
  * to also subscribe to the property values. Usage:
  *
@@ -64,6 +68,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    private @Nullable MqttTopicRouter topicRouter;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -109,11 +114,16 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
-        if (topic.isEmpty()) {
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        if (topic.isEmpty() || topicRouter == null) {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        attributes.setTopicRouter(topicRouter);
+        return topicRouter.start(connection).exceptionally(e -> {
+            logger.debug("Failed to subscribe to device topic {}", topicRouter.getTopic(), e);
+            return false;
+        }).thenCompose(b -> attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout))
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -174,8 +184,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
+        final CompletableFuture<@Nullable Void> stopped = attributes.unsubscribe().thenCompose(
                 b -> CompletableFuture.allOf(nodes.stream().map(Node::stop).toArray(CompletableFuture[]::new)));
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        if (topicRouter == null) {
+            return stopped;
+        }
+        return stopped.thenCompose(v -> topicRouter.stop()).thenApply(b -> null);
     }
 
     /**
@@ -192,6 +207,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
         return initialized;
     }
 
+    /**
+     * Homie IDs must not start with "$", so only attribute topics have a level starting with "$".
+     */
+    static boolean isAttributeTopic(String topic) {
+        return topic.contains("/$");
+    }
+
     /**
      * Restore Nodes and Properties from Thing channels after handler initalization.
      *
@@ -201,6 +223,13 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     public void initialize(String baseTopic, String deviceID, List<Channel> channels) {
         this.topic = baseTopic + "/" + deviceID;
         this.deviceID = deviceID;
+        final MqttTopicRouter topicRouter = this.topicRouter;
+        if (topicRouter == null || !topicRouter.getTopic().equals(topic + "/#")) {
+            if (topicRouter != null) {
+                topicRouter.stop();
+            }
+            this.topicRouter = new MqttTopicRouter(topic + "/#", Device::isAttributeTopic);
+        }
         nodes.clear();
         for (Channel channel : channels) {
             final ChannelConfig channelConfig = channel.getConfiguration().as(ChannelConfig.class);
@@ -240,7 +269,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A child node
      */
     public Node createNode(String nodeID) {
-        return new Node(topic, nodeID, thingUID, callback, new NodeAttributes());
+        return new Node(topic, nodeID, thingUID, callback, new NodeAttributes(), topicRouter);
     }
 
     /**
@@ -251,7 +280,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A child node
      */
     public Node createNode(String nodeID, NodeAttributes attributes) {
-        return new Node(topic, nodeID, thingUID, callback, attributes);
+        return new Node(topic, nodeID, thingUID, callback, attributes, topicRouter);
     }
 
     /**
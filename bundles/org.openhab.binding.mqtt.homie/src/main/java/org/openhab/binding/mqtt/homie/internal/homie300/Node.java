@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.thing.type.ChannelGroupTypeUID;
 import org.eclipse.smarthome.core.util.UIDUtils;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
 import org.openhab.binding.mqtt.homie.generic.internal.MqttBindingConstants;
 import org.slf4j.Logger;
@@ -57,6 +58,7 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
     protected final ChannelGroupUID channelGroupUID;
     public final ChannelGroupTypeUID channelGroupTypeUID;
     private final String topic;
+    private final @Nullable MqttTopicRouter topicRouter;
     private boolean initialized = false;
 
     /**
@@ -68,7 +70,23 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      * @param callback The callback for the handler.
      */
     public Node(String topic, String nodeID, ThingUID thingUID, DeviceCallback callback, NodeAttributes attributes) {
+        this(topic, nodeID, thingUID, callback, attributes, null);
+    }
+
+    /**
+     * Creates a Homie Node.
+     *
+     * @param topic The base topic for this node (e.g. "homie/device")
+     * @param nodeID The node ID
+     * @param thingUID The Thing UID, used to determine the ChannelGroupUID.
+     * @param callback The callback for the handler.
+     * @param topicRouter The router of the device topic tree, used to receive the node and property attributes. Can
+     *            be null.
+     */
+    public Node(String topic, String nodeID, ThingUID thingUID, DeviceCallback callback, NodeAttributes attributes,
+            @Nullable MqttTopicRouter topicRouter) {
         this.attributes = attributes;
+        this.topicRouter = topicRouter;
         this.topic = topic + "/" + nodeID;
         this.nodeID = nodeID;
         this.callback = callback;
@@ -84,6 +102,7 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
+        attributes.setTopicRouter(topicRouter);
         return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
                 // On success, create all properties and tell the handler about this node
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
@@ -139,7 +158,7 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A Homie Property
      */
     public Property createProperty(String propertyID) {
-        return new Property(topic, this, propertyID, callback, new PropertyAttributes());
+        return new Property(topic, this, propertyID, callback, new PropertyAttributes(), topicRouter);
     }
 
     /**
@@ -150,7 +169,7 @@ public class Node implements AbstractMqttAttributeClass.AttributeChanged {
      * @return A Homie Property
      */
     public Property createProperty(String propertyID, PropertyAttributes attributes) {
-        return new Property(topic, this, propertyID, callback, attributes);
+        return new Property(topic, this, propertyID, callback, attributes, topicRouter);
     }
 
     /**
@@ -40,6 +40,7 @@ import org.openhab.binding.mqtt.generic.ChannelState;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass.AttributeChanged;
 import org.openhab.binding.mqtt.generic.mapping.ColorMode;
+import org.openhab.binding.mqtt.generic.mapping.MqttTopicRouter;
 import org.openhab.binding.mqtt.generic.values.ColorValue;
 import org.openhab.binding.mqtt.generic.values.NumberValue;
 import org.openhab.binding.mqtt.generic.values.OnOffValue;
@@ -72,6 +73,7 @@ public class Property implements AttributeChanged {
     private Channel channel;
     private final String topic;
     private final DeviceCallback callback;
+    private final @Nullable MqttTopicRouter topicRouter;
     protected boolean initialized = false;
 
     /**
@@ -83,7 +85,21 @@ public class Property implements AttributeChanged {
      */
     public Property(String topic, Node node, String propertyID, DeviceCallback callback,
             PropertyAttributes attributes) {
+        this(topic, node, propertyID, callback, attributes, null);
+    }
+
+    /**
+     * Creates a Homie Property.
+     *
+     * @param topic The base topic for this property (e.g. "homie/device/node")
+     * @param node The parent Homie Node.
+     * @param propertyID The unique property ID (among all properties on this Node).
+     * @param topicRouter The router of the device topic tree, used to receive the attributes. Can be null.
+     */
+    public Property(String topic, Node node, String propertyID, DeviceCallback callback,
+            PropertyAttributes attributes, @Nullable MqttTopicRouter topicRouter) {
         this.callback = callback;
+        this.topicRouter = topicRouter;
         this.attributes = attributes;
         this.topic = topic + "/" + propertyID;
         this.parentNode = node;
@@ -103,6 +119,7 @@ public class Property implements AttributeChanged {
      */
     public CompletableFuture<@Nullable Void> subscribe(MqttBrokerConnection connection,
             ScheduledExecutorService scheduler, int timeout) {
+        attributes.setTopicRouter(topicRouter);
         return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
                 // On success, create the channel and tell the handler about this property
                 .thenRun(this::attributesReceived)
@@ -12,12 +12,19 @@
  */
 package org.openhab.binding.mqtt.handler;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -39,6 +46,13 @@ import org.slf4j.LoggerFactory;
  * This base implementation handles connection changes of the {@link MqttBrokerConnection}
  * and puts the Thing on or offline. It also handles adding/removing notifications of the
  * {@link MqttService} and provides a basic dispose() implementation.
+ * <p>
+ * Discovery topics are subscribed on the broker only once, even if several listeners registered them. A topic that is
+ * covered by another registered wildcard topic (like "homie/+/$homie" by "homie/#") is not subscribed at all, its
+ * messages are taken from the covering subscription. Received messages are dispatched to the listeners with a
+ * {@link MqttTopicTrie}. A broker subscription is only renewed when the set of subscribed topics changes, a listener
+ * of an already subscribed topic gets the last received messages of its topic from the handler instead.
+ * </p>
  *
  * @author David Graeff - Initial contribution
  */
@@ -48,7 +62,18 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
     private final Logger logger = LoggerFactory.getLogger(AbstractBrokerHandler.class);
 
     final Map<ChannelUID, PublishTriggerChannel> channelStateByChannelUID = new HashMap<>();
-    private final Map<String, @Nullable Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe>> discoveryTopics = new HashMap<>();
+
+    private final Object discoveryLock = new Object();
+    // Registered discovery topics and their listeners
+    private final Map<String, Set<MQTTTopicDiscoveryParticipant>> discoveryTopics = new HashMap<>();
+    // All registered discovery topics, to find the ones matching a received topic
+    private final MqttTopicTrie<String> discoveryTopicTrie = new MqttTopicTrie<>();
+    // Broker subscriptions by topic. Only contains registered topics which are not covered by another registered topic.
+    private final Map<String, TopicSubscribe> discoverySubscriptions = new HashMap<>();
+    // The topic of the broker subscription that delivers the messages of a registered topic
+    private final Map<String, String> discoverySubscriptionByTopic = new HashMap<>();
+    // The last payload of every topic received by the broker subscriptions, replayed to new listeners
+    private final Map<String, byte[]> discoveryPayloads = new HashMap<>();
 
     protected @Nullable MqttBrokerConnection connection;
     protected CompletableFuture<MqttBrokerConnection> connectionFuture = new CompletableFuture<>();
@@ -116,28 +141,16 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         });
         connectionFuture.complete(connection);
 
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.replaceAll((listener, oldTopicSubscribe) -> {
+        synchronized (discoveryLock) {
+            discoverySubscriptions.replaceAll((topic, oldTopicSubscribe) -> {
                 if (oldTopicSubscribe.isStarted()) {
                     oldTopicSubscribe.stop();
                 }
-
-                TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-                if (discoveryEnabled()) {
-                    topicSubscribe.start().handle((result, ex) -> {
-                        if (ex != null) {
-                            logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        } else {
-                            logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        }
-                        return null;
-                    });
-                }
+                TopicSubscribe topicSubscribe = createDiscoverySubscription(topic);
+                startDiscoverySubscription(topic, topicSubscribe);
                 return topicSubscribe;
             });
-        });
+        }
     }
 
     @Override
@@ -169,11 +182,10 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
         channelStateByChannelUID.clear();
 
         // keep topics, but stop subscriptions
-        discoveryTopics.forEach((topic, listenerMap) -> {
-            listenerMap.forEach((listener, topicSubscribe) -> {
-                topicSubscribe.stop();
-            });
-        });
+        synchronized (discoveryLock) {
+            discoverySubscriptions.values().forEach(TopicSubscribe::stop);
+            discoveryPayloads.clear();
+        }
 
         if (connection != null) {
             connection.removeConnectionObserver(this);
@@ -193,30 +205,31 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (wildcards supported)
      */
     public final void registerDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics
-                .computeIfAbsent(topic, t -> new HashMap<>());
-        topicListeners.compute(listener, (k, v) -> {
-            if (v != null) {
+        final Map<String, byte[]> payloads = new HashMap<>();
+        synchronized (discoveryLock) {
+            Set<MQTTTopicDiscoveryParticipant> listeners = discoveryTopics.computeIfAbsent(topic,
+                    t -> new LinkedHashSet<>());
+            if (!listeners.add(listener)) {
                 logger.warn("Duplicate subscription for {} to discovery topic {} on broker {}. Check discovery logic!",
                         listener, topic, thing.getUID());
-                v.stop();
             }
-
-            TopicSubscribe topicSubscribe = new TopicSubscribe(connection, topic, listener, thing.getUID());
-            if (discoveryEnabled()) {
-                topicSubscribe.start().handle((result, ex) -> {
-                    if (ex != null) {
-                        logger.warn("Failed to subscribe {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
-                    } else {
-                        logger.trace("Subscribed {} to discovery topic {} on broker {}", listener, topic,
-                                thing.getUID());
+            discoveryTopicTrie.add(topic, topic);
+            final Set<String> previousSubscriptions = new HashSet<>(discoverySubscriptions.keySet());
+            updateDiscoverySubscriptions();
+            // A new subscription delivers the retained messages, an existing one has delivered them already
+            if (previousSubscriptions.contains(discoverySubscriptionByTopic.get(topic))) {
+                discoveryPayloads.forEach((receivedTopic, payload) -> {
+                    if (MqttTopicTrie.matches(topic, receivedTopic)) {
+                        payloads.put(receivedTopic, payload);
                     }
-                    return null;
                 });
             }
-            return topicSubscribe;
-        });
+        }
+        final MqttBrokerConnection connection = this.connection;
+        if (connection != null) {
+            payloads.forEach((receivedTopic, payload) -> listener.receivedMessage(thing.getUID(), connection,
+                    receivedTopic, payload));
+        }
     }
 
     /**
@@ -226,28 +239,168 @@ public abstract class AbstractBrokerHandler extends BaseBridgeHandler implements
      * @param topic the topic (as specified during registration)
      */
     public final void unregisterDiscoveryListener(MQTTTopicDiscoveryParticipant listener, String topic) {
-        Map<MQTTTopicDiscoveryParticipant, @Nullable TopicSubscribe> topicListeners = discoveryTopics.compute(topic,
-                (k, v) -> {
-                    if (v == null) {
-                        logger.warn(
-                                "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered at all. Check discovery logic!",
-                                listener, topic, thing.getUID());
-                        return null;
+        synchronized (discoveryLock) {
+            @Nullable
+            Set<MQTTTopicDiscoveryParticipant> listeners = discoveryTopics.get(topic);
+            if (listeners == null) {
+                logger.warn(
+                        "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered at all. Check discovery logic!",
+                        listener, topic, thing.getUID());
+                return;
+            }
+            if (!listeners.remove(listener)) {
+                logger.warn(
+                        "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
+                        listener, topic, thing.getUID());
+                return;
+            }
+            logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic, thing.getUID());
+            if (listeners.isEmpty()) {
+                discoveryTopics.remove(topic);
+                discoveryTopicTrie.remove(topic, topic);
+                updateDiscoverySubscriptions();
+            }
+        }
+    }
+
+    /**
+     * Brings the broker subscriptions in line with the registered discovery topics: Every registered topic that is
+     * not covered by another registered topic gets its own broker subscription. Existing subscriptions are kept, so
+     * that the broker does not send all retained messages again. Must be called with the discovery lock held.
+     */
+    private void updateDiscoverySubscriptions() {
+        Set<String> subscribedTopics = new HashSet<>();
+        for (String topic : discoveryTopics.keySet()) {
+            if (!isCoveredByOtherDiscoveryTopic(topic)) {
+                subscribedTopics.add(topic);
+            }
+        }
+        discoverySubscriptionByTopic.clear();
+        for (String topic : discoveryTopics.keySet()) {
+            String subscribedTopic = topic;
+            if (!subscribedTopics.contains(topic)) {
+                for (String candidate : subscribedTopics) {
+                    if (MqttTopicTrie.covers(candidate, topic)) {
+                        subscribedTopic = candidate;
+                        break;
                     }
-                    v.compute(listener, (l, w) -> {
-                        if (w == null) {
-                            logger.warn(
-                                    "Tried to unsubscribe {} from  discovery topic {} on broker {} but topic not registered for listener. Check discovery logic!",
-                                    listener, topic, thing.getUID());
-                        } else {
-                            w.stop();
-                            logger.trace("Unsubscribed {} from discovery topic {} on broker {}", listener, topic,
-                                    thing.getUID());
-                        }
-                        return null;
-                    });
-                    return v.isEmpty() ? null : v;
-                });
+                }
+            }
+            discoverySubscriptionByTopic.put(topic, subscribedTopic);
+        }
+
+        // Subscribe new topics before removing the covered ones
+        for (String topic : subscribedTopics) {
+            @Nullable
+            TopicSubscribe topicSubscribe = discoverySubscriptions.get(topic);
+            if (topicSubscribe == null) {
+                topicSubscribe = createDiscoverySubscription(topic);
+                discoverySubscriptions.put(topic, topicSubscribe);
+                startDiscoverySubscription(topic, topicSubscribe);
+            }
+        }
+        boolean unsubscribed = false;
+        for (Iterator<Map.Entry<String, TopicSubscribe>> it = discoverySubscriptions.entrySet().iterator(); it
+                .hasNext();) {
+            Map.Entry<String, TopicSubscribe> entry = it.next();
+            if (!subscribedTopics.contains(entry.getKey())) {
+                entry.getValue().stop();
+                it.remove();
+                unsubscribed = true;
+                logger.trace("Unsubscribed from discovery topic {} on broker {}", entry.getKey(), thing.getUID());
+            }
+        }
+        if (unsubscribed) {
+            discoveryPayloads.keySet().removeIf(receivedTopic -> discoveryTopicTrie.match(receivedTopic).isEmpty());
+        }
+    }
+
+    private boolean isCoveredByOtherDiscoveryTopic(String topic) {
+        for (String other : discoveryTopics.keySet()) {
+            if (!other.equals(topic) && MqttTopicTrie.covers(other, topic)) {
+                // Two different topics can cover each other (like "#" and "+/#"), keep one of them
+                if (!MqttTopicTrie.covers(topic, other) || other.compareTo(topic) < 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private TopicSubscribe createDiscoverySubscription(String topic) {
+        return new TopicSubscribe(connection, topic, new DiscoveryDispatcher(topic), thing.getUID());
+    }
+
+    private void startDiscoverySubscription(String topic, TopicSubscribe topicSubscribe) {
+        if (!discoveryEnabled()) {
+            return;
+        }
+        topicSubscribe.start().handle((result, ex) -> {
+            if (ex != null) {
+                logger.warn("Failed to subscribe to discovery topic {} on broker {}", topic, thing.getUID());
+            } else {
+                logger.trace("Subscribed to discovery topic {} on broker {}", topic, thing.getUID());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Passes a message received by the broker subscription of the given topic to the listeners of all registered
+     * topics that match the received topic and are delivered by this subscription. The payload is kept for
+     * listeners registered later, a null payload means that the topic vanished.
+     */
+    private void dispatchDiscoveryMessage(String subscribedTopic, String topic, byte @Nullable [] payload,
+            Consumer<MQTTTopicDiscoveryParticipant> action) {
+        List<MQTTTopicDiscoveryParticipant> listeners = new ArrayList<>();
+        synchronized (discoveryLock) {
+            if (!discoverySubscriptions.containsKey(subscribedTopic)) {
+                return;
+            }
+            if (payload != null) {
+                discoveryPayloads.put(topic, payload);
+            } else {
+                discoveryPayloads.remove(topic);
+            }
+            discoveryTopicTrie.forEachMatch(topic, registeredTopic -> {
+                @Nullable
+                Set<MQTTTopicDiscoveryParticipant> topicListeners = discoveryTopics.get(registeredTopic);
+                if (topicListeners != null
+                        && subscribedTopic.equals(discoverySubscriptionByTopic.get(registeredTopic))) {
+                    listeners.addAll(topicListeners);
+                }
+            });
+        }
+        listeners.forEach(action);
+    }
+
+    /**
+     * Receives the messages of one broker subscription and dispatches them to the discovery listeners.
+     */
+    private class DiscoveryDispatcher implements MQTTTopicDiscoveryParticipant {
+        private final String subscribedTopic;
+
+        DiscoveryDispatcher(String subscribedTopic) {
+            this.subscribedTopic = subscribedTopic;
+        }
+
+        @Override
+        public void receivedMessage(ThingUID thingUID, MqttBrokerConnection connection, String topic,
+                byte[] payload) {
+            dispatchDiscoveryMessage(subscribedTopic, topic, payload,
+                    listener -> listener.receivedMessage(thingUID, connection, topic, payload));
+        }
+
+        @Override
+        public void topicVanished(ThingUID thingUID, MqttBrokerConnection connection, String topic) {
+            dispatchDiscoveryMessage(subscribedTopic, topic, null,
+                    listener -> listener.topicVanished(thingUID, connection, topic));
+        }
+
+        @Override
+        public String toString() {
+            return "DiscoveryDispatcher[" + subscribedTopic + "]";
+        }
     }
 
     /**
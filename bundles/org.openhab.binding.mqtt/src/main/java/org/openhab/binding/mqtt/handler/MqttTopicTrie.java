@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A trie of MQTT topic filters. Each filter level is a node of the trie, which allows to find all filters matching a
+ * topic in O(topic depth) instead of matching every filter against the topic.
+ * <p>
+ * The MQTT wildcards are supported: "+" matches exactly one topic level, "#" matches any number of levels including
+ * the parent level. Wildcards at the first level do not match topics starting with "$", as defined by the MQTT
+ * specification.
+ * </p>
+ * This class is not thread-safe.
+ *
+ * @author Sami Salonen - Initial contribution
+ *
+ * @param <T> Type of the values registered for a filter
+ */
+@NonNullByDefault
+public class MqttTopicTrie<T> {
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        final Set<T> values = new LinkedHashSet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && values.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+    private int size = 0;
+
+    /**
+     * Registers a value for the given topic filter.
+     *
+     * @param topicFilter A topic filter, can contain wildcards
+     * @param value The value
+     * @return True if the value was not registered for that filter before
+     */
+    public boolean add(String topicFilter, T value) {
+        Node<T> node = root;
+        for (String level : topicFilter.split("/", -1)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+        if (node.values.add(value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value from the given topic filter. Nodes without any values left are removed from the trie.
+     *
+     * @param topicFilter A topic filter, as given to {@link #add(String, Object)}
+     * @param value The value
+     * @return True if the value was registered for that filter
+     */
+    public boolean remove(String topicFilter, T value) {
+        String[] levels = topicFilter.split("/", -1);
+        List<Node<T>> path = new ArrayList<>(levels.length + 1);
+        Node<T> node = root;
+        path.add(node);
+        for (String level : levels) {
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+            path.add(node);
+        }
+        if (!node.values.remove(value)) {
+            return false;
+        }
+        size--;
+        for (int i = levels.length; i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).children.remove(levels[i - 1]);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of registered filter/value pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if no values are registered.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        root.children.clear();
+        root.values.clear();
+        size = 0;
+    }
+
+    /**
+     * Calls the given consumer for all values which are registered for a filter matching the topic. A value
+     * registered for several matching filters is passed once for each filter.
+     *
+     * @param topic A topic without wildcards
+     * @param consumer The consumer of the matching values
+     */
+    public void forEachMatch(String topic, Consumer<T> consumer) {
+        forEachMatch(root, topic, 0, consumer);
+    }
+
+    /**
+     * Returns all values which are registered for a filter matching the topic.
+     *
+     * @param topic A topic without wildcards
+     * @return A list of matching values, in trie order
+     */
+    public List<T> match(String topic) {
+        List<T> result = new ArrayList<>();
+        forEachMatch(topic, result::add);
+        return result;
+    }
+
+    private void forEachMatch(Node<T> node, String topic, int levelStart, Consumer<T> consumer) {
+        if (levelStart > topic.length()) {
+            // All topic levels consumed. A trailing "#" also matches the parent level.
+            node.values.forEach(consumer);
+            Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+            if (multiLevel != null) {
+                multiLevel.values.forEach(consumer);
+            }
+            return;
+        }
+        int levelEnd = topic.indexOf('/', levelStart);
+        if (levelEnd < 0) {
+            levelEnd = topic.length();
+        }
+        String level = topic.substring(levelStart, levelEnd);
+
+        Node<T> child = node.children.get(level);
+        if (child != null) {
+            forEachMatch(child, topic, levelEnd + 1, consumer);
+        }
+        if (levelStart == 0 && level.startsWith("$")) {
+            return;
+        }
+        child = node.children.get(SINGLE_LEVEL_WILDCARD);
+        if (child != null) {
+            forEachMatch(child, topic, levelEnd + 1, consumer);
+        }
+        child = node.children.get(MULTI_LEVEL_WILDCARD);
+        if (child != null) {
+            child.values.forEach(consumer);
+        }
+    }
+
+    /**
+     * Returns true if the topic filter matches the topic.
+     *
+     * @param topicFilter A topic filter, can contain wildcards
+     * @param topic A topic without wildcards
+     */
+    public static boolean matches(String topicFilter, String topic) {
+        return covers(topicFilter, topic);
+    }
+
+    /**
+     * Returns true if every topic matched by the other filter is also matched by the topic filter. A broker
+     * subscription to the topic filter therefore receives all messages for the other filter.
+     *
+     * @param topicFilter A topic filter, can contain wildcards
+     * @param otherFilter Another topic filter, can contain wildcards
+     */
+    public static boolean covers(String topicFilter, String otherFilter) {
+        String[] levels = topicFilter.split("/", -1);
+        String[] otherLevels = otherFilter.split("/", -1);
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (MULTI_LEVEL_WILDCARD.equals(level)) {
+                return i > 0 || !isSystemLevel(otherLevels[0]);
+            }
+            if (i >= otherLevels.length) {
+                return false;
+            }
+            String otherLevel = otherLevels[i];
+            if (SINGLE_LEVEL_WILDCARD.equals(level)) {
+                if (MULTI_LEVEL_WILDCARD.equals(otherLevel) || (i == 0 && isSystemLevel(otherLevel))) {
+                    return false;
+                }
+            } else if (!level.equals(otherLevel)) {
+                return false;
+            }
+        }
+        return levels.length == otherLevels.length;
+    }
+
+    private static boolean isSystemLevel(String level) {
+        return level.startsWith("$");
+    }
+}
@@ -17,7 +17,9 @@ import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -25,11 +27,14 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.openhab.binding.mqtt.discovery.MQTTTopicDiscoveryParticipant;
 import org.openhab.binding.mqtt.internal.MqttThingID;
 import org.osgi.service.cm.ConfigurationException;
 
@@ -101,4 +106,29 @@ public class AbstractBrokerHandlerTest {
         // First connecting then connected and another connected after the future completes
         verify(callback, times(3)).statusUpdated(any(), any());
     }
+
+    @Test
+    public void coveredDiscoveryTopicGetsReceivedMessagesWithoutResubscribing() {
+        MqttBrokerConnection brokerConnection = mock(MqttBrokerConnection.class);
+        doReturn(CompletableFuture.completedFuture(true)).when(brokerConnection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(brokerConnection).unsubscribe(any(), any());
+        handler.connection = brokerConnection;
+        MQTTTopicDiscoveryParticipant first = mock(MQTTTopicDiscoveryParticipant.class);
+        MQTTTopicDiscoveryParticipant second = mock(MQTTTopicDiscoveryParticipant.class);
+        byte[] payload = "3.0".getBytes(StandardCharsets.UTF_8);
+
+        handler.registerDiscoveryListener(first, "homie/#");
+        ArgumentCaptor<MqttMessageSubscriber> subscriber = ArgumentCaptor.forClass(MqttMessageSubscriber.class);
+        verify(brokerConnection).subscribe(eq("homie/#"), subscriber.capture());
+        subscriber.getValue().processMessage("homie/device/$homie", payload);
+        subscriber.getValue().processMessage("homie/device/$name", payload);
+
+        handler.registerDiscoveryListener(second, "homie/+/$homie");
+
+        verify(brokerConnection, times(1)).subscribe(any(), any());
+        verify(brokerConnection, never()).unsubscribe(any(), any());
+        verify(first).receivedMessage(any(), eq(brokerConnection), eq("homie/device/$homie"), eq(payload));
+        verify(second).receivedMessage(any(), eq(brokerConnection), eq("homie/device/$homie"), eq(payload));
+        verify(second, never()).receivedMessage(any(), any(), eq("homie/device/$name"), any());
+    }
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link MqttTopicTrie}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class MqttTopicTrieTest {
+
+    private MqttTopicTrie<String> createTrie(String... filters) {
+        MqttTopicTrie<String> trie = new MqttTopicTrie<>();
+        for (String filter : filters) {
+            trie.add(filter, filter);
+        }
+        return trie;
+    }
+
+    @Test
+    public void matchExactAndWildcards() {
+        MqttTopicTrie<String> trie = createTrie("a/b/c", "a/+/c", "a/#", "+/b/#", "a/b", "#", "x/y");
+
+        assertThat(new HashSet<>(trie.match("a/b/c")),
+                is(new HashSet<>(Arrays.asList("a/b/c", "a/+/c", "a/#", "+/b/#", "#"))));
+        assertThat(new HashSet<>(trie.match("a/b")), is(new HashSet<>(Arrays.asList("a/b", "a/#", "+/b/#", "#"))));
+        assertThat(new HashSet<>(trie.match("a")), is(new HashSet<>(Arrays.asList("a/#", "#"))));
+        assertThat(trie.match("x/y/z"), is(Collections.singletonList("#")));
+    }
+
+    @Test
+    public void singleLevelWildcardMatchesEmptyLevel() {
+        MqttTopicTrie<String> trie = createTrie("a/+/c", "a/+");
+        assertThat(trie.match("a//c"), is(Collections.singletonList("a/+/c")));
+        assertThat(trie.match("a/"), is(Collections.singletonList("a/+")));
+        assertThat(trie.match("a"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void wildcardsDoNotMatchSystemTopics() {
+        MqttTopicTrie<String> trie = createTrie("#", "+/broker", "$SYS/#");
+        assertThat(trie.match("$SYS/broker"), is(Collections.singletonList("$SYS/#")));
+        assertThat(new HashSet<>(trie.match("sys/broker")), is(new HashSet<>(Arrays.asList("#", "+/broker"))));
+    }
+
+    @Test
+    public void removePrunesTrie() {
+        MqttTopicTrie<String> trie = new MqttTopicTrie<>();
+        assertTrue(trie.add("homie/+/$homie", "a"));
+        assertTrue(trie.add("homie/+/$homie", "b"));
+        assertFalse(trie.add("homie/+/$homie", "b"));
+        assertThat(trie.size(), is(2));
+
+        assertFalse(trie.remove("homie/+", "a"));
+        assertTrue(trie.remove("homie/+/$homie", "a"));
+        assertThat(trie.match("homie/device/$homie"), is(Collections.singletonList("b")));
+        assertTrue(trie.remove("homie/+/$homie", "b"));
+        assertFalse(trie.remove("homie/+/$homie", "b"));
+        assertTrue(trie.isEmpty());
+        assertThat(trie.match("homie/device/$homie"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void matches() {
+        assertTrue(MqttTopicTrie.matches("a/+/c", "a/b/c"));
+        assertTrue(MqttTopicTrie.matches("a/#", "a"));
+        assertTrue(MqttTopicTrie.matches("#", "a/b"));
+        assertFalse(MqttTopicTrie.matches("#", "$SYS/a"));
+        assertFalse(MqttTopicTrie.matches("a/+", "a/b/c"));
+        assertFalse(MqttTopicTrie.matches("a/b", "a"));
+    }
+
+    @Test
+    public void covers() {
+        assertTrue(MqttTopicTrie.covers("homie/#", "homie/+/$homie"));
+        assertTrue(MqttTopicTrie.covers("homie/#", "homie/#"));
+        assertTrue(MqttTopicTrie.covers("homie/#", "homie"));
+        assertTrue(MqttTopicTrie.covers("+/+", "a/+"));
+        assertTrue(MqttTopicTrie.covers("#", "+/#"));
+
+        assertFalse(MqttTopicTrie.covers("homie/+/$homie", "homie/#"));
+        assertFalse(MqttTopicTrie.covers("a/+", "a/#"));
+        assertFalse(MqttTopicTrie.covers("a/b", "a/b/#"));
+        assertFalse(MqttTopicTrie.covers("a/+", "b/c"));
+        assertFalse(MqttTopicTrie.covers("#", "$SYS/#"));
+        assertFalse(MqttTopicTrie.covers("+/a", "$SYS/a"));
+    }
+}
@@ -12,7 +12,7 @@
  */
 package org.openhab.binding.mqtt.internal;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +59,9 @@ public class MQTTTopicDiscoveryServiceTest {
     @Mock
     MQTTTopicDiscoveryParticipant listener;
 
+    @Mock
+    MQTTTopicDiscoveryParticipant otherListener;
+
     private MqttBrokerConnectionEx connection;
 
     private BrokerHandler handler;
@@ -151,4 +154,34 @@ public class MQTTTopicDiscoveryServiceTest {
                 .forEach(s -> s.processMessage("topic", bytes));
         verify(listener).topicVanished(eq(thing.getUID()), eq(connection), eq("topic"));
     }
+
+    @Test
+    public void coveredTopicSharesSubscription() {
+        handler.initialize();
+        BrokerHandlerEx.verifyCreateBrokerConnection(handler, 1);
+
+        subject.createdHandler(handler);
+        subject.subscribe(listener, "homie/+/$homie");
+        subject.subscribe(otherListener, "homie/#");
+
+        // Only the covering topic is subscribed on the broker
+        assertNull(connection.getSubscribers().get("homie/+/$homie"));
+        assertNotNull(connection.getSubscribers().get("homie/#"));
+
+        final byte[] bytes = "3.0".getBytes();
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$homie", bytes));
+        verify(listener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"), eq(bytes));
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$homie"),
+                eq(bytes));
+
+        connection.getSubscribers().get("homie/#").forEach(s -> s.processMessage("homie/device/$name", bytes));
+        verify(listener, never()).receivedMessage(any(), any(), eq("homie/device/$name"), any());
+        verify(otherListener).receivedMessage(eq(thing.getUID()), eq(connection), eq("homie/device/$name"),
+                eq(bytes));
+
+        // The covered topic gets its own subscription again once the covering one is gone
+        subject.unsubscribe(otherListener);
+        assertNull(connection.getSubscribers().get("homie/#"));
+        assertNotNull(connection.getSubscribers().get("homie/+/$homie"));
+    }
 }
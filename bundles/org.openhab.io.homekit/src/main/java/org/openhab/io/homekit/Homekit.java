@@ -53,4 +53,9 @@ public interface Homekit {
      * clear all pairings with HomeKit clients
      */
     void clearHomekitPairings();
+
+    /**
+     * returns statistics of the HomeKit integration, like the number and latency of characteristic notifications.
+     */
+    List<String> getStatistics();
 }
@@ -12,10 +12,20 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.StateChangeListener;
@@ -30,6 +40,11 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * clients. Each item/key pair (key is optional) should be unique, as the underlying
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
+ * <p>
+ * Item state changes are not forwarded to HomeKit immediately. The first change of a characteristic opens a
+ * notification window, further changes within that window are coalesced: HomeKit reads the current item state when
+ * it is notified, so intermediate values of a dimmer ramp or a power meter are dropped. When the window closes, all
+ * pending notifications are sent in one pass, so the events for the connected controllers are written back to back.
  *
  * @author Andy Lintner - Initial contribution
  */
@@ -37,6 +52,34 @@ public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
 
+    private final ScheduledExecutorService scheduler;
+    private volatile int notificationWindow = 0;
+    private final Map<ItemKey, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+    private ScheduledFuture<?> notificationJob;
+
+    private final AtomicLong stateChanges = new AtomicLong();
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong notificationBatches = new AtomicLong();
+    private final AtomicLong totalLatencyMicros = new AtomicLong();
+    private final AtomicLong maxLatencyMicros = new AtomicLong();
+
+    public HomekitAccessoryUpdater() {
+        this(ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON));
+    }
+
+    public HomekitAccessoryUpdater(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the window in which changes of a characteristic are coalesced.
+     *
+     * @param notificationWindow window in milliseconds. 0 sends every change immediately.
+     */
+    public void setNotificationWindow(int notificationWindow) {
+        this.notificationWindow = notificationWindow;
+    }
+
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
     }
@@ -57,7 +100,7 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = (changedItem, oldState, newState) -> changed(itemKey, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -71,11 +114,121 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        ItemKey itemKey = new ItemKey(item, key);
+        subscriptionsByName.computeIfPresent(itemKey, (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
             return null;
         });
+        synchronized (pendingNotifications) {
+            pendingNotifications.remove(itemKey);
+        }
+    }
+
+    /**
+     * Moves the subscriptions of an item to another instance of the same item, e.g. after the items have been
+     * reloaded without a change.
+     *
+     * @param oldItem the item instance the subscriptions have been made for
+     * @param newItem the item instance that replaces it
+     */
+    public void replaceItem(GenericItem oldItem, GenericItem newItem) {
+        for (ItemKey itemKey : new ArrayList<>(subscriptionsByName.keySet())) {
+            if (itemKey.item != oldItem) {
+                continue;
+            }
+            Subscription subscription = subscriptionsByName.remove(itemKey);
+            if (subscription != null) {
+                logger.trace("Moving subscription for {} / {} to the new item instance", oldItem, itemKey.key);
+                oldItem.removeStateChangeListener(subscription);
+                newItem.addStateChangeListener(subscription);
+                subscriptionsByName.put(new ItemKey(newItem, itemKey.key), subscription);
+            }
+        }
+    }
+
+    /**
+     * Cancels all pending notifications.
+     */
+    public void stop() {
+        synchronized (pendingNotifications) {
+            pendingNotifications.clear();
+            if (notificationJob != null) {
+                notificationJob.cancel(false);
+                notificationJob = null;
+            }
+        }
+    }
+
+    private void changed(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+        stateChanges.incrementAndGet();
+        final int notificationWindow = this.notificationWindow;
+        if (notificationWindow <= 0) {
+            notify(new PendingNotification(callback, System.nanoTime()));
+            notificationBatches.incrementAndGet();
+            return;
+        }
+        synchronized (pendingNotifications) {
+            if (pendingNotifications.containsKey(itemKey)) {
+                // Coalesced: HomeKit will read the latest state when it is notified
+                return;
+            }
+            pendingNotifications.put(itemKey, new PendingNotification(callback, System.nanoTime()));
+            if (notificationJob == null) {
+                notificationJob = scheduler.schedule(this::sendPendingNotifications, notificationWindow,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sendPendingNotifications() {
+        final List<PendingNotification> notifications;
+        synchronized (pendingNotifications) {
+            notifications = new ArrayList<>(pendingNotifications.values());
+            pendingNotifications.clear();
+            notificationJob = null;
+        }
+        if (!notifications.isEmpty()) {
+            logger.trace("Sending {} coalesced HomeKit notifications", notifications.size());
+            notifications.forEach(this::notify);
+            notificationBatches.incrementAndGet();
+        }
+    }
+
+    private void notify(PendingNotification notification) {
+        try {
+            notification.callback.changed();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to notify HomeKit about a characteristic change", e);
+        }
+        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - notification.firstChange);
+        notificationsSent.incrementAndGet();
+        totalLatencyMicros.addAndGet(latency);
+        maxLatencyMicros.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Returns the notification counts and latencies in a human readable form.
+     */
+    public List<String> getStatistics() {
+        long changes = stateChanges.get();
+        long sent = notificationsSent.get();
+        return Arrays.asList("Item state changes: " + changes,
+                "Notifications sent: " + sent + " in " + notificationBatches.get() + " batches ("
+                        + (changes - sent) + " coalesced or pending)",
+                String.format("Notification latency: average %.1f ms, max %.1f ms",
+                        sent == 0 ? 0.0 : totalLatencyMicros.get() / 1000.0 / sent, maxLatencyMicros.get() / 1000.0),
+                "Notification window: " + notificationWindow + " ms");
+    }
+
+    private static class PendingNotification {
+        final HomekitCharacteristicChangeCallback callback;
+        final long firstChange;
+
+        PendingNotification(HomekitCharacteristicChangeCallback callback, long firstChange) {
+            this.callback = callback;
+            this.firstChange = firstChange;
+        }
     }
 
     @FunctionalInterface
@@ -14,16 +14,26 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
@@ -43,6 +53,10 @@ import io.github.hapjava.server.impl.HomekitRoot;
 /**
  * Listens for changes to the item registry. When changes are detected, check
  * for HomeKit tags and, if present, add the items to the HomekitAccessoryRegistry.
+ * <p>
+ * Each root accessory has a fingerprint of the items, groups and HomeKit metadata it is built from. Only accessories
+ * with a changed fingerprint are rebuilt, and the configuration revision is only changed if an accessory changed.
+ * Accessories with an unchanged fingerprint are kept, only their references to the items are updated.
  *
  * @author Andy Lintner - Initial contribution
  */
@@ -51,6 +65,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final static String REVISION_CONFIG = "revision";
     private final static String ACCESSORY_COUNT = "accessory_count";
+    private final static long NO_ACCESSORY = 0;
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
@@ -60,9 +75,17 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private int lastAccessoryCount;
 
     private final Set<String> pendingUpdates = new HashSet<>();
+    private final Map<String, Long> fingerprints = new HashMap<>();
+    // serializes rebuilds, they must not apply accessories built from outdated items
+    private final Object rebuildLock = new Object();
+
+    private volatile long lastRebuildDuration = -1;
+    private volatile int lastRebuildChanged;
+    private volatile int lastRebuildChecked;
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private final ExecutorService rebuildPool = ThreadPoolManager.getPool("homekit-rebuild");
 
     /**
      * Rather than reacting to item added/removed/modified changes directly, we mark them as dirty (and the groups to
@@ -80,11 +103,20 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.settings = settings;
         this.metadataRegistry = metadataRegistry;
         storage = storageService.getStorage(HomekitAuthInfoImpl.STORAGE_KEY);
+        updater.setNotificationWindow(settings.notificationWindow);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
 
         itemRegistry.addRegistryChangeListener(this);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        synchronized (this) {
+            itemRegistry.getItems().forEach(item -> {
+                final long fingerprint = fingerprint(item);
+                if (fingerprint != NO_ACCESSORY) {
+                    fingerprints.put(item.getName(), fingerprint);
+                    createRootAccessories(item).forEach(a -> accessoryRegistry.addRootAccessory(item.getName(), a));
+                }
+            });
+        }
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
@@ -157,17 +189,85 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
     }
 
-    private synchronized void applyUpdates() {
-        logger.trace("apply updates");
-        for (final String name : pendingUpdates) {
-            accessoryRegistry.remove(name);
-            logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
+    /**
+     * Rebuilds the accessories of all dirty items with a changed fingerprint. The fingerprints and accessories are
+     * computed in parallel on the rebuild pool without holding the listener lock, only the registry update is
+     * synchronized.
+     */
+    private void applyUpdates() {
+        synchronized (rebuildLock) {
+            rebuildAccessories();
         }
-        if (!pendingUpdates.isEmpty()) {
-            makeNewConfigurationRevision();
+    }
+
+    private void rebuildAccessories() {
+        logger.trace("apply updates");
+        final long start = System.nanoTime();
+        final Map<String, Long> previousFingerprints = new HashMap<>();
+        synchronized (this) {
+            pendingUpdates.forEach(name -> previousFingerprints.put(name, fingerprints.get(name)));
             pendingUpdates.clear();
         }
+
+        // the accessories are built on the pool in parallel, the items and metadata are only read meanwhile
+        final Map<String, CompletableFuture<@Nullable RootAccessories>> rebuilds = new HashMap<>();
+        previousFingerprints.forEach((name, previousFingerprint) -> rebuilds.put(name,
+                CompletableFuture.supplyAsync(() -> rebuild(name, previousFingerprint), rebuildPool)));
+
+        final List<RootAccessories> changed = new ArrayList<>();
+        final List<String> unchanged = new ArrayList<>();
+        rebuilds.forEach((name, rebuild) -> {
+            final @Nullable RootAccessories rootAccessories = rebuild.join();
+            if (rootAccessories != null) {
+                changed.add(rootAccessories);
+            } else if (previousFingerprints.get(name) != null) {
+                unchanged.add(name);
+            }
+        });
+
+        synchronized (this) {
+            for (String name : unchanged) {
+                final @Nullable HomekitAccessory accessory = accessoryRegistry.getAllAccessories().get(name);
+                if (accessory != null) {
+                    HomekitAccessoryFactory.updateItems(accessory, itemRegistry);
+                }
+            }
+            for (RootAccessories rootAccessories : changed) {
+                accessoryRegistry.remove(rootAccessories.name);
+                rootAccessories.accessories.forEach(a -> accessoryRegistry.addRootAccessory(rootAccessories.name, a));
+                if (rootAccessories.fingerprint == NO_ACCESSORY) {
+                    fingerprints.remove(rootAccessories.name);
+                } else {
+                    fingerprints.put(rootAccessories.name, rootAccessories.fingerprint);
+                }
+            }
+            if (!changed.isEmpty()) {
+                makeNewConfigurationRevision();
+            }
+        }
+        lastRebuildDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastRebuildChanged = changed.size();
+        lastRebuildChecked = previousFingerprints.size();
+        logger.debug("Rebuilt {} of {} changed HomeKit accessories in {} ms", lastRebuildChanged, lastRebuildChecked,
+                lastRebuildDuration);
+    }
+
+    /**
+     * Builds the root accessories of an item if its fingerprint changed.
+     *
+     * @param name name of the item
+     * @param previousFingerprint fingerprint of the current accessories or null if the item has no accessory
+     * @return the new accessories or null if the fingerprint is unchanged
+     */
+    private @Nullable RootAccessories rebuild(String name, @Nullable Long previousFingerprint) {
+        final Optional<Item> item = getItemOptional(name);
+        final long fingerprint = item.map(this::fingerprint).orElse(NO_ACCESSORY);
+        if (fingerprint == (previousFingerprint == null ? NO_ACCESSORY : previousFingerprint)) {
+            return null;
+        }
+        logger.trace(" rebuild accessories of item {}", name);
+        return new RootAccessories(name, fingerprint,
+                fingerprint == NO_ACCESSORY ? Collections.emptyList() : createRootAccessories(item.get()));
     }
 
     @Override
@@ -182,6 +282,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        fingerprints.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -195,14 +296,30 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setNotificationWindow(settings.notificationWindow);
     }
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationWindow(settings.notificationWindow);
     }
 
     public void stop() {
         this.itemRegistry.removeRegistryChangeListener(this);
+        updater.stop();
+    }
+
+    /**
+     * Returns statistics of the HomeKit integration in a human readable form.
+     */
+    public List<String> getStatistics() {
+        final List<String> statistics = new ArrayList<>(updater.getStatistics());
+        final long lastRebuildDuration = this.lastRebuildDuration;
+        if (lastRebuildDuration >= 0) {
+            statistics.add("Last accessory rebuild: " + lastRebuildChanged + " of " + lastRebuildChecked
+                    + " changed items rebuilt in " + lastRebuildDuration + " ms");
+        }
+        return statistics;
     }
 
     public Map<String, HomekitAccessory> getAccessories() {
@@ -237,26 +354,96 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the created accessories, all of them are registered under the item name
      */
-    private void createRootAccessories(Item item) {
+    private List<HomekitAccessory> createRootAccessories(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
-        if (!accessoryTypes.isEmpty()
-                && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null))) {
+        final List<HomekitAccessory> accessories = new ArrayList<>();
+        if (isRootAccessory(accessoryTypes, groups)) {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
             accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)))
+                            .ifPresent(accessories::add));
         }
+        return accessories;
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private static boolean isRootAccessory(List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes,
+            List<GroupItem> groups) {
+        return !accessoryTypes.isEmpty()
+                && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null));
+    }
+
+    private Optional<HomekitAccessory> createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return Optional.of(HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the root accessories of an item. It covers everything the accessories are built
+     * from: The item, its HomeKit groups and, for group accessories, all members. Only values are part of the
+     * fingerprint, an item that has been reloaded without a change keeps its fingerprint.
+     *
+     * @param item openHAB item
+     * @return the fingerprint or {@link #NO_ACCESSORY} if the item is no root accessory
+     */
+    private long fingerprint(Item item) {
+        final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
+                .getAccessoryTypes(item, metadataRegistry);
+        final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
+        if (!isRootAccessory(accessoryTypes, groups)) {
+            return NO_ACCESSORY;
+        }
+        final StringBuilder builder = new StringBuilder();
+        appendFingerprint(builder, item);
+        groups.forEach(group -> appendFingerprint(builder, group));
+        if (item instanceof GroupItem) {
+            ((GroupItem) item).getAllMembers().forEach(member -> appendFingerprint(builder, member));
+        }
+        // FNV-1a, 64 bit
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < builder.length(); i++) {
+            hash ^= builder.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == NO_ACCESSORY ? 1 : hash;
+    }
+
+    private void appendFingerprint(StringBuilder builder, Item item) {
+        builder.append(item.getName()).append('|').append(item.getType()).append('|').append(item.getLabel())
+                .append('|').append(item.getCategory()).append('|').append(new TreeSet<>(item.getTags())).append('|')
+                .append(new TreeSet<>(item.getGroupNames())).append('|')
+                .append(HomekitAccessoryFactory.getAccessoryTypes(item, metadataRegistry)).append('|');
+        final @Nullable Map<String, Object> configuration = HomekitAccessoryFactory.getItemConfiguration(item,
+                metadataRegistry);
+        if (configuration != null) {
+            new TreeMap<>(configuration).forEach((key, value) -> builder.append(key).append('=').append(
+                    value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value))
+                    .append(','));
+        }
+        if (item instanceof GroupItem) {
+            final @Nullable Item baseItem = ((GroupItem) item).getBaseItem();
+            builder.append('|').append(baseItem != null ? baseItem.getType() : "");
+        }
+        builder.append('\n');
+    }
+
+    private static class RootAccessories {
+        final String name;
+        final long fingerprint;
+        final List<HomekitAccessory> accessories;
+
+        RootAccessories(String name, long fingerprint, List<HomekitAccessory> accessories) {
+            this.name = name;
+            this.fingerprint = fingerprint;
+            this.accessories = accessories;
         }
     }
 }
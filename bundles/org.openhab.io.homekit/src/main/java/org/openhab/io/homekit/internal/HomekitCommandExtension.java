@@ -38,6 +38,7 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
     private static final String SUBCMD_LIST_ACCESSORIES = "list";
     private static final String SUBCMD_PRINT_ACCESSORY = "show";
     private static final String SUBCMD_ALLOW_UNAUTHENTICATED = "allowUnauthenticated";
+    private static final String SUBCMD_STATISTICS = "stats";
     @Deprecated
     private static final String LEGACY_SUBCMD_LIST_ACCESSORIES = "listAccessories";
     @Deprecated
@@ -88,6 +89,9 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
                         console.println("Hey, you can use the shorter command 'homekit show <accessory_id|name>'");
                     }
                     break;
+                case SUBCMD_STATISTICS:
+                    homekit.getStatistics().forEach(console::println);
+                    break;
                 default:
                     console.println("Unknown command '" + subCommand + "'");
                     printUsage(console);
@@ -104,6 +108,7 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
                 buildCommandUsage(SUBCMD_PRINT_ACCESSORY + " <accessory id | accessory name>",
                         "print additional details of the accessories which partially match provided ID or name."),
                 buildCommandUsage(SUBCMD_CLEAR_PAIRINGS, "removes all pairings with HomeKit clients."),
+                buildCommandUsage(SUBCMD_STATISTICS, "print notification counts and latencies."),
                 buildCommandUsage(SUBCMD_ALLOW_UNAUTHENTICATED + " <boolean>",
                         "enables or disables unauthenticated access to facilitate debugging"));
     }
@@ -201,6 +201,11 @@ public class HomekitImpl implements Homekit {
         return new ArrayList<>(this.changeListener.getAccessories().values());
     }
 
+    @Override
+    public List<String> getStatistics() {
+        return changeListener.getStatistics();
+    }
+
     @Override
     public void clearHomekitPairings() {
         try {
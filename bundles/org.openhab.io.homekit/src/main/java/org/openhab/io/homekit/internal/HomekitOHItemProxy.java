@@ -49,7 +49,7 @@ import org.slf4j.LoggerFactory;
 public class HomekitOHItemProxy {
     private final Logger logger = LoggerFactory.getLogger(HomekitOHItemProxy.class);
     private static final int DEFAULT_DELAY = 50; // in ms
-    private final Item item;
+    private volatile Item item;
     private final Map<HomekitCommandType, State> commandCache = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -66,6 +66,15 @@ public class HomekitOHItemProxy {
         return item;
     }
 
+    /**
+     * Replaces the item by another instance of the same item, e.g. after the items have been reloaded.
+     *
+     * @param item openHAB item
+     */
+    public void setItem(Item item) {
+        this.item = item;
+    }
+
     public void setDimmerMode(HomekitDimmerMode mode) {
         dimmerMode = mode;
     }
@@ -27,6 +27,7 @@ public class HomekitSettings {
     public int port = 9123;
     public String pin = "031-45-154";
     public int startDelay = 30;
+    public int notificationWindow = 250;
     public boolean useFahrenheitTemperature = false;
     public double minimumTemperature = -100;
     public double maximumTemperature = 100;
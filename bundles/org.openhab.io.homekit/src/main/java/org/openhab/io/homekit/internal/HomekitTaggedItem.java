@@ -172,6 +172,14 @@ public class HomekitTaggedItem {
         return parentGroupItem;
     }
 
+    /**
+     * Replaces the RootDevice GroupItem by another instance of the same group, e.g. after the items have been
+     * reloaded.
+     */
+    public void setRootDeviceGroupItem(GroupItem parentGroupItem) {
+        this.parentGroupItem = parentGroupItem;
+    }
+
     /**
      * Returns whether or not this item belongs to a HomeKit accessory group.
      *
@@ -28,7 +28,9 @@ import javax.measure.Unit;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
 import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.OpenClosedType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -269,6 +271,37 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
         characteristics.add(characteristic);
     }
 
+    /**
+     * Replaces the items of the accessory and its characteristics by their current instances in the item registry.
+     * State change subscriptions are moved to the new instances.
+     *
+     * @param itemRegistry item registry
+     */
+    @NonNullByDefault
+    void updateItems(ItemRegistry itemRegistry) {
+        updateItem(accessory, itemRegistry);
+        characteristics.forEach(characteristic -> updateItem(characteristic, itemRegistry));
+    }
+
+    @NonNullByDefault
+    private void updateItem(HomekitTaggedItem taggedItem, ItemRegistry itemRegistry) {
+        final Item oldItem = taggedItem.getItem();
+        final @Nullable Item item = itemRegistry.get(oldItem.getName());
+        if (item != null && item != oldItem) {
+            taggedItem.getProxyItem().setItem(item);
+            if (oldItem instanceof GenericItem && item instanceof GenericItem) {
+                updater.replaceItem((GenericItem) oldItem, (GenericItem) item);
+            }
+        }
+        final @Nullable GroupItem oldGroup = taggedItem.getRootDeviceGroupItem();
+        if (oldGroup != null) {
+            final @Nullable Item group = itemRegistry.get(oldGroup.getName());
+            if (group instanceof GroupItem && group != oldGroup) {
+                taggedItem.setRootDeviceGroupItem((GroupItem) group);
+            }
+        }
+    }
+
     @NonNullByDefault
     private <T extends Quantity<T>> double convertAndRound(double value, Unit<T> from, Unit<T> to) {
         double rawValue = from == to ? value : from.getConverterTo(to).convert(value);
@@ -208,6 +208,19 @@ public class HomekitAccessoryFactory {
         }
     }
 
+    /**
+     * Replaces the items of an accessory by their current instances in the item registry, e.g. after the items have
+     * been reloaded without a change that requires rebuilding the accessory.
+     *
+     * @param accessory HomeKit accessory
+     * @param itemRegistry item registry
+     */
+    public static void updateItems(HomekitAccessory accessory, ItemRegistry itemRegistry) {
+        if (accessory instanceof AbstractHomekitAccessoryImpl) {
+            ((AbstractHomekitAccessoryImpl) accessory).updateItems(itemRegistry);
+        }
+    }
+
     /**
      * return HomeKit accessory types for a OH item based on meta data
      * 
@@ -143,6 +143,8 @@ public class HueEmulationService implements EventHandler {
     protected @NonNullByDefault({}) Rules rules;
     @Reference
     protected @NonNullByDefault({}) StatusResource statusResource;
+    @Reference
+    protected @NonNullByDefault({}) RequestMetrics requestMetrics;
 
     @Reference
     protected @NonNullByDefault({}) HttpService httpService;
@@ -201,7 +203,7 @@ public class HueEmulationService implements EventHandler {
         resourceConfig.property(ServerProperties.PROCESSING_RESPONSE_ERRORS_ENABLED, true);
 
         resourceConfig.registerInstances(userManagement, configurationAccess, lightItems, sensors, scenes, schedules,
-                rules, statusResource, accessInterceptor, requestCleaner);
+                rules, statusResource, accessInterceptor, requestCleaner, requestMetrics);
 
         try {
             Hashtable<String, String> initParams = new Hashtable<>();
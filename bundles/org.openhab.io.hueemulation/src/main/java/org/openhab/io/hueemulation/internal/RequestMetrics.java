@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Measures the request latency of every REST endpoint. An endpoint is identified by the HTTP method and the
+ * resource method that handled the request, so that user names and IDs in the path do not create new entries.
+ * The latency is the time between the request and response filter stages, it does not include writing the
+ * response body to the network.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@Component(immediate = false, service = { RequestMetrics.class }, property = "com.eclipsesource.jaxrs.publish=false")
+@NonNullByDefault
+public class RequestMetrics implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String START_PROPERTY = RequestMetrics.class.getName() + ".start";
+    private static final String UNMATCHED_ENDPOINT = "unmatched";
+
+    /**
+     * Latency statistics of an endpoint.
+     */
+    public static class EndpointMetrics {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            requests.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * Returns the average latency in microseconds.
+         */
+        public long getAverageMicros() {
+            long requests = this.requests.get();
+            return requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.get() / requests);
+        }
+
+        /**
+         * Returns the maximum latency in microseconds.
+         */
+        public long getMaxMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+        }
+    }
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Context
+    protected @Nullable ResourceInfo resourceInfo;
+
+    @NonNullByDefault({})
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @NonNullByDefault({})
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (!(start instanceof Long)) {
+            return;
+        }
+        long nanos = System.nanoTime() - (Long) start;
+        endpoints.computeIfAbsent(endpointOf(requestContext.getMethod()), k -> new EndpointMetrics()).add(nanos);
+    }
+
+    private String endpointOf(String httpMethod) {
+        ResourceInfo resourceInfo = this.resourceInfo;
+        Method method = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        Class<?> resourceClass = resourceInfo != null ? resourceInfo.getResourceClass() : null;
+        if (method == null || resourceClass == null) {
+            return UNMATCHED_ENDPOINT;
+        }
+        return httpMethod + " " + resourceClass.getSimpleName() + "." + method.getName();
+    }
+
+    /**
+     * Returns the latency statistics by endpoint, sorted by endpoint.
+     */
+    public Map<String, EndpointMetrics> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+}
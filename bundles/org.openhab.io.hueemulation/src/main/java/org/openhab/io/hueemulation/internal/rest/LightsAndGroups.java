@@ -27,7 +27,9 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -88,6 +90,8 @@ import io.swagger.annotations.ApiResponses;
  * </p>
  *
  * <p>
+ * The lights are served from a {@link LightsJsonCache}, which only serializes changed lights again and supports
+ * conditional requests with entity tags.
  * </p>
  *
  * @author David Graeff - Initial contribution
@@ -113,6 +117,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
 
+    private final LightsJsonCache lightsJson = new LightsJsonCache();
+
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
      */
@@ -243,12 +249,17 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Path("{username}/lights")
     @ApiOperation(value = "Return all lights")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @ApiParam(value = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        LightsJsonCache.Snapshot lights = lightsJson.getAll(cs.ds.lights, cs.gson);
+        ResponseBuilder notModified = request.evaluatePreconditions(lights.entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(lights.json).tag(lights.entityTag).build();
     }
 
     @GET
@@ -285,7 +296,11 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        if (hueDevice == null) {
+            return Response.ok(cs.gson.toJson(null)).build();
+        }
+        return Response.ok(lightsJson.get(id, hueDevice, cs.gson)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal.rest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.hueemulation.internal.dto.HueLightEntry;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Caches the serialized JSON of the hue lights.
+ * <p>
+ * Hue clients like Amazon Echos and Harmony hubs poll the full light list every few seconds. Serializing all
+ * lights with Gson for every request is expensive, so every light is kept as a pre-rendered JSON fragment. A
+ * fragment is only rendered again if anything it depends on has changed: The item instance, its state and label and
+ * the last hue command. The full collection is the concatenation of the fragments and is only rebuilt if a fragment
+ * or the set of lights has changed.
+ * <p>
+ * Every rebuild of the collection increments a version, which is used as entity tag for conditional requests.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class LightsJsonCache {
+    /**
+     * A rendered light and the inputs it was rendered from.
+     */
+    private static class Fragment {
+        final Object[] inputs;
+        final String json;
+
+        Fragment(Object[] inputs, String json) {
+            this.inputs = inputs;
+            this.json = json;
+        }
+    }
+
+    /**
+     * The serialized light collection and its entity tag.
+     */
+    public static class Snapshot {
+        public final String json;
+        public final EntityTag entityTag;
+
+        Snapshot(String json, EntityTag entityTag) {
+            this.json = json;
+            this.entityTag = entityTag;
+        }
+    }
+
+    private final Map<String, Fragment> fragments = new HashMap<>();
+    // The version is seeded with the start time, so that entity tags from before a restart are not reused
+    private long version = System.currentTimeMillis();
+    private @Nullable Snapshot snapshot;
+    private long renderedFragments;
+
+    /**
+     * Returns the serialized lights collection. Only changed lights are serialized again.
+     *
+     * @param lights The hue lights, by hue ID
+     * @param gson The gson instance that serializes a single light
+     */
+    public synchronized Snapshot getAll(Map<String, HueLightEntry> lights, Gson gson) {
+        boolean changed = fragments.keySet().retainAll(lights.keySet());
+        for (Entry<String, HueLightEntry> entry : lights.entrySet()) {
+            changed |= update(entry.getKey(), entry.getValue(), gson);
+        }
+
+        Snapshot snapshot = this.snapshot;
+        if (snapshot != null && !changed) {
+            return snapshot;
+        }
+
+        StringBuilder builder = new StringBuilder(snapshot != null ? snapshot.json.length() + 64 : 1024);
+        builder.append('{');
+        boolean first = true;
+        for (String hueID : lights.keySet()) {
+            Fragment fragment = fragments.get(hueID);
+            if (fragment == null) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            builder.append(new JsonPrimitive(hueID)).append(':').append(fragment.json);
+        }
+        builder.append('}');
+
+        ++version;
+        snapshot = new Snapshot(builder.toString(), new EntityTag(Long.toHexString(version)));
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Returns the serialized light.
+     *
+     * @param hueID The hue ID
+     * @param light The hue light
+     * @param gson The gson instance that serializes a single light
+     */
+    public synchronized String get(String hueID, HueLightEntry light, Gson gson) {
+        update(hueID, light, gson);
+        Fragment fragment = fragments.get(hueID);
+        return fragment != null ? fragment.json : gson.toJson(light);
+    }
+
+    /**
+     * Returns the number of times a light has been serialized, for statistics.
+     */
+    public synchronized long getRenderedFragments() {
+        return renderedFragments;
+    }
+
+    /**
+     * Renders the fragment of a light again if its inputs have changed.
+     *
+     * @return Return true if the fragment has been rendered
+     */
+    private boolean update(String hueID, HueLightEntry light, Gson gson) {
+        Object[] inputs = inputsOf(light);
+        Fragment fragment = fragments.get(hueID);
+        if (fragment != null && sameInputs(fragment.inputs, inputs)) {
+            return false;
+        }
+        fragments.put(hueID, new Fragment(inputs, gson.toJson(light)));
+        ++renderedFragments;
+        return true;
+    }
+
+    /**
+     * Everything the {@link HueLightEntry.Serializer} output depends on. The remaining fields of a light are
+     * constant for the lifetime of the light instance, which is therefore part of the inputs.
+     */
+    private static Object[] inputsOf(HueLightEntry light) {
+        return new @Nullable Object[] { light, light.item, light.item.getState(), light.item.getLabel(),
+                light.lastCommand, light.lastHueChange };
+    }
+
+    private static boolean sameInputs(Object[] a, Object[] b) {
+        // The light, item, command and change objects are compared by identity, states and labels by value
+        return a[0] == b[0] && a[1] == b[1] && Objects.equals(a[2], b[2]) && Objects.equals(a[3], b[3])
+                && a[4] == b[4] && a[5] == b[5];
+    }
+}
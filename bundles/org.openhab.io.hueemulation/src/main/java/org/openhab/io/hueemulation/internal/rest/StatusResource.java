@@ -33,6 +33,7 @@ import org.jupnp.model.meta.RemoteDevice;
 import org.jupnp.registry.Registry;
 import org.jupnp.registry.RegistryListener;
 import org.openhab.io.hueemulation.internal.ConfigStore;
+import org.openhab.io.hueemulation.internal.RequestMetrics;
 import org.openhab.io.hueemulation.internal.upnp.UpnpServer;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -59,6 +60,8 @@ public class StatusResource implements RegistryListener {
     protected @NonNullByDefault({}) ConfigStore cs;
     @Reference
     protected @NonNullByDefault({}) UpnpService upnpService;
+    @Reference
+    protected @NonNullByDefault({}) RequestMetrics requestMetrics;
 
     private enum upnpStatus {
         service_not_registered,
@@ -142,6 +145,9 @@ public class StatusResource implements RegistryListener {
                 "<h2>Reachability test</h2>" + //
                 "<table style='border:1px solid black'><tr><td>URL</td><td>Responds?</td><td>Ours?</td></tr>%s</table>"
                 + //
+                "<h2>Request latency</h2>" + //
+                "<table style='border:1px solid black'><tr><td>Endpoint</td><td>Requests</td><td>Average (&micro;s)</td><td>Max (&micro;s)</td></tr>%s</table>"
+                + //
                 "<h2>Users</h2><ul>%s</ul></body></html>";
 
         String users = cs.ds.config.whitelist.entrySet().stream().map(user -> "<li>" + user.getKey() + " <b>"
@@ -164,6 +170,12 @@ public class StatusResource implements RegistryListener {
             upnps = TR(TD("service not available") + TD(""));
         }
 
+        String latencies = requestMetrics.getEndpoints().entrySet().stream()
+                .map(entry -> TR(TD(entry.getKey()) + TD(String.valueOf(entry.getValue().getRequests()))
+                        + TD(String.valueOf(entry.getValue().getAverageMicros()))
+                        + TD(String.valueOf(entry.getValue().getMaxMicros()))))
+                .collect(Collectors.joining("\n"));
+
         if (!localDiscovery.upnpAnnouncementThreadRunning()) {
             selfTestUpnpFound = upnpStatus.upnp_announcement_thread_not_running;
         }
@@ -172,7 +184,7 @@ public class StatusResource implements RegistryListener {
                 cs.getConfig().temporarilyEmulateV1bridge ? "V1" : "V2", url, url, //
                 cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, //
                 selfTestUpnpFound.name().replace('_', ' '), //
-                upnps, reachable, users);
+                upnps, reachable, latencies, users);
     }
 
     @NonNullByDefault({})
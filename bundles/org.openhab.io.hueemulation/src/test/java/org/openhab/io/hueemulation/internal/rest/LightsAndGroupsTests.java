@@ -20,6 +20,8 @@ import static org.mockito.Mockito.verify;
 import java.io.IOException;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -334,6 +336,51 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsWithEntityTag() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag entityTag = response.getEntityTag();
+        assertThat(entityTag, notNullValue());
+        String body = response.readEntity(String.class);
+
+        // Nothing changed: Not modified
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag).get();
+        assertEquals(304, response.getStatus());
+
+        // The state of a light changed: The light is serialized again and gets a new entity tag
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), not(is(entityTag)));
+        String newBody = response.readEntity(String.class);
+        assertThat(newBody, not(is(body)));
+        assertThat(newBody, is(cs.gson.toJson(cs.ds.lights)));
+    }
+
+    @Test
+    public void lightsCacheOnlyRendersChangedLights() {
+        LightsJsonCache cache = new LightsJsonCache();
+        LightsJsonCache.Snapshot snapshot = cache.getAll(cs.ds.lights, cs.gson);
+        assertThat(cache.getRenderedFragments(), is(3L));
+        assertThat(snapshot.json, is(cs.gson.toJson(cs.ds.lights)));
+
+        assertThat(cache.getAll(cs.ds.lights, cs.gson), is(snapshot));
+        assertThat(cache.getRenderedFragments(), is(3L));
+
+        cs.ds.lights.get("2").item.setLabel("newlabel");
+        LightsJsonCache.Snapshot newSnapshot = cache.getAll(cs.ds.lights, cs.gson);
+        assertThat(cache.getRenderedFragments(), is(4L));
+        assertThat(newSnapshot.json, containsString("newlabel"));
+        assertThat(newSnapshot.entityTag, not(is(snapshot.entityTag)));
+
+        cs.ds.lights.remove("3");
+        assertThat(cache.getAll(cs.ds.lights, cs.gson).json, is(cs.gson.toJson(cs.ds.lights)));
+        assertThat(cache.getRenderedFragments(), is(4L));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
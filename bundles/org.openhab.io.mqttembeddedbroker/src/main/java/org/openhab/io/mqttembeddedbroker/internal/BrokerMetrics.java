@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.moquette.broker.subscriptions.Topic;
+import io.moquette.interception.InterceptHandler;
+import io.moquette.interception.messages.InterceptAcknowledgedMessage;
+import io.moquette.interception.messages.InterceptConnectMessage;
+import io.moquette.interception.messages.InterceptConnectionLostMessage;
+import io.moquette.interception.messages.InterceptDisconnectMessage;
+import io.moquette.interception.messages.InterceptPublishMessage;
+import io.moquette.interception.messages.InterceptSubscribeMessage;
+import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+
+/**
+ * Collects broker metrics from the Moquette interceptor callbacks.
+ * <p>
+ * Moquette does not report outgoing messages, so the sent messages are derived from the subscriptions that
+ * match a published topic, using the topic matching of Moquette itself. The subscribers of a topic are looked up
+ * once and cached until a client connects, disconnects or changes its subscriptions. The retained message count is
+ * tracked from retained publishes and can be seeded by the retained message store. Like Moquette, retained messages
+ * with QoS 0 are not counted.
+ * <p>
+ * Client ids are used as $SYS topic levels, the characters "/", "+", "#" and "%" in them are percent-encoded.
+ * <p>
+ * Messages on "$SYS/" topics are not counted, these are the metrics themselves.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class BrokerMetrics implements InterceptHandler {
+    public static final String SYS_TOPIC_PREFIX = "$SYS/broker/";
+    private static final int MAX_CACHED_TOPICS = 10000;
+
+    /**
+     * Counters of a connected client.
+     */
+    private static class ClientMetrics {
+        final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong sent = new AtomicLong();
+    }
+
+    private final Map<String, ClientMetrics> clients = new ConcurrentHashMap<>();
+    private final Map<String, List<ClientMetrics>> subscribersByTopic = new ConcurrentHashMap<>();
+    private final Set<String> retainedTopics = ConcurrentHashMap.newKeySet();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+
+    private long lastSampleTime = System.nanoTime();
+    private long lastReceived;
+    private long lastSent;
+    private double receivedPerSecond;
+    private double sentPerSecond;
+
+    @Override
+    public String getID() {
+        return "metrics";
+    }
+
+    @Override
+    public Class<?>[] getInterceptedMessageTypes() {
+        return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                InterceptConnectionLostMessage.class, InterceptPublishMessage.class, InterceptSubscribeMessage.class,
+                InterceptUnsubscribeMessage.class };
+    }
+
+    @Override
+    public void onConnect(@Nullable InterceptConnectMessage msg) {
+        if (msg != null) {
+            synchronized (subscribersByTopic) {
+                clients.put(msg.getClientID(), new ClientMetrics());
+                subscribersByTopic.clear();
+            }
+        }
+    }
+
+    @Override
+    public void onDisconnect(@Nullable InterceptDisconnectMessage msg) {
+        if (msg != null) {
+            removeClient(msg.getClientID());
+        }
+    }
+
+    @Override
+    public void onConnectionLost(@Nullable InterceptConnectionLostMessage msg) {
+        if (msg != null) {
+            removeClient(msg.getClientID());
+        }
+    }
+
+    private void removeClient(String clientID) {
+        synchronized (subscribersByTopic) {
+            clients.remove(clientID);
+            subscribersByTopic.clear();
+        }
+    }
+
+    @Override
+    public void onPublish(@Nullable InterceptPublishMessage msg) {
+        if (msg == null) {
+            return;
+        }
+        final String topic = msg.getTopicName();
+        if (topic.startsWith("$SYS/")) {
+            return;
+        }
+        received.incrementAndGet();
+        @Nullable
+        ClientMetrics publisher = clients.get(msg.getClientID());
+        if (publisher != null) {
+            publisher.received.incrementAndGet();
+        }
+        if (msg.isRetainFlag()) {
+            // Moquette does not retain messages with QoS 0, it removes the retained message of the topic instead
+            if (msg.getQos().value() == 0 || msg.getPayload().readableBytes() == 0) {
+                retainedTopics.remove(topic);
+            } else {
+                retainedTopics.add(topic);
+            }
+        }
+        for (ClientMetrics client : getSubscribers(topic)) {
+            client.sent.incrementAndGet();
+            sent.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the clients with a subscription matching the topic.
+     */
+    private List<ClientMetrics> getSubscribers(String topic) {
+        @Nullable
+        List<ClientMetrics> subscribers = subscribersByTopic.get(topic);
+        if (subscribers != null) {
+            return subscribers;
+        }
+        synchronized (subscribersByTopic) {
+            Topic publishedTopic = Topic.asTopic(topic);
+            List<ClientMetrics> matching = new ArrayList<>();
+            for (ClientMetrics client : clients.values()) {
+                if (client.subscriptions.stream().anyMatch(filter -> publishedTopic.match(Topic.asTopic(filter)))) {
+                    matching.add(client);
+                }
+            }
+            if (subscribersByTopic.size() >= MAX_CACHED_TOPICS) {
+                subscribersByTopic.clear();
+            }
+            subscribersByTopic.put(topic, matching);
+            return matching;
+        }
+    }
+
+    @Override
+    public void onSubscribe(@Nullable InterceptSubscribeMessage msg) {
+        if (msg != null) {
+            synchronized (subscribersByTopic) {
+                ClientMetrics client = clients.computeIfAbsent(msg.getClientID(), id -> new ClientMetrics());
+                client.subscriptions.add(msg.getTopicFilter());
+                subscribersByTopic.clear();
+            }
+        }
+    }
+
+    @Override
+    public void onUnsubscribe(@Nullable InterceptUnsubscribeMessage msg) {
+        if (msg != null) {
+            synchronized (subscribersByTopic) {
+                @Nullable
+                ClientMetrics client = clients.get(msg.getClientID());
+                if (client != null) {
+                    client.subscriptions.remove(msg.getTopicFilter());
+                }
+                subscribersByTopic.clear();
+            }
+        }
+    }
+
+    @Override
+    public void onMessageAcknowledged(@Nullable InterceptAcknowledgedMessage msg) {
+    }
+
+    /**
+     * Adds a retained topic that is known before the broker started, for example restored from a persistence file.
+     *
+     * @param topic The topic
+     */
+    public void addRetainedTopic(String topic) {
+        retainedTopics.add(topic);
+    }
+
+    /**
+     * Computes the message rates since the last call.
+     */
+    public synchronized void sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastSampleTime) / 1e9;
+        long received = this.received.get();
+        long sent = this.sent.get();
+        if (seconds > 0) {
+            receivedPerSecond = (received - lastReceived) / seconds;
+            sentPerSecond = (sent - lastSent) / seconds;
+        }
+        lastSampleTime = now;
+        lastReceived = received;
+        lastSent = sent;
+    }
+
+    /**
+     * Returns the metrics as $SYS topics and values, as computed by the last {@link #sample()} call.
+     */
+    public synchronized Map<String, String> getValues() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(SYS_TOPIC_PREFIX + "messages/received", Long.toString(received.get()));
+        values.put(SYS_TOPIC_PREFIX + "messages/sent", Long.toString(sent.get()));
+        values.put(SYS_TOPIC_PREFIX + "load/messages/received/persecond",
+                String.format(Locale.ROOT, "%.2f", receivedPerSecond));
+        values.put(SYS_TOPIC_PREFIX + "load/messages/sent/persecond",
+                String.format(Locale.ROOT, "%.2f", sentPerSecond));
+        values.put(SYS_TOPIC_PREFIX + "retained messages/count", Integer.toString(retainedTopics.size()));
+        values.put(SYS_TOPIC_PREFIX + "clients/connected", Integer.toString(clients.size()));
+        clients.forEach((id, client) -> {
+            String clientTopic = SYS_TOPIC_PREFIX + "clients/" + escapeTopicLevel(id);
+            values.put(clientTopic + "/subscriptions", Integer.toString(client.subscriptions.size()));
+            values.put(clientTopic + "/messages/received", Long.toString(client.received.get()));
+            values.put(clientTopic + "/messages/sent", Long.toString(client.sent.get()));
+        });
+        return values;
+    }
+
+    /**
+     * Returns the text as a single topic level by percent-encoding the level separator, the wildcards and the
+     * percent sign itself.
+     *
+     * @param text A text, for example a client id
+     */
+    static String escapeTopicLevel(String text) {
+        StringBuilder level = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '/':
+                case '+':
+                case '#':
+                case '%':
+                    level.append(String.format(Locale.ROOT, "%%%02X", (int) c));
+                    break;
+                default:
+                    level.append(c);
+                    break;
+            }
+        }
+        return level.toString();
+    }
+}
@@ -15,9 +15,11 @@ package org.openhab.io.mqttembeddedbroker.internal;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -26,6 +28,7 @@ import java.security.cert.CertificateException;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -67,6 +70,11 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttPublishMessage;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -76,6 +84,10 @@ import io.netty.handler.ssl.SslContextBuilder;
  * <p>
  * For now tls connections are offered with an accept-all trust manager
  * and a predefined keystore if "secure" is set to true.
+ * <p>
+ * Retained messages are either persisted by Moquette itself or, in the "log" persistence mode,
+ * by a {@link RetainedMessageLog} that is replayed into the in-memory broker on startup.
+ * Broker metrics are published on "$SYS/broker/..." topics.
  *
  * @author David Graeff - Initial contribution
  */
@@ -89,6 +101,8 @@ public class EmbeddedBrokerService
         implements MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
     private final MqttService service;
     private String persistenceFilename = "";
+    private String persistenceMode = ServiceConfiguration.PERSISTENCE_MODE_STORE;
+    private int metricsInterval = 0;
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
     @NonNullByDefault({})
@@ -135,10 +149,78 @@ public class EmbeddedBrokerService
         }
     }
 
+    /**
+     * Appends retained publishes to the {@link RetainedMessageLog}. Moquette drops retained messages with QoS 0,
+     * those are removed from the log as well.
+     */
+    @NonNullByDefault({})
+    class RetainedMessageLogListenerEx implements InterceptHandler {
+        private final RetainedMessageLog log;
+
+        RetainedMessageLogListenerEx(RetainedMessageLog log) {
+            this.log = log;
+        }
+
+        @Override
+        public String getID() {
+            return "retainedlog";
+        }
+
+        @Override
+        public Class<?>[] getInterceptedMessageTypes() {
+            return new Class<?>[] { InterceptPublishMessage.class };
+        }
+
+        @Override
+        public void onConnect(InterceptConnectMessage arg0) {
+        }
+
+        @Override
+        public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+        }
+
+        @Override
+        public void onDisconnect(InterceptDisconnectMessage arg0) {
+        }
+
+        @Override
+        public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
+        }
+
+        @Override
+        public void onPublish(InterceptPublishMessage msg) {
+            if (!msg.isRetainFlag() || msg.getTopicName().startsWith("$SYS/")) {
+                return;
+            }
+            final int qos = msg.getQos().value();
+            final ByteBuf payload = msg.getPayload();
+            final byte[] bytes = new byte[qos == 0 ? 0 : payload.readableBytes()];
+            // The buffer is shared with other intercept handlers: Do not move the reader index
+            payload.getBytes(payload.readerIndex(), bytes);
+            try {
+                log.put(msg.getTopicName(), qos, bytes);
+            } catch (IOException e) {
+                logger.warn("Failed to store retained message of {}", msg.getTopicName(), e);
+            }
+        }
+
+        @Override
+        public void onSubscribe(InterceptSubscribeMessage arg0) {
+        }
+
+        @Override
+        public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+        }
+    }
+
     protected @Nullable Server server;
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
     protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    protected BrokerMetrics brokerMetrics = new BrokerMetrics();
+    private @Nullable RetainedMessageLog retainedMessageLog;
+    private @Nullable RetainedMessageLogListenerEx retainedMessageLogListener;
+    private @Nullable ScheduledExecutorService maintenanceScheduler;
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -174,16 +256,24 @@ public class EmbeddedBrokerService
             connection.setCredentials(config.username, config.password);
         }
 
+        persistenceMode = config.persistenceMode;
+        metricsInterval = config.metricsInterval;
         if (!config.persistenceFile.isEmpty()) {
-            final String persistenceFilename = config.persistenceFile;
+            final String persistenceFilename = ServiceConfiguration.PERSISTENCE_MODE_LOG.equals(persistenceMode)
+                    && ServiceConfiguration.DEFAULT_PERSISTENCE_FILE.equals(config.persistenceFile)
+                            ? ServiceConfiguration.DEFAULT_LOG_PERSISTENCE_FILE
+                            : config.persistenceFile;
             if (!Paths.get(persistenceFilename).isAbsolute()) {
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {} ({})", this.persistenceFilename, persistenceMode);
         } else {
+            this.persistenceFilename = "";
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
 
@@ -202,6 +292,7 @@ public class EmbeddedBrokerService
                 server.stopServer();
             }
             server = null;
+            stopMaintenance();
             return;
         }
 
@@ -217,6 +308,7 @@ public class EmbeddedBrokerService
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             logger.warn("Could not cleanly shutdown connection or server.", e);
         }
+        stopMaintenance();
         connection = null;
     }
 
@@ -292,7 +384,14 @@ public class EmbeddedBrokerService
             logger.debug("Broker anonymous access enabled");
         }
 
-        if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
+        @Nullable
+        RetainedMessageLog retainedMessageLog = null;
+        if (!persistenceFilename.isEmpty() && ServiceConfiguration.PERSISTENCE_MODE_LOG.equals(persistenceMode)) {
+            // Moquette runs in-memory, the retained messages are restored from the log after the start
+            retainedMessageLog = openRetainedMessageLog(Paths.get(persistenceFilename));
+            // A single intercept thread, so that retained publishes of a topic are logged in order
+            properties.put("intercept.thread_pool.size", "1");
+        } else if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
             properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
         }
@@ -314,18 +413,159 @@ public class EmbeddedBrokerService
         }
         this.server = server;
         server.addInterceptHandler(metrics);
+        brokerMetrics = new BrokerMetrics();
+        if (metricsInterval > 0) {
+            server.addInterceptHandler(brokerMetrics);
+        }
+        if (retainedMessageLog != null) {
+            restoreRetainedMessages(server, retainedMessageLog);
+            RetainedMessageLogListenerEx listener = new RetainedMessageLogListenerEx(retainedMessageLog);
+            server.addInterceptHandler(listener);
+            this.retainedMessageLog = retainedMessageLog;
+            this.retainedMessageLogListener = listener;
+        }
+        startMaintenance(server);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
     }
 
+    private RetainedMessageLog openRetainedMessageLog(Path path) throws IOException {
+        try {
+            return new RetainedMessageLog(path);
+        } catch (IOException e) {
+            if (!Files.exists(path)) {
+                throw e;
+            }
+            Path corruptPath = path.resolveSibling(path.getFileName() + ".corrupt");
+            logger.warn("persistence corrupt: {}, moving it to {}", e.getMessage(), corruptPath);
+            Files.move(path, corruptPath, StandardCopyOption.REPLACE_EXISTING);
+            return new RetainedMessageLog(path);
+        }
+    }
+
+    private void restoreRetainedMessages(Server server, RetainedMessageLog retainedMessageLog) throws IOException {
+        long start = System.nanoTime();
+        retainedMessageLog.forEach((topic, qos, payload) -> {
+            brokerMetrics.addRetainedTopic(topic);
+            server.internalPublish(createMessage(topic, MqttQoS.valueOf(qos), true, payload), Constants.CLIENTID);
+        });
+        logger.debug("Restored {} retained messages in {} ms", retainedMessageLog.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static MqttPublishMessage createMessage(String topic, MqttQoS qos, boolean retained, byte[] payload) {
+        return MqttMessageBuilders.publish().topicName(topic).qos(qos).retained(retained)
+                .payload(Unpooled.wrappedBuffer(payload)).build();
+    }
+
+    /**
+     * Periodically publishes the broker metrics and flushes and compacts the retained message log.
+     */
+    private void startMaintenance(Server server) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        maintenanceScheduler = scheduler;
+        if (metricsInterval > 0) {
+            scheduler.scheduleWithFixedDelay(() -> publishMetrics(server), metricsInterval, metricsInterval,
+                    TimeUnit.SECONDS);
+        }
+        final RetainedMessageLog retainedMessageLog = this.retainedMessageLog;
+        if (retainedMessageLog != null) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    retainedMessageLog.flush();
+                } catch (IOException e) {
+                    logger.warn("Failed to flush the retained message log: {}", e.getMessage());
+                }
+                if (retainedMessageLog.needsCompaction()) {
+                    compactRetainedMessageLog(retainedMessageLog);
+                }
+            }, 5, 5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void stopMaintenance() {
+        ScheduledExecutorService scheduler = maintenanceScheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            maintenanceScheduler = null;
+        }
+        RetainedMessageLog retainedMessageLog = this.retainedMessageLog;
+        if (retainedMessageLog != null) {
+            try {
+                retainedMessageLog.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the retained message log", e);
+            }
+            this.retainedMessageLog = null;
+        }
+    }
+
+    private void publishMetrics(Server server) {
+        brokerMetrics.sample();
+        brokerMetrics.getValues().forEach((topic, value) -> server.internalPublish(
+                createMessage(topic, MqttQoS.AT_MOST_ONCE, false, value.getBytes(StandardCharsets.UTF_8)),
+                Constants.CLIENTID));
+    }
+
+    private boolean compactRetainedMessageLog(RetainedMessageLog retainedMessageLog) {
+        int before = retainedMessageLog.getUsedBytes();
+        try {
+            retainedMessageLog.compact();
+            logger.debug("Compacted the retained message log from {} to {} bytes", before,
+                    retainedMessageLog.getUsedBytes());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to compact the retained message log", e);
+            return false;
+        }
+    }
+
+    /**
+     * Compacts the retained message log, if the "log" persistence mode is used.
+     *
+     * @return True if the log has been compacted
+     */
+    public boolean compactRetainedMessages() {
+        final RetainedMessageLog retainedMessageLog = this.retainedMessageLog;
+        return retainedMessageLog != null && compactRetainedMessageLog(retainedMessageLog);
+    }
+
+    /**
+     * Returns true if broker metrics are collected and published, see the "metricsInterval" configuration.
+     */
+    public boolean isMetricsEnabled() {
+        return metricsInterval > 0;
+    }
+
+    /**
+     * Returns the current broker metrics as $SYS topics and values.
+     */
+    public Map<String, String> getMetrics() {
+        brokerMetrics.sample();
+        Map<String, String> values = brokerMetrics.getValues();
+        final RetainedMessageLog retainedMessageLog = this.retainedMessageLog;
+        if (retainedMessageLog != null) {
+            values.put(BrokerMetrics.SYS_TOPIC_PREFIX + "store/bytes",
+                    Integer.toString(retainedMessageLog.getUsedBytes()));
+        }
+        return values;
+    }
+
     public void stopEmbeddedServer() {
         Server server = this.server;
         if (server != null) {
             server.removeInterceptHandler(metrics);
+            server.removeInterceptHandler(brokerMetrics);
+            RetainedMessageLogListenerEx retainedMessageLogListener = this.retainedMessageLogListener;
+            if (retainedMessageLogListener != null) {
+                server.removeInterceptHandler(retainedMessageLogListener);
+                this.retainedMessageLogListener = null;
+            }
             detectStart.stopBrokerStartDetection();
             server.stopServer();
             this.server = null;
         }
+        stopMaintenance();
     }
 
     /**
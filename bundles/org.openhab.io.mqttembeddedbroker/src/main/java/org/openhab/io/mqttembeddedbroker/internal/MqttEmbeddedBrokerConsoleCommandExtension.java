@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link MqttEmbeddedBrokerConsoleCommandExtension} shows the broker metrics and compacts the retained
+ * message log on request.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class MqttEmbeddedBrokerConsoleCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String METRICS = "metrics";
+    private static final String COMPACT = "compact";
+
+    private final EmbeddedBrokerService brokerService;
+
+    @Activate
+    public MqttEmbeddedBrokerConsoleCommandExtension(final @Reference EmbeddedBrokerService brokerService) {
+        super("mqttbroker", "Show the metrics of the embedded MQTT broker.");
+        this.brokerService = brokerService;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1) {
+            printUsage(console);
+            return;
+        }
+        switch (args[0]) {
+            case METRICS:
+                if (!brokerService.isMetricsEnabled()) {
+                    console.println("Broker metrics are disabled, set \"metricsInterval\" to enable them");
+                    break;
+                }
+                brokerService.getMetrics().forEach((topic, value) -> console.println(topic + ": " + value));
+                break;
+            case COMPACT:
+                if (brokerService.compactRetainedMessages()) {
+                    console.println("Retained message log compacted");
+                } else {
+                    console.println("No retained message log to compact, the persistence mode is not \"log\"");
+                }
+                break;
+            default:
+                printUsage(console);
+                break;
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] { buildCommandUsage(METRICS, "show the broker metrics"),
+                buildCommandUsage(COMPACT, "compact the retained message log") });
+    }
+}
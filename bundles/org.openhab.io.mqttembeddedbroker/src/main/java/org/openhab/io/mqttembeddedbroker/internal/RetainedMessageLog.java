@@ -0,0 +1,446 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of retained MQTT messages.
+ * <p>
+ * Every retained publish is appended as a record. A record with an empty payload removes the retained message of
+ * that topic, like in MQTT itself. Only the file offset of the latest record per topic is kept on the heap, payloads
+ * are read from the file when they are needed.
+ * <p>
+ * Each record is protected by a CRC32 checksum and its length is written last. After a crash, the log is read up to
+ * the last complete record and the rest is discarded. Records that have been replaced or removed are dropped by
+ * {@link #compact()}, which writes the live records to a new file and atomically replaces the log.
+ * <p>
+ * The file is accessed with plain channel I/O and is not memory-mapped: A mapped file cannot be replaced on Windows
+ * until the mapping has been garbage collected.
+ * <p>
+ * File layout: A header with magic and version, followed by records of
+ * <code>[int length][int crc32][short topic length][topic][byte qos][payload]</code>.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class RetainedMessageLog implements Closeable {
+    private static final int MAGIC = 0x4F484D52; // "OHMR"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int DEFAULT_MIN_COMPACTION_BYTES = 1024 * 1024;
+
+    /**
+     * Receives the retained messages of the log.
+     */
+    @FunctionalInterface
+    public interface RetainedMessageConsumer {
+        void accept(String topic, int qos, byte[] payload);
+    }
+
+    /**
+     * Position and size of the latest record of a topic.
+     */
+    private static class Entry {
+        final int position;
+        final int size;
+        final int topicLength;
+
+        Entry(int position, int size, int topicLength) {
+            this.position = position;
+            this.size = size;
+            this.topicLength = topicLength;
+        }
+
+        int qosPosition() {
+            return position + RECORD_HEADER_SIZE + 2 + topicLength;
+        }
+
+        int payloadLength() {
+            return size - RECORD_HEADER_SIZE - 2 - topicLength - 1;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RetainedMessageLog.class);
+    private final Path path;
+    private final int minCompactionBytes;
+    private final Map<String, Entry> index = new HashMap<>();
+
+    private @Nullable FileChannel channel;
+    private int writePosition;
+    private long liveBytes;
+    private boolean dirty;
+
+    /**
+     * Opens or creates a log file.
+     *
+     * @param path The log file
+     * @throws IOException If the file cannot be opened or is not a retained message log
+     */
+    public RetainedMessageLog(Path path) throws IOException {
+        this(path, DEFAULT_MIN_COMPACTION_BYTES);
+    }
+
+    /**
+     * Opens or creates a log file.
+     *
+     * @param path The log file
+     * @param minCompactionBytes {@link #needsCompaction()} is only true if at least this many bytes can be freed.
+     * @throws IOException If the file cannot be opened or is not a retained message log
+     */
+    RetainedMessageLog(Path path, int minCompactionBytes) throws IOException {
+        this.path = path;
+        this.minCompactionBytes = minCompactionBytes;
+        open();
+    }
+
+    private void open() throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Retained message log too large: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            if (fileSize == 0) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(channel, header, 0);
+            } else if (channel.read(header, 0) < FILE_HEADER_SIZE || header.getInt(0) != MAGIC
+                    || header.getInt(4) != VERSION) {
+                throw new IOException("Not a retained message log: " + path);
+            }
+            this.channel = channel;
+            scan(channel, (int) Math.max(FILE_HEADER_SIZE, fileSize));
+        } catch (IOException e) {
+            this.channel = null;
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads all records and rebuilds the index. Stops at the first incomplete or corrupt record, which is the tail
+     * written during a crash. That tail is truncated, so that it cannot be mistaken for records later on.
+     */
+    private void scan(FileChannel channel, int fileSize) throws IOException {
+        index.clear();
+        liveBytes = 0;
+        int position = FILE_HEADER_SIZE;
+        final ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        final CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= fileSize) {
+            recordHeader.clear();
+            readFully(channel, recordHeader, position);
+            int length = recordHeader.getInt(0);
+            if (length == 0) {
+                break;
+            }
+            if (length < 3 || length > fileSize - position - RECORD_HEADER_SIZE) {
+                logger.warn("Retained message log {} is truncated at {}", path, position);
+                break;
+            }
+            byte[] body = read(channel, position + RECORD_HEADER_SIZE, length);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != recordHeader.getInt(4)) {
+                logger.warn("Retained message log {} has a corrupt record at {}", path, position);
+                break;
+            }
+            int topicLength = ((body[0] & 0xFF) << 8) | (body[1] & 0xFF);
+            String topic = new String(body, 2, topicLength, StandardCharsets.UTF_8);
+            index(topic, new Entry(position, RECORD_HEADER_SIZE + length, topicLength));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (position < fileSize) {
+            channel.truncate(position);
+            dirty = true;
+        }
+        writePosition = position;
+    }
+
+    private void index(String topic, Entry entry) {
+        boolean live = entry.payloadLength() > 0;
+        Entry previous = live ? index.put(topic, entry) : index.remove(topic);
+        if (previous != null) {
+            liveBytes -= previous.size;
+        }
+        if (live) {
+            liveBytes += entry.size;
+        }
+    }
+
+    /**
+     * Stores the retained message of a topic. An empty payload removes the retained message. Nothing is written if
+     * the log already contains the same message.
+     *
+     * @param topic The topic
+     * @param qos The quality of service of the message
+     * @param payload The payload
+     * @throws IOException If the record cannot be written
+     */
+    public synchronized void put(String topic, int qos, byte[] payload) throws IOException {
+        FileChannel channel = ensureOpen();
+        Entry entry = index.get(topic);
+        if (entry == null ? payload.length == 0 : isSameMessage(channel, entry, qos, payload)) {
+            return;
+        }
+
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        if (topicBytes.length > 0xFFFF) {
+            throw new IOException("Topic too long: " + topic);
+        }
+        int length = 2 + topicBytes.length + 1 + payload.length;
+        if ((long) writePosition + RECORD_HEADER_SIZE + length > Integer.MAX_VALUE) {
+            throw new IOException("Retained message log is full: " + path);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+        record.position(RECORD_HEADER_SIZE);
+        record.putShort((short) topicBytes.length);
+        record.put(topicBytes);
+        record.put((byte) qos);
+        record.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, length);
+        record.putInt(4, (int) crc.getValue());
+
+        // The length is written last: A record is only valid once it is complete
+        record.position(4);
+        writeFully(channel, record, writePosition + 4);
+        ByteBuffer lengthField = ByteBuffer.allocate(4);
+        lengthField.putInt(0, length);
+        writeFully(channel, lengthField, writePosition);
+
+        index(topic, new Entry(writePosition, RECORD_HEADER_SIZE + length, topicBytes.length));
+        writePosition += RECORD_HEADER_SIZE + length;
+        dirty = true;
+    }
+
+    private boolean isSameMessage(FileChannel channel, Entry entry, int qos, byte[] payload) throws IOException {
+        if (entry.payloadLength() != payload.length) {
+            return false;
+        }
+        byte[] stored = read(channel, entry.qosPosition(), 1 + payload.length);
+        return stored[0] == qos && Arrays.equals(Arrays.copyOfRange(stored, 1, stored.length), payload);
+    }
+
+    private FileChannel ensureOpen() throws IOException {
+        FileChannel channel = this.channel;
+        if (channel == null) {
+            throw new IOException("Retained message log is closed: " + path);
+        }
+        return channel;
+    }
+
+    private static byte[] read(FileChannel channel, int position, int length) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(length);
+        readFully(channel, data, position);
+        return data.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            if (channel.read(data, position + data.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        int start = data.position();
+        while (data.hasRemaining()) {
+            channel.write(data, position + data.position() - start);
+        }
+    }
+
+    /**
+     * Returns the payload of the retained message of a topic or null if there is none.
+     *
+     * @param topic The topic
+     * @throws IOException If the payload cannot be read
+     */
+    public synchronized byte @Nullable [] get(String topic) throws IOException {
+        FileChannel channel = this.channel;
+        Entry entry = index.get(topic);
+        if (channel == null || entry == null) {
+            return null;
+        }
+        return read(channel, entry.qosPosition() + 1, entry.payloadLength());
+    }
+
+    /**
+     * Passes all retained messages to the consumer, in the order they have been stored. The messages are read
+     * before the consumer is called, so it may use the log.
+     *
+     * @param consumer The consumer
+     * @throws IOException If the messages cannot be read
+     */
+    public void forEach(RetainedMessageConsumer consumer) throws IOException {
+        List<String> topics = new ArrayList<>();
+        List<byte[]> records = new ArrayList<>();
+        synchronized (this) {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                return;
+            }
+            List<Map.Entry<String, Entry>> entries = new ArrayList<>(index.entrySet());
+            entries.sort(Comparator.comparingInt(e -> e.getValue().position));
+            for (Map.Entry<String, Entry> e : entries) {
+                Entry entry = e.getValue();
+                topics.add(e.getKey());
+                records.add(read(channel, entry.qosPosition(), 1 + entry.payloadLength()));
+            }
+        }
+        for (int i = 0; i < topics.size(); i++) {
+            byte[] record = records.get(i);
+            consumer.accept(topics.get(i), record[0], Arrays.copyOfRange(record, 1, record.length));
+        }
+    }
+
+    /**
+     * Returns the number of retained messages.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of bytes used by the log, including records that have been replaced or removed.
+     */
+    public synchronized int getUsedBytes() {
+        return writePosition;
+    }
+
+    /**
+     * Returns true if more than half of the log consists of replaced or removed records.
+     */
+    public synchronized boolean needsCompaction() {
+        long deadBytes = writePosition - FILE_HEADER_SIZE - liveBytes;
+        return deadBytes >= minCompactionBytes && deadBytes > liveBytes;
+    }
+
+    /**
+     * Writes the appended records to the storage device.
+     *
+     * @throws IOException If the records cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        FileChannel channel = this.channel;
+        if (channel != null && dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Rewrites the log with only the current retained messages. The new log is written to a temporary file first,
+     * which atomically replaces the log. If this process is interrupted or fails, the old log stays intact and open,
+     * and the temporary file is removed.
+     *
+     * @throws IOException If the new log cannot be written or cannot replace the old log
+     */
+    public synchronized void compact() throws IOException {
+        FileChannel channel = ensureOpen();
+        Path compactPath = path.resolveSibling(path.getFileName() + ".compact");
+        List<Entry> entries = new ArrayList<>(index.values());
+        entries.sort(Comparator.comparingInt(e -> e.position));
+
+        try (FileChannel target = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(target, header, 0);
+            target.position(FILE_HEADER_SIZE);
+            long targetPosition = FILE_HEADER_SIZE;
+            for (Entry entry : entries) {
+                long transferred = 0;
+                while (transferred < entry.size) {
+                    transferred += channel.transferTo(entry.position + transferred, entry.size - transferred,
+                            target);
+                }
+                targetPosition += entry.size;
+            }
+            if (target.position() != targetPosition) {
+                throw new IOException("Incomplete compaction of retained message log: " + path);
+            }
+            target.force(true);
+        } catch (IOException e) {
+            deleteCompactFile(compactPath);
+            throw e;
+        }
+
+        close();
+        try {
+            Files.move(compactPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteCompactFile(compactPath);
+            // The old log has not been replaced, continue with it
+            try {
+                open();
+            } catch (IOException reopenException) {
+                e.addSuppressed(reopenException);
+            }
+            throw e;
+        }
+        open();
+    }
+
+    private void deleteCompactFile(Path compactPath) {
+        try {
+            Files.deleteIfExists(compactPath);
+        } catch (IOException e) {
+            logger.warn("Failed to remove temporary retained message log {}", compactPath, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                if (dirty) {
+                    channel.force(false);
+                    dirty = false;
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -22,9 +22,20 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class ServiceConfiguration {
+    /** Retained messages are stored by Moquette in its H2 store file */
+    public static final String PERSISTENCE_MODE_STORE = "store";
+    /** Retained messages are stored in an append-only {@link RetainedMessageLog} */
+    public static final String PERSISTENCE_MODE_LOG = "log";
+    /** The default persistence file of the "store" mode */
+    public static final String DEFAULT_PERSISTENCE_FILE = "mqttembedded.bin";
+    /** Used instead of the default persistence file in the "log" mode, which cannot read a Moquette store */
+    public static final String DEFAULT_LOG_PERSISTENCE_FILE = "mqttembedded.log";
+
     public @Nullable Integer port;
     public Boolean secure = false;
-    public String persistenceFile = "mqttembedded.bin";
+    public String persistenceFile = DEFAULT_PERSISTENCE_FILE;
+    public String persistenceMode = PERSISTENCE_MODE_STORE;
+    public int metricsInterval = 0;
 
     public @Nullable String username;
     public @Nullable String password;
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import io.moquette.interception.messages.InterceptPublishMessage;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttQoS;
+
+/**
+ * Tests the {@link BrokerMetrics}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class BrokerMetricsTest {
+    private static final String RETAINED_COUNT = BrokerMetrics.SYS_TOPIC_PREFIX + "retained messages/count";
+
+    private static InterceptPublishMessage retained(String topic, MqttQoS qos, String payload) {
+        return new InterceptPublishMessage(MqttMessageBuilders.publish().topicName(topic).qos(qos).retained(true)
+                .payload(Unpooled.wrappedBuffer(payload.getBytes())).build(), "client", "user");
+    }
+
+    @Test
+    public void retainedMessagesWithQos0AreNotCounted() {
+        BrokerMetrics metrics = new BrokerMetrics();
+        metrics.onPublish(retained("a", MqttQoS.AT_LEAST_ONCE, "1"));
+        metrics.onPublish(retained("b", MqttQoS.AT_MOST_ONCE, "2"));
+        assertThat(metrics.getValues().get(RETAINED_COUNT), is("1"));
+
+        // A retained message with QoS 0 removes the retained message of the topic
+        metrics.onPublish(retained("a", MqttQoS.AT_MOST_ONCE, "3"));
+        assertThat(metrics.getValues().get(RETAINED_COUNT), is("0"));
+    }
+
+    @Test
+    public void clientIdIsOneTopicLevel() {
+        assertThat(BrokerMetrics.escapeTopicLevel("openHAB"), is("openHAB"));
+        assertThat(BrokerMetrics.escapeTopicLevel("a/b+c#d%e"), is("a%2Fb%2Bc%23d%25e"));
+    }
+}
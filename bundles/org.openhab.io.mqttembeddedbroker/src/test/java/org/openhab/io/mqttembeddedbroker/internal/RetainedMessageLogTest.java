@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link RetainedMessageLog}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class RetainedMessageLogTest {
+    private Path directory;
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("retainedlog");
+        path = directory.resolve("retained.log");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    private List<String> readAll(RetainedMessageLog log) throws IOException {
+        List<String> messages = new ArrayList<>();
+        log.forEach((topic, qos, payload) -> messages.add(topic + "=" + new String(payload) + "@" + qos));
+        return messages;
+    }
+
+    @Test
+    public void restoresAfterReopen() throws IOException {
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            log.put("a", 1, "1".getBytes());
+            log.put("b", 2, "2".getBytes());
+            log.put("a", 1, "3".getBytes());
+            log.put("c", 1, "4".getBytes());
+            // An empty payload removes the retained message
+            log.put("c", 1, new byte[0]);
+        }
+
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            assertThat(log.size(), is(2));
+            assertThat(new String(log.get("a")), is("3"));
+            assertNull(log.get("c"));
+            assertThat(readAll(log), is(Arrays.asList("b=2@2", "a=3@1")));
+        }
+    }
+
+    @Test
+    public void identicalMessageIsNotAppended() throws IOException {
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            log.put("a", 1, "1".getBytes());
+            int usedBytes = log.getUsedBytes();
+            log.put("a", 1, "1".getBytes());
+            log.put("b", 1, new byte[0]);
+            assertThat(log.getUsedBytes(), is(usedBytes));
+
+            log.put("a", 2, "1".getBytes());
+            assertTrue(log.getUsedBytes() > usedBytes);
+        }
+    }
+
+    @Test
+    public void compactionKeepsCurrentMessages() throws IOException {
+        try (RetainedMessageLog log = new RetainedMessageLog(path, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                log.put("topic/" + (i % 10), 1, ("value" + i).getBytes());
+            }
+            assertTrue(log.needsCompaction());
+            int usedBytes = log.getUsedBytes();
+
+            log.compact();
+
+            assertFalse(log.needsCompaction());
+            assertTrue(log.getUsedBytes() < usedBytes / 50);
+            assertThat(log.size(), is(10));
+            assertThat(new String(log.get("topic/3")), is("value993"));
+
+            // The log can still be appended after compaction
+            log.put("topic/3", 1, "new".getBytes());
+        }
+
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            assertThat(log.size(), is(10));
+            assertThat(new String(log.get("topic/3")), is("new"));
+        }
+        assertFalse(Files.exists(directory.resolve("retained.log.compact")));
+    }
+
+    @Test
+    public void failedCompactionKeepsLogOpen() throws IOException {
+        Path compactPath = directory.resolve("retained.log.compact");
+        try (RetainedMessageLog log = new RetainedMessageLog(path, 0)) {
+            log.put("a", 1, "1".getBytes());
+            // The temporary file cannot be written if a directory is in its place
+            Files.createDirectory(compactPath);
+            try {
+                log.compact();
+                fail("Compaction should fail");
+            } catch (IOException e) {
+                // expected
+            }
+            assertFalse(Files.exists(compactPath));
+
+            log.put("b", 1, "2".getBytes());
+            assertThat(readAll(log), is(Arrays.asList("a=1@1", "b=2@1")));
+        }
+    }
+
+    @Test
+    public void storesLargePayloads() throws IOException {
+        byte[] payload = new byte[10000];
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            for (int i = 0; i < 100; i++) {
+                payload[0] = (byte) i;
+                log.put("topic/" + i, 1, payload);
+            }
+        }
+
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            assertThat(log.size(), is(100));
+            assertThat(log.get("topic/99")[0], is((byte) 99));
+        }
+    }
+
+    @Test
+    public void incompleteRecordIsDiscarded() throws IOException {
+        int usedBytes;
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            log.put("a", 1, "1".getBytes());
+            log.put("b", 1, "2".getBytes());
+            usedBytes = log.getUsedBytes();
+        }
+
+        // Simulate a crash while a record was written: A length without a matching checksum
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(12);
+            record.putInt(20).putInt(12345).putInt(0x00016300).flip();
+            channel.write(record, usedBytes);
+        }
+
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            assertThat(log.size(), is(2));
+            assertThat(log.getUsedBytes(), is(usedBytes));
+            log.put("c", 1, "3".getBytes());
+        }
+
+        try (RetainedMessageLog log = new RetainedMessageLog(path)) {
+            assertThat(readAll(log), is(Arrays.asList("a=1@1", "b=2@1", "c=3@1")));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFileIsRejected() throws IOException {
+        Files.write(path, "not a log file".getBytes());
+        new RetainedMessageLog(path).close();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class keeps the byte arrays of response chunks which have been flushed to the openHAB Cloud for reuse.
+ * Socket.IO sends a binary attachment as a whole, so an array is only reused for a chunk of exactly its size.
+ * At most maxPooledBytes are kept, further arrays are left to the garbage collector.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+class ChunkBufferPool {
+    private final Map<Integer, Deque<byte[]>> buffers = new HashMap<>();
+    private final int maxPooledBytes;
+    private int pooledBytes;
+
+    ChunkBufferPool(int maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /**
+     * Returns an array of the given size, either a pooled or a new one
+     */
+    synchronized byte[] acquire(int size) {
+        Deque<byte[]> sameSize = buffers.get(size);
+        if (sameSize != null) {
+            byte[] buffer = sameSize.poll();
+            if (sameSize.isEmpty()) {
+                buffers.remove(size);
+            }
+            if (buffer != null) {
+                pooledBytes -= size;
+                return buffer;
+            }
+        }
+        return new byte[size];
+    }
+
+    /**
+     * Returns an array to the pool, the caller must not use it afterwards
+     */
+    synchronized void release(byte[] buffer) {
+        if (buffer.length == 0 || pooledBytes + buffer.length > maxPooledBytes) {
+            return;
+        }
+        buffers.computeIfAbsent(buffer.length, size -> new ArrayDeque<>()).push(buffer);
+        pooledBytes += buffer.length;
+    }
+
+    /**
+     * Returns the number of bytes currently kept for reuse
+     */
+    synchronized int getPooledBytes() {
+        return pooledBytes;
+    }
+}
@@ -19,19 +19,22 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.api.Request.FailureListener;
 import org.eclipse.jetty.client.api.Response;
-import org.eclipse.jetty.client.api.Response.ContentListener;
+import org.eclipse.jetty.client.api.Response.AsyncContentListener;
 import org.eclipse.jetty.client.api.Response.HeadersListener;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BytesContentProvider;
@@ -39,7 +42,7 @@ import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.URIUtil;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.json.JSONException;
@@ -53,6 +56,7 @@ import io.socket.client.Manager;
 import io.socket.client.Socket;
 import io.socket.emitter.Emitter;
 import io.socket.engineio.client.Transport;
+import io.socket.thread.EventThread;
 
 /**
  * This class provides communication between openHAB and the openHAB Cloud service.
@@ -67,6 +71,17 @@ import io.socket.engineio.client.Transport;
  */
 
 public class CloudClient {
+    /*
+     * The maximum number of response bytes of a single request that have been read from openHAB but not yet been
+     * flushed to the openHAB Cloud. If more bytes are in flight, no more content is read from openHAB.
+     */
+    private static final int MAX_IN_FLIGHT_BYTES_PER_REQUEST = 256 * 1024;
+
+    /*
+     * The maximum number of bytes of flushed response chunks that are kept for reuse
+     */
+    private static final int MAX_POOLED_CHUNK_BYTES = 1024 * 1024;
+
     /*
      * Logger for this class
      */
@@ -98,9 +113,27 @@ public class CloudClient {
     private final HttpClient jettyClient;
 
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This map holds HTTP requests to local openHAB which are currently running
+     */
+    private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
+
+    /*
+     * These counters hold statistics about the requests proxied to local openHAB
      */
-    private Map<Integer, Request> runningRequests;
+    private final AtomicLong proxiedRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong proxiedBytes = new AtomicLong();
+
+    /*
+     * This pool holds the byte arrays of flushed response chunks for reuse
+     */
+    private final ChunkBufferPool chunkBufferPool = new ChunkBufferPool(MAX_POOLED_CHUNK_BYTES);
+
+    /*
+     * This queue holds the response chunks which have been emitted but not yet been flushed by the engine.io
+     * transport. It is only accessed by the Socket.IO event thread.
+     */
+    private final Deque<UnflushedChunk> unflushedChunks = new ArrayDeque<>();
 
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
@@ -147,7 +180,6 @@ public class CloudClient {
         this.localBaseUrl = localBaseUrl;
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
-        runningRequests = new HashMap<>();
         this.jettyClient = httpClient;
     }
 
@@ -170,6 +202,18 @@ public class CloudClient {
             public void call(Object... args) {
                 logger.trace("Manager.EVENT_TRANSPORT");
                 Transport transport = (Transport) args[0];
+                transport.on(Transport.EVENT_DRAIN, new Emitter.Listener() {
+                    @Override
+                    public void call(Object... args) {
+                        // The engine.io socket registers its drain listener after this one and flushes its
+                        // remaining write buffer in it, so check the transport after all listeners have run
+                        EventThread.nextTick(() -> {
+                            if (transport.writable) {
+                                chunksFlushed(true);
+                            }
+                        });
+                    }
+                });
                 transport.on(Transport.EVENT_REQUEST_HEADERS, new Emitter.Listener() {
                     @Override
                     public void call(Object... args) {
@@ -197,6 +241,8 @@ public class CloudClient {
             public void call(Object... args) {
                 logger.debug("Socket.IO disconnected");
                 isConnected = false;
+                // Socket.IO may still hold the unflushed chunks to send them after reconnecting, do not reuse them
+                chunksFlushed(false);
                 onDisconnect();
             }
         }).on(Socket.EVENT_ERROR, new Emitter.Listener() {
@@ -241,10 +287,11 @@ public class CloudClient {
         logger.info("Disconnected from the openHAB Cloud service (UUID = {}, base URL = {})", this.uuid,
                 this.localBaseUrl);
         isConnected = false;
-        // And clean up the list of running requests
-        if (runningRequests != null) {
-            runningRequests.clear();
+        // And abort the running requests, their responses cannot be delivered anymore
+        for (Request request : runningRequests.values()) {
+            request.abort(new InterruptedException());
         }
+        runningRequests.clear();
     }
 
     /**
@@ -334,11 +381,12 @@ public class CloudClient {
                 logger.warn("Unsupported request method {}", requestMethod);
                 return;
             }
-            ResponseListener listener = new ResponseListener(requestId);
-            request.onResponseHeaders(listener).onResponseContent(listener).onRequestFailure(listener).send(listener);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
+            ResponseListener listener = new ResponseListener(requestId, requestMethod, requestPath);
+            // Add the request to the list of currently running requests before it is sent, to be able
+            // to cancel it if needed. The response might complete before send() returns.
             runningRequests.put(requestId, request);
+            request.onResponseHeaders(listener).onResponseContentAsync(listener).onRequestFailure(listener)
+                    .send(listener);
         } catch (JSONException | IOException | URISyntaxException e) {
             logger.debug("{}", e.getMessage());
         }
@@ -368,10 +416,9 @@ public class CloudClient {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and abort running request
-            if (runningRequests.containsKey(requestId)) {
-                Request request = runningRequests.get(requestId);
+            Request request = runningRequests.remove(requestId);
+            if (request != null) {
                 request.abort(new InterruptedException());
-                runningRequests.remove(requestId);
             }
         } catch (JSONException e) {
             logger.debug("{}", e.getMessage());
@@ -514,22 +561,97 @@ public class CloudClient {
         this.openHABVersion = openHABVersion;
     }
 
+    /*
+     * Completes the unflushed response chunks, called by the Socket.IO event thread
+     */
+    private void chunksFlushed(boolean reuseBuffers) {
+        UnflushedChunk chunk;
+        while ((chunk = unflushedChunks.poll()) != null) {
+            chunk.listener.contentFlushed(chunk.body.length);
+            if (reuseBuffers) {
+                chunkBufferPool.release(chunk.body);
+            }
+        }
+    }
+
     public void setListener(CloudClientListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Returns the number of requests from the openHAB Cloud that are currently proxied to openHAB
+     */
+    public int getRunningRequests() {
+        return runningRequests.size();
+    }
+
+    /**
+     * Returns the number of completed requests proxied to openHAB, including failed requests
+     */
+    public long getProxiedRequests() {
+        return proxiedRequests.get();
+    }
+
+    /**
+     * Returns the number of failed requests proxied to openHAB
+     */
+    public long getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    /**
+     * Returns the number of response body bytes sent to the openHAB Cloud
+     */
+    public long getProxiedBytes() {
+        return proxiedBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes of flushed response chunks that are kept for reuse
+     */
+    public int getPooledChunkBytes() {
+        return chunkBufferPool.getPooledBytes();
+    }
+
     /*
-     * An internal class which forwards response headers and data back to the openHAB Cloud
+     * A response chunk which has been emitted to the openHAB Cloud but not yet been flushed
+     */
+    private static class UnflushedChunk {
+        private final ResponseListener listener;
+        private final byte[] body;
+
+        private UnflushedChunk(ResponseListener listener, byte[] body) {
+            this.listener = listener;
+            this.body = body;
+        }
+    }
+
+    /*
+     * An internal class which forwards response headers and data back to the openHAB Cloud.
+     *
+     * The response content is streamed: Every chunk is emitted as soon as Jetty received it, but at most
+     * MAX_IN_FLIGHT_BYTES_PER_REQUEST bytes may not yet have been flushed by the engine.io transport. If more are
+     * waiting, the content callback is only completed after the transport drained, so Jetty stops reading from
+     * openHAB. With the WebSocket transport, a flushed chunk has been queued in the WebSocket client.
      */
     private class ResponseListener
-            implements Response.CompleteListener, HeadersListener, ContentListener, FailureListener {
+            implements Response.CompleteListener, HeadersListener, AsyncContentListener, FailureListener {
 
         private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
         private int mRequestId;
         private boolean mHeadersSent = false;
-
-        public ResponseListener(int requestId) {
+        private final String mMethod;
+        private final String mPath;
+        private final long mStartTime = System.nanoTime();
+        private long mHeadersTime;
+        private long mBytes;
+        private long mInFlightBytes;
+        private Callback mPendingCallback;
+
+        public ResponseListener(int requestId, String method, String path) {
             mRequestId = requestId;
+            mMethod = method;
+            mPath = path;
         }
 
         private JSONObject getJSONHeaders(HttpFields httpFields) {
@@ -548,6 +670,11 @@ public class CloudClient {
         public void onComplete(Result result) {
             // Remove this request from list of running requests
             runningRequests.remove(mRequestId);
+            failPendingCallback(result != null ? result.getFailure() : null);
+            proxiedRequests.incrementAndGet();
+            if (result != null && result.isFailed()) {
+                failedRequests.incrementAndGet();
+            }
             if ((result != null && result.isFailed())
                     && (result.getResponse() != null && result.getResponse().getStatus() != HttpStatus.OK_200)) {
                 if (result.getFailure() != null) {
@@ -560,6 +687,12 @@ public class CloudClient {
                     logger.warn("Response Failure: {}", result.getResponseFailure().getMessage());
                 }
             }
+            if (logger.isDebugEnabled()) {
+                long duration = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mStartTime));
+                long headersDuration = mHeadersSent ? TimeUnit.NANOSECONDS.toMillis(mHeadersTime - mStartTime) : -1;
+                logger.debug("Request {} {} {} took {} ms (headers after {} ms), {} bytes, {} kB/s", mRequestId,
+                        mMethod, mPath, duration, headersDuration, mBytes, mBytes / duration);
+            }
 
             /**
              * What is this? In some cases where latency is very low the myopenhab service
@@ -591,16 +724,71 @@ public class CloudClient {
         }
 
         @Override
-        public void onContent(Response response, ByteBuffer content) {
-            logger.debug("Jetty received response content of size {}", String.valueOf(content.remaining()));
+        public void onContent(Response response, ByteBuffer content, Callback callback) {
+            int size = content.remaining();
+            logger.debug("Jetty received response content of size {}", size);
+            // Socket.IO keeps a reference to the array until it has been flushed, it is only reused afterwards
+            byte[] body = chunkBufferPool.acquire(size);
+            content.get(body);
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
-                responseJson.put("body", BufferUtil.toArray(content));
-                socket.emit("responseContentBinary", responseJson);
-                logger.debug("Sent content to request {}", mRequestId);
+                responseJson.put("body", body);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
+                callback.failed(e);
+                return;
+            }
+
+            synchronized (this) {
+                mBytes += size;
+                mInFlightBytes += size;
+                if (mInFlightBytes > MAX_IN_FLIGHT_BYTES_PER_REQUEST) {
+                    mPendingCallback = callback;
+                    callback = null;
+                }
+            }
+            socket.emit("responseContentBinary", responseJson);
+            proxiedBytes.addAndGet(size);
+            logger.debug("Sent content to request {}", mRequestId);
+
+            // Emitting is performed by the event thread, this task runs after the chunk has been written to the
+            // engine.io write buffer, so the next drain of the transport flushes it. While disconnected, Socket.IO
+            // keeps the chunk until it reconnects, it is neither waited for nor reused.
+            EventThread.exec(() -> {
+                if (isConnected) {
+                    unflushedChunks.add(new UnflushedChunk(this, body));
+                } else {
+                    contentFlushed(size);
+                }
+            });
+            if (callback != null) {
+                callback.succeeded();
+            }
+        }
+
+        private void contentFlushed(int size) {
+            Callback callback = null;
+            synchronized (this) {
+                mInFlightBytes -= size;
+                if (mPendingCallback != null && mInFlightBytes <= MAX_IN_FLIGHT_BYTES_PER_REQUEST) {
+                    callback = mPendingCallback;
+                    mPendingCallback = null;
+                }
+            }
+            if (callback != null) {
+                callback.succeeded();
+            }
+        }
+
+        private void failPendingCallback(Throwable failure) {
+            Callback callback;
+            synchronized (this) {
+                callback = mPendingCallback;
+                mPendingCallback = null;
+            }
+            if (callback != null) {
+                callback.failed(failure != null ? failure : new InterruptedException());
             }
         }
 
@@ -608,6 +796,7 @@ public class CloudClient {
         public void onHeaders(Response response) {
             if (!mHeadersSent) {
                 logger.debug("Jetty finished receiving response header");
+                mHeadersTime = System.nanoTime();
                 JSONObject responseJson = new JSONObject();
                 mHeadersSent = true;
                 try {
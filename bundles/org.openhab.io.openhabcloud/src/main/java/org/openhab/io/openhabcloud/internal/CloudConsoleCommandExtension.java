@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link CloudConsoleCommandExtension} shows the statistics of the connection to the openHAB Cloud.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class CloudConsoleCommandExtension extends AbstractConsoleCommandExtension {
+    private static final String STATS = "stats";
+
+    private final CloudService cloudService;
+
+    @Activate
+    public CloudConsoleCommandExtension(final @Reference CloudService cloudService) {
+        super("openhabcloud", "Show the statistics of the openHAB Cloud connection.");
+        this.cloudService = cloudService;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length != 1 || !STATS.equals(args[0])) {
+            printUsage(console);
+            return;
+        }
+        Map<String, Object> statistics = cloudService.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("Not connected to the openHAB Cloud");
+            return;
+        }
+        statistics.forEach((name, value) -> console.println(name + ": " + value));
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] { buildCommandUsage(STATS, "show the connection statistics") });
+    }
+}
@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +33,7 @@ import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.core.ConfigurableService;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventPublisher;
@@ -71,7 +73,7 @@ import org.slf4j.LoggerFactory;
  * @author Victor Belov - Initial contribution
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  */
-@Component(immediate = true, service = { EventSubscriber.class,
+@Component(immediate = true, service = { CloudService.class, EventSubscriber.class,
         ActionService.class }, configurationPid = "org.openhab.openhabcloud", property = {
                 Constants.SERVICE_PID + "=org.openhab.openhabcloud",
                 ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=io:openhabcloud",
@@ -82,16 +84,22 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     private static final String CFG_EXPOSE = "expose";
     private static final String CFG_BASE_URL = "baseURL";
     private static final String CFG_MODE = "mode";
+    private static final String CFG_ITEM_UPDATE_INTERVAL = "itemUpdateInterval";
+    private static final String CFG_ITEM_UPDATE_BATCH_SIZE = "itemUpdateBatchSize";
     private static final String SECRET_FILE_NAME = "openhabcloud" + File.separator + "secret";
     private static final String DEFAULT_URL = "https://myopenhab.org/";
     private static final int DEFAULT_LOCAL_OPENHAB_MAX_CONCURRENT_REQUESTS = 200;
     private static final int DEFAULT_LOCAL_OPENHAB_REQUEST_TIMEOUT = 30000;
     private static final String HTTPCLIENT_NAME = "openhabcloud";
+    private static final String THREADPOOL_OPENHABCLOUD = "openhabcloud";
+    private static final int DEFAULT_ITEM_UPDATE_INTERVAL = 1000;
+    private static final int DEFAULT_ITEM_UPDATE_BATCH_SIZE = 50;
 
     private Logger logger = LoggerFactory.getLogger(CloudService.class);
 
     public static String clientVersion = null;
     private CloudClient cloudClient;
+    private ItemUpdatePublisher itemUpdatePublisher;
     private String cloudBaseUrl = null;
     private HttpClient httpClient;
     protected ItemRegistry itemRegistry = null;
@@ -177,6 +185,9 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     @Deactivate
     protected void deactivate() {
         logger.debug("openHAB Cloud connector deactivated");
+        if (itemUpdatePublisher != null) {
+            itemUpdatePublisher.stop();
+        }
         cloudClient.shutdown();
         try {
             httpClient.stop();
@@ -220,6 +231,12 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
 
         logger.debug("UUID = {}, secret = {}", InstanceUUID.get(), getSecret());
 
+        int itemUpdateInterval = getIntConfig(config, CFG_ITEM_UPDATE_INTERVAL, DEFAULT_ITEM_UPDATE_INTERVAL);
+        int itemUpdateBatchSize = getIntConfig(config, CFG_ITEM_UPDATE_BATCH_SIZE, DEFAULT_ITEM_UPDATE_BATCH_SIZE);
+
+        if (itemUpdatePublisher != null) {
+            itemUpdatePublisher.stop();
+        }
         if (cloudClient != null) {
             cloudClient.shutdown();
         }
@@ -238,12 +255,53 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
         String localBaseUrl = "http://localhost:" + localPort;
         cloudClient = new CloudClient(httpClient, InstanceUUID.get(), getSecret(), cloudBaseUrl, localBaseUrl,
                 remoteAccessEnabled, exposedItems);
+        itemUpdatePublisher = new ItemUpdatePublisher(cloudClient::sendItemUpdate,
+                ThreadPoolManager.getScheduledPool(THREADPOOL_OPENHABCLOUD), itemUpdateInterval, itemUpdateBatchSize);
         cloudClient.setOpenHABVersion(OpenHAB.getVersion());
         cloudClient.connect();
         cloudClient.setListener(this);
         NotificationAction.cloudService = this;
     }
 
+    private int getIntConfig(Map<String, ?> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for '{}', using {}", value, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the statistics of the requests proxied from the openHAB Cloud and of the item updates sent to it
+     *
+     * @return the statistics by name, empty if the service is not connected to the openHAB Cloud
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        CloudClient client = cloudClient;
+        if (client == null || !client.isConnected()) {
+            return statistics;
+        }
+        statistics.put("runningRequests", client.getRunningRequests());
+        statistics.put("proxiedRequests", client.getProxiedRequests());
+        statistics.put("failedRequests", client.getFailedRequests());
+        statistics.put("proxiedBytes", client.getProxiedBytes());
+        statistics.put("pooledChunkBytes", client.getPooledChunkBytes());
+        ItemUpdatePublisher publisher = itemUpdatePublisher;
+        if (publisher != null) {
+            statistics.put("receivedItemUpdates", publisher.getReceivedUpdates());
+            statistics.put("sentItemUpdates", publisher.getSentUpdates());
+            statistics.put("droppedItemUpdates", publisher.getDroppedUpdates());
+        }
+        return statistics;
+    }
+
     @Override
     public String getActionClassName() {
         return NotificationAction.class.getCanonicalName();
@@ -391,7 +449,7 @@ public class CloudService implements ActionService, CloudClientListener, EventSu
     public void receive(Event event) {
         ItemStateEvent ise = (ItemStateEvent) event;
         if (exposedItems != null && exposedItems.contains(ise.getItemName())) {
-            cloudClient.sendItemUpdate(ise.getItemName(), ise.getItemState().toString());
+            itemUpdatePublisher.publish(ise.getItemName(), ise.getItemState().toString());
         }
     }
 }
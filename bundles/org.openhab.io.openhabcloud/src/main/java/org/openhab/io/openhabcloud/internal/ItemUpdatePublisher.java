@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class coalesces the item updates that are sent to the openHAB Cloud.
+ * Only the latest state of every item is kept and the pending updates are sent
+ * after the update interval or as soon as the batch size is reached, whatever
+ * comes first. Intermediate states of an item within one interval are dropped.
+ * An update interval of 0 sends every update immediately.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class ItemUpdatePublisher {
+    private final Logger logger = LoggerFactory.getLogger(ItemUpdatePublisher.class);
+
+    private final BiConsumer<String, String> sender;
+    private final ScheduledExecutorService scheduler;
+    private final int updateInterval;
+    private final int batchSize;
+
+    /*
+     * The latest state of every item with a pending update, in the order of their latest update. An item is moved to
+     * the end when it is updated again, so that the updates are sent in the order in which the states were reached.
+     */
+    private final Map<String, String> pendingUpdates = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushFuture;
+    private boolean stopped;
+
+    private final AtomicLong receivedUpdates = new AtomicLong();
+    private final AtomicLong sentUpdates = new AtomicLong();
+    private final AtomicLong droppedUpdates = new AtomicLong();
+
+    /**
+     * Constructor of ItemUpdatePublisher
+     *
+     * @param sender sends a single item update with the item name and state
+     * @param scheduler the scheduler for sending the pending updates
+     * @param updateInterval the maximum time in milliseconds an update is delayed, 0 to disable coalescing
+     * @param batchSize the number of pending updates that are sent without waiting for the update interval
+     */
+    public ItemUpdatePublisher(BiConsumer<String, String> sender, ScheduledExecutorService scheduler,
+            int updateInterval, int batchSize) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.updateInterval = updateInterval;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Queues an item update. A pending update of the same item is replaced.
+     *
+     * @param itemName the name of the item
+     * @param itemState updated item state
+     */
+    public void publish(String itemName, String itemState) {
+        receivedUpdates.incrementAndGet();
+        if (updateInterval <= 0) {
+            send(itemName, itemState);
+            return;
+        }
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            if (pendingUpdates.remove(itemName) != null) {
+                droppedUpdates.incrementAndGet();
+            }
+            pendingUpdates.put(itemName, itemState);
+            if (pendingUpdates.size() >= batchSize) {
+                if (flushFuture != null) {
+                    flushFuture.cancel(false);
+                }
+                flushFuture = scheduler.submit(this::flush);
+            } else if (flushFuture == null) {
+                flushFuture = scheduler.schedule(this::flush, updateInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Sends all pending updates.
+     */
+    public void flush() {
+        Map<String, String> updates;
+        synchronized (this) {
+            flushFuture = null;
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = new LinkedHashMap<>(pendingUpdates);
+            pendingUpdates.clear();
+        }
+        updates.forEach(this::send);
+        logger.debug("Sent {} item updates, {} of {} received updates were dropped in favour of a newer state",
+                updates.size(), droppedUpdates.get(), receivedUpdates.get());
+    }
+
+    private void send(String itemName, String itemState) {
+        sender.accept(itemName, itemState);
+        sentUpdates.incrementAndGet();
+    }
+
+    /**
+     * Stops the publisher, pending updates are discarded.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+        }
+        pendingUpdates.clear();
+    }
+
+    /**
+     * Returns the number of item updates passed to {@link #publish(String, String)}
+     */
+    public long getReceivedUpdates() {
+        return receivedUpdates.get();
+    }
+
+    /**
+     * Returns the number of item updates sent to the openHAB Cloud
+     */
+    public long getSentUpdates() {
+        return sentUpdates.get();
+    }
+
+    /**
+     * Returns the number of item updates that were replaced by a newer state before they were sent
+     */
+    public long getDroppedUpdates() {
+        return droppedUpdates.get();
+    }
+}
@@ -13,9 +13,6 @@
 package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -101,115 +98,168 @@ public class ModbusBitUtilities {
      */
     public static Optional<DecimalType> extractStateFromRegisters(ModbusRegisterArray registers, int index,
             ModbusConstants.ValueType type) {
-        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
-        // each register has 16 bits
-        int lastValidIndex = registers.size() * 16 - 1;
-        if (endBitIndex > lastValidIndex || index < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
-                            registers.size()));
-        }
         switch (type) {
-            case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
-            case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
-            case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
-            case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
+            case FLOAT32:
             case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
+                float value = extractFloatFromRegisters(registers, index, type);
                 try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
+                    return Optional.of(new DecimalType(value));
                 } catch (NumberFormatException e) {
                     // floating point NaN or infinity encountered
                     return Optional.empty();
                 }
             }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
+            case UINT64:
+            case UINT64_SWAP: {
+                long value = extractLongFromRegisters(registers, index, type);
+                if (value >= 0) {
+                    return Optional.of(new DecimalType(value));
+                }
+                return Optional.of(new DecimalType(new BigDecimal(Long.toUnsignedString(value))));
             }
+            default:
+                return Optional.of(new DecimalType(extractLongFromRegisters(registers, index, type)));
+        }
+    }
+
+    /**
+     * Read integer data from registers as primitive <code>long</code>, without allocating intermediate objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}.
+     *
+     * Note that UINT64 and UINT64_SWAP values larger than {@link Long#MAX_VALUE} are returned as negative numbers, that
+     * is, the 64 bits are returned as is. Use e.g. {@link Long#toUnsignedString(long)} to interpret such values.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type. Floating point types are not supported.
+     * @return value read from the registers
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or when type is floating
+     *             point type
+     */
+    public static long extractLongFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkIndex(registers, index, type);
+        switch (type) {
+            case BIT:
+                return (registers.getRegisterValue(index / 16) >> (index % 16)) & 1;
+            case INT8:
+                return (byte) (registers.getRegisterValue(index / 2) >> (8 * (index % 2)));
+            case UINT8:
+                return (registers.getRegisterValue(index / 2) >> (8 * (index % 2))) & 0xff;
+            case INT16:
+                return (short) registers.getRegisterValue(index);
+            case UINT16:
+                return registers.getRegisterValue(index);
+            case INT32:
+                return (int) registersToLong(registers, index, 2, false);
+            case UINT32:
+                return registersToLong(registers, index, 2, false);
+            case INT64:
+            case UINT64:
+                return registersToLong(registers, index, 4, false);
+            case INT32_SWAP:
+                return (int) registersToLong(registers, index, 2, true);
+            case UINT32_SWAP:
+                return registersToLong(registers, index, 2, true);
+            case INT64_SWAP:
+            case UINT64_SWAP:
+                return registersToLong(registers, index, 4, true);
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type %s cannot be read as integer", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read floating point data from registers as primitive <code>float</code>, without allocating intermediate
+     * objects
+     *
+     * Interpretation of <tt>index</tt> and <tt>type</tt> is the same as with
+     * {@link #extractStateFromRegisters(ModbusRegisterArray, int, ModbusConstants.ValueType)}. Unlike with
+     * extractStateFromRegisters, NaN and infinity values are returned as is.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based register index
+     * @param type item type, FLOAT32 or FLOAT32_SWAP
+     * @return value read from the registers
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers, or when type is not floating
+     *             point type
+     */
+    public static float extractFloatFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        checkIndex(registers, index, type);
+        switch (type) {
+            case FLOAT32:
+                return Float.intBitsToFloat((int) registersToLong(registers, index, 2, false));
+            case FLOAT32_SWAP:
+                return Float.intBitsToFloat((int) registersToLong(registers, index, 2, true));
+            default:
+                throw new IllegalArgumentException(
+                        String.format("Type %s cannot be read as floating point", type.getConfigValue()));
+        }
+    }
+
+    /**
+     * Read data from registers as primitive <code>double</code>, without allocating intermediate objects
+     *
+     * All types are supported. Note that 64 bit integer values might lose precision in the conversion.
+     *
+     * @param registers list of registers, each register represent 16bit of data
+     * @param index zero based item index
+     * @param type item type
+     * @return value read from the registers
+     * @throws IllegalArgumentException when <tt>index</tt> is out of bounds of registers
+     */
+    public static double extractDoubleFromRegisters(ModbusRegisterArray registers, int index,
+            ModbusConstants.ValueType type) {
+        switch (type) {
+            case FLOAT32:
+            case FLOAT32_SWAP:
+                return extractFloatFromRegisters(registers, index, type);
+            case UINT64:
             case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
+                long value = extractLongFromRegisters(registers, index, type);
+                if (value >= 0) {
+                    return value;
+                }
+                // unsigned value does not fit long. Halve the value (keeping the lowest bit for correct rounding), and
+                // double it after conversion
+                return ((double) ((value >>> 1) | (value & 1))) * 2.0;
             }
             default:
-                throw new IllegalArgumentException(type.getConfigValue());
+                return extractLongFromRegisters(registers, index, type);
+        }
+    }
+
+    private static void checkIndex(ModbusRegisterArray registers, int index, ModbusConstants.ValueType type) {
+        int endBitIndex = (type.getBits() >= 16 ? 16 * index : type.getBits() * index) + type.getBits() - 1;
+        // each register has 16 bits
+        int lastValidIndex = registers.size() * 16 - 1;
+        if (endBitIndex > lastValidIndex || index < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Index=%d with type=%s is out-of-bounds given registers of size %d", index, type,
+                            registers.size()));
+        }
+    }
+
+    /**
+     * Combine consecutive registers to a single number, first register containing the most significant bits
+     *
+     * @param registers registers to read
+     * @param index index of the first register
+     * @param count number of registers to combine
+     * @param swap whether the registers are in reverse order, that is, last register containing the most significant
+     *            bits
+     * @return registers combined as long
+     */
+    private static long registersToLong(ModbusRegisterArray registers, int index, int count, boolean swap) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 16) | registers.getRegisterValue(swap ? index + count - 1 - i : index + i);
         }
+        return value;
     }
 
     /**
@@ -20,12 +20,18 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 /**
  * Immutable {@link ModbusRegisterArray} implementation
  *
+ * Register data is stored as primitive <code>short</code> values. {@link ModbusRegister} objects are created only
+ * when requested with {@link #getRegister(int)}, while {@link #getRegisterValue(int)} and {@link #slice(int, int)}
+ * access the data without allocating per register objects.
+ *
  * @author Sami Salonen - Initial contribution
  */
 @NonNullByDefault
 public class ModbusRegisterArray implements Iterable<ModbusRegister> {
 
-    private final ModbusRegister[] registers;
+    private final short[] registerValues;
+    private final int offset;
+    private final int length;
 
     /**
      * Construct plain <code>ModbusRegister[]</code> array from register values
@@ -47,7 +53,30 @@ public class ModbusRegisterArray implements Iterable<ModbusRegister> {
      * @param registers
      */
     public ModbusRegisterArray(ModbusRegister[] registers) {
-        this.registers = registers;
+        this(new short[registers.length], 0, registers.length);
+        for (int i = 0; i < registers.length; i++) {
+            registerValues[i] = (short) registers[i].getValue();
+        }
+    }
+
+    /**
+     * Construct ModbusRegisterArray viewing part of the given register values
+     *
+     * The array is not copied, and thus it should not be modified after calling this constructor.
+     *
+     * @param registerValues register values, each <code>short</code> corresponding to one register
+     * @param offset index of the first register in <code>registerValues</code>
+     * @param length number of registers
+     * @throws IndexOutOfBoundsException if offset or length is out of bounds of <code>registerValues</code>
+     */
+    public ModbusRegisterArray(short[] registerValues, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > registerValues.length) {
+            throw new IndexOutOfBoundsException(String.format("offset=%d, length=%d out of bounds of array of size %d",
+                    offset, length, registerValues.length));
+        }
+        this.registerValues = registerValues;
+        this.offset = offset;
+        this.length = length;
     }
 
     /**
@@ -57,7 +86,15 @@ public class ModbusRegisterArray implements Iterable<ModbusRegister> {
      * @return
      */
     public ModbusRegisterArray(int... registerValues) {
-        this(registersFromValues(registerValues));
+        this(shortsFromValues(registerValues), 0, registerValues.length);
+    }
+
+    private static short[] shortsFromValues(int... registerValues) {
+        short[] shorts = new short[registerValues.length];
+        for (int i = 0; i < registerValues.length; i++) {
+            shorts[i] = (short) registerValues[i];
+        }
+        return shorts;
     }
 
     /**
@@ -70,7 +107,42 @@ public class ModbusRegisterArray implements Iterable<ModbusRegister> {
      * @throws IndexOutOfBoundsException if the index is out of bounds.
      */
     public ModbusRegister getRegister(int index) {
-        return registers[index];
+        return new ModbusRegister(getRegisterValue(index));
+    }
+
+    /**
+     * Return register value at the given index, interpreted as unsigned 16 bit integer
+     *
+     * Index 0 matches first register (lowest register index).
+     * <p>
+     *
+     * @param index the index of the register to be returned.
+     * @return register value between 0 and 65535 (inclusive)
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public int getRegisterValue(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d out of bounds of register array of size %d", index, length));
+        }
+        return registerValues[offset + index] & 0xffff;
+    }
+
+    /**
+     * Return view to the registers of this array, without copying the data
+     *
+     * @param index index of the first register of the slice
+     * @param sliceLength number of registers in the slice
+     * @return register array sharing data with this array
+     * @throws IndexOutOfBoundsException if the slice is out of bounds.
+     */
+    public ModbusRegisterArray slice(int index, int sliceLength) {
+        if (index < 0 || sliceLength < 0 || index + sliceLength > length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Slice index=%d, length=%d out of bounds of register array of size %d", index,
+                            sliceLength, length));
+        }
+        return new ModbusRegisterArray(registerValues, offset + index, sliceLength);
     }
 
     /**
@@ -79,15 +151,15 @@ public class ModbusRegisterArray implements Iterable<ModbusRegister> {
      * @return
      */
     public int size() {
-        return registers.length;
+        return length;
     }
 
     @Override
     public String toString() {
-        if (registers.length == 0) {
+        if (length == 0) {
             return "ModbusRegisterArrayImpl(<empty>)";
         }
-        StringBuffer buffer = new StringBuffer(registers.length * 2).append("ModbusRegisterArrayImpl(");
+        StringBuffer buffer = new StringBuffer(length * 2).append("ModbusRegisterArrayImpl(");
         return appendHexString(buffer).append(')').toString();
     }
 
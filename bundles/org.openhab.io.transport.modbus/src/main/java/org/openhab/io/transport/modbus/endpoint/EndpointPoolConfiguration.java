@@ -61,6 +61,20 @@ public class EndpointPoolConfiguration {
      */
     private int connectTimeoutMillis;
 
+    /**
+     * Maximum number of unrequested registers (or bits) allowed between regular polls that are combined into a single
+     * read request. Negative value means that regular polls are never combined (default). Zero means that only
+     * adjacent or overlapping polls are combined.
+     */
+    private int readCoalescingMaxGap = -1;
+
+    /**
+     * Size of the dedicated task queue of the endpoint. With positive value, the operations of this endpoint are
+     * executed by a dedicated thread, writes before polls. Zero (default) means that operations are executed using the
+     * thread pool shared by all endpoints.
+     */
+    private int dedicatedQueueSize;
+
     private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
 
     static {
@@ -107,10 +121,27 @@ public class EndpointPoolConfiguration {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
 
+    public int getReadCoalescingMaxGap() {
+        return readCoalescingMaxGap;
+    }
+
+    public void setReadCoalescingMaxGap(int readCoalescingMaxGap) {
+        this.readCoalescingMaxGap = readCoalescingMaxGap;
+    }
+
+    public int getDedicatedQueueSize() {
+        return dedicatedQueueSize;
+    }
+
+    public void setDedicatedQueueSize(int dedicatedQueueSize) {
+        this.dedicatedQueueSize = dedicatedQueueSize;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(2149, 3117).append(interTransactionDelayMillis).append(interConnectDelayMillis)
-                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis).toHashCode();
+                .append(connectMaxTries).append(reconnectAfterMillis).append(connectTimeoutMillis)
+                .append(readCoalescingMaxGap).append(dedicatedQueueSize).toHashCode();
     }
 
     @Override
@@ -119,7 +150,9 @@ public class EndpointPoolConfiguration {
                 .append("interTransactionDelayMillis", interTransactionDelayMillis)
                 .append("interConnectDelayMillis", interConnectDelayMillis).append("connectMaxTries", connectMaxTries)
                 .append("reconnectAfterMillis", reconnectAfterMillis)
-                .append("connectTimeoutMillis", connectTimeoutMillis).toString();
+                .append("connectTimeoutMillis", connectTimeoutMillis)
+                .append("readCoalescingMaxGap", readCoalescingMaxGap)
+                .append("dedicatedQueueSize", dedicatedQueueSize).toString();
     }
 
     @Override
@@ -137,6 +170,8 @@ public class EndpointPoolConfiguration {
         return new EqualsBuilder().append(interTransactionDelayMillis, rhs.interTransactionDelayMillis)
                 .append(interConnectDelayMillis, rhs.interConnectDelayMillis)
                 .append(connectMaxTries, rhs.connectMaxTries).append(reconnectAfterMillis, rhs.reconnectAfterMillis)
-                .append(connectTimeoutMillis, rhs.connectTimeoutMillis).isEquals();
+                .append(connectTimeoutMillis, rhs.connectTimeoutMillis)
+                .append(readCoalescingMaxGap, rhs.readCoalescingMaxGap)
+                .append(dedicatedQueueSize, rhs.dedicatedQueueSize).isEquals();
     }
 }
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusConstants;
+import org.openhab.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
+
+/**
+ * Poll task combining several regular poll tasks into a single read request
+ *
+ * All the combined tasks share the endpoint, unit id and function code. The combined request covers the union of the
+ * individual requests (including the gaps in between), and the response is sliced back to each of the tasks, so that
+ * the callbacks receive results matching their original requests. A task whose range is not fully covered by the
+ * response gets a {@link ModbusUnexpectedResponseSizeException} failure instead.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private final PollTask primaryTask;
+    private final List<PollTask> tasks;
+    private final ModbusReadRequestBlueprint request;
+
+    private CoalescedPollTask(PollTask primaryTask, List<PollTask> tasks, ModbusReadRequestBlueprint request) {
+        this.primaryTask = primaryTask;
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.request = request;
+    }
+
+    /**
+     * Combine the primary task with as many of the candidate tasks as possible
+     *
+     * Candidates are considered only if they share the endpoint, unit id and function code with the primary task. A
+     * candidate is combined when the distance between the combined range so far and the candidate range is at most
+     * <code>maxGap</code> items, and the resulting request does not exceed the maximum read count allowed by the
+     * Modbus specification.
+     *
+     * @param primaryTask task which is always part of the combined request
+     * @param candidates other tasks that might be combined with the primary task
+     * @param maxGap maximum number of unrequested registers or bits allowed between the combined ranges
+     * @return combined task. Contains only the primary task if nothing could be combined.
+     */
+    public static CoalescedPollTask coalesce(PollTask primaryTask, Collection<PollTask> candidates, int maxGap) {
+        ModbusReadRequestBlueprint primaryRequest = primaryTask.getRequest();
+        int maxLength = maxReadCount(primaryRequest.getFunctionCode());
+        List<PollTask> remaining = new ArrayList<>();
+        for (PollTask candidate : candidates) {
+            ModbusReadRequestBlueprint candidateRequest = candidate.getRequest();
+            if (candidate != primaryTask && candidate.getEndpoint().equals(primaryTask.getEndpoint())
+                    && candidateRequest.getUnitID() == primaryRequest.getUnitID()
+                    && candidateRequest.getFunctionCode() == primaryRequest.getFunctionCode()) {
+                remaining.add(candidate);
+            }
+        }
+        remaining.sort(Comparator.comparingInt(task -> task.getRequest().getReference()));
+
+        List<PollTask> tasks = new ArrayList<>();
+        tasks.add(primaryTask);
+        int start = primaryRequest.getReference();
+        int end = start + primaryRequest.getDataLength();
+        int maxTries = primaryRequest.getMaxTries();
+        boolean extended = true;
+        while (extended) {
+            extended = false;
+            for (int i = 0; i < remaining.size(); i++) {
+                ModbusReadRequestBlueprint candidateRequest = remaining.get(i).getRequest();
+                int candidateStart = candidateRequest.getReference();
+                int candidateEnd = candidateStart + candidateRequest.getDataLength();
+                int newStart = Math.min(start, candidateStart);
+                int newEnd = Math.max(end, candidateEnd);
+                boolean withinGap = candidateStart - end <= maxGap && start - candidateEnd <= maxGap;
+                if (withinGap && newEnd - newStart <= maxLength) {
+                    start = newStart;
+                    end = newEnd;
+                    maxTries = Math.max(maxTries, candidateRequest.getMaxTries());
+                    tasks.add(remaining.remove(i));
+                    i--;
+                    extended = true;
+                }
+            }
+        }
+
+        ModbusReadRequestBlueprint request = tasks.size() == 1 ? primaryRequest
+                : new ModbusReadRequestBlueprint(primaryRequest.getUnitID(), primaryRequest.getFunctionCode(), start,
+                        end - start, maxTries);
+        return new CoalescedPollTask(primaryTask, tasks, request);
+    }
+
+    private static int maxReadCount(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return ModbusConstants.MAX_BITS_READ_COUNT;
+            default:
+                return ModbusConstants.MAX_REGISTERS_READ_COUNT;
+        }
+    }
+
+    /**
+     * Task that triggered the combined poll
+     *
+     * @return primary task
+     */
+    public PollTask getPrimaryTask() {
+        return primaryTask;
+    }
+
+    /**
+     * All tasks served by the combined request, primary task first
+     *
+     * @return list of tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return primaryTask.getEndpoint();
+    }
+
+    @Override
+    public ModbusReadCallback getResultCallback() {
+        return this::handleResult;
+    }
+
+    @Override
+    public ModbusFailureCallback<ModbusReadRequestBlueprint> getFailureCallback() {
+        return this::handleFailure;
+    }
+
+    private void handleResult(AsyncModbusReadResult result) {
+        for (PollTask task : tasks) {
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int offset = taskRequest.getReference() - request.getReference();
+            int length = taskRequest.getDataLength();
+            int responseSize;
+            if (result.getRegisters().isPresent()) {
+                responseSize = result.getRegisters().get().size();
+            } else if (result.getBits().isPresent()) {
+                responseSize = result.getBits().get().size();
+            } else {
+                throw new IllegalStateException("Result does not contain registers nor bits: " + result);
+            }
+            // the offset is never negative for a coalesced task, it is only clamped to be safe
+            int available = Math.max(0, responseSize - Math.max(0, offset));
+            if (offset < 0 || available < length) {
+                task.getFailureCallback().handle(new AsyncModbusFailure<>(taskRequest,
+                        new ModbusUnexpectedResponseSizeException(length, Math.min(available, length))));
+                continue;
+            }
+
+            AsyncModbusReadResult taskResult;
+            if (result.getRegisters().isPresent()) {
+                taskResult = new AsyncModbusReadResult(taskRequest, result.getRegisters().get().slice(offset, length));
+            } else {
+                BitArray bits = result.getBits().get();
+                BitArray slice = new BitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.getBit(offset + i));
+                }
+                taskResult = new AsyncModbusReadResult(taskRequest, slice);
+            }
+            task.getResultCallback().handle(taskResult);
+        }
+    }
+
+    private void handleFailure(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+        for (PollTask task : tasks) {
+            task.getFailureCallback().handle(new AsyncModbusFailure<>(task.getRequest(), failure.getCause()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("tasks", tasks).toString();
+    }
+}
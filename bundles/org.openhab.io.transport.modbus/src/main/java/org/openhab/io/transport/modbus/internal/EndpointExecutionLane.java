@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * Dedicated execution lane for the operations of a single endpoint
+ *
+ * Operations are executed one by one by a single thread, so that a slow endpoint cannot starve threads of the shared
+ * thread pool used by other endpoints. Writes are executed before any queued polls, otherwise tasks are executed in
+ * submission order.
+ *
+ * The queue is bounded: submissions are rejected with {@link RejectedExecutionException} when the queue is full.
+ *
+ * The lane is shared by all communication interfaces of the endpoint. Users are counted with {@link #retain()} and
+ * {@link #release()}, and the lane should be shut down only when the last user has released it.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointExecutionLane {
+
+    private static final String THREAD_NAME_PREFIX = "modbusManagerEndpointLane-";
+
+    /**
+     * Queued task, ordered by priority (writes first) and then by submission order
+     */
+    private class LaneTask extends FutureTask<@Nullable Void> implements Comparable<LaneTask> {
+        private final boolean write;
+        private final long sequence;
+        private final @Nullable Object key;
+
+        public LaneTask(Runnable runnable, boolean write, @Nullable Object key) {
+            super(runnable, null);
+            this.write = write;
+            this.key = key;
+            this.sequence = sequenceGenerator.getAndIncrement();
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            Object key = this.key;
+            if (key != null) {
+                queuedKeys.remove(key);
+            }
+            super.run();
+        }
+
+        @Override
+        public int compareTo(LaneTask other) {
+            if (write != other.write) {
+                return write ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final AtomicLong sequenceGenerator = new AtomicLong();
+    private final Set<Object> queuedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger users = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+    private final int queueSize;
+
+    public EndpointExecutionLane(ModbusSlaveEndpoint endpoint, int queueSize) {
+        this.queueSize = queueSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                new NamedThreadFactory(THREAD_NAME_PREFIX + endpoint, true));
+    }
+
+    /**
+     * Submit one-off operation for execution
+     *
+     * @param runnable operation to execute
+     * @param write whether the operation is a write, and thus prioritized over polls
+     * @return future representing the operation
+     * @throws RejectedExecutionException when the queue is full or the lane has been shut down
+     */
+    public Future<?> submit(Runnable runnable, boolean write) throws RejectedExecutionException {
+        LaneTask task = new LaneTask(runnable, write, null);
+        enqueue(task);
+        return task;
+    }
+
+    /**
+     * Submit operation for execution unless operation with the same key is already waiting in the queue
+     *
+     * This is used with regular polls: there is no point in queuing the same poll many times if the endpoint cannot
+     * keep up with the poll period.
+     *
+     * @param key key identifying the operation
+     * @param runnable operation to execute
+     * @return true if the operation was queued, false if operation with the same key was queued already
+     * @throws RejectedExecutionException when the queue is full or the lane has been shut down
+     */
+    public boolean submitIfNotQueued(Object key, Runnable runnable) throws RejectedExecutionException {
+        if (!queuedKeys.add(key)) {
+            return false;
+        }
+        try {
+            enqueue(new LaneTask(runnable, false, key));
+        } catch (RejectedExecutionException e) {
+            queuedKeys.remove(key);
+            throw e;
+        }
+        return true;
+    }
+
+    private void enqueue(LaneTask task) throws RejectedExecutionException {
+        // Reserve the queue slot first, so that concurrent submissions cannot exceed the limit
+        if (queued.incrementAndGet() > queueSize) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException(
+                    String.format("Queue of the endpoint is full (%d tasks waiting)", queueSize));
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Get number of operations waiting in the queue
+     *
+     * @return queue size
+     */
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    /**
+     * Get maximum number of operations allowed to wait in the queue
+     *
+     * @return queue capacity
+     */
+    public int getQueueCapacity() {
+        return queueSize;
+    }
+
+    /**
+     * Register new user of the lane
+     */
+    public void retain() {
+        users.incrementAndGet();
+    }
+
+    /**
+     * Unregister user of the lane
+     *
+     * @return true if this was the last user, and the lane can be shut down
+     */
+    public boolean release() {
+        return users.decrementAndGet() <= 0;
+    }
+
+    /**
+     * Shut down the lane, interrupting the running operation and discarding any queued operations
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        queuedKeys.clear();
+        queued.set(0);
+    }
+}
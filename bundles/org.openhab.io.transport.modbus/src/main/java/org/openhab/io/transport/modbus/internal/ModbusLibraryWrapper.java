@@ -24,7 +24,6 @@ import org.openhab.io.transport.modbus.BitArray;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
-import org.openhab.io.transport.modbus.ModbusRegister;
 import org.openhab.io.transport.modbus.ModbusRegisterArray;
 import org.openhab.io.transport.modbus.ModbusWriteCoilRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusWriteRegisterRequestBlueprint;
@@ -87,11 +86,11 @@ public class ModbusLibraryWrapper {
     }
 
     private static ModbusRegisterArray modbusRegisterArrayFromInputRegisters(InputRegister[] inputRegisters) {
-        ModbusRegister[] registers = new ModbusRegister[inputRegisters.length];
+        short[] registerValues = new short[inputRegisters.length];
         for (int i = 0; i < inputRegisters.length; i++) {
-            registers[i] = new ModbusRegister(inputRegisters[i].getValue());
+            registerValues[i] = (short) inputRegisters[i].getValue();
         }
-        return new ModbusRegisterArray(registers);
+        return new ModbusRegisterArray(registerValues, 0, registerValues.length);
     }
 
     /**
@@ -14,17 +14,22 @@ package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import javax.imageio.IIOException;
 
@@ -312,12 +317,26 @@ public class ModbusManagerImpl implements ModbusManager {
     private volatile @Nullable KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> connectionPool;
     private volatile @Nullable ModbusSlaveConnectionFactoryImpl connectionFactory;
     private volatile Map<PollTask, ScheduledFuture<?>> scheduledPollTasks = new ConcurrentHashMap<>();
+    /**
+     * Poll period of each registered poll task. Only polls with equal period are combined together.
+     */
+    private volatile Map<PollTask, Long> pollPeriods = new ConcurrentHashMap<>();
+    /**
+     * Time (in milliseconds) when the poll task was last served as part of combined poll triggered by some other task
+     */
+    private volatile Map<PollTask, Long> lastCoalescedPollMillis = new ConcurrentHashMap<>();
     /**
      * Executor for requests
      */
     private volatile @Nullable ScheduledExecutorService scheduledThreadPoolExecutor;
     private volatile @Nullable ScheduledFuture<?> monitorFuture;
     private volatile Set<ModbusCommunicationInterfaceImpl> communicationInterfaces = new ConcurrentHashSet<>();
+    /**
+     * Dedicated execution lanes of endpoints configured with positive dedicatedQueueSize
+     *
+     * Lanes are shared by the communication interfaces of the endpoint, and removed when the last one is closed
+     */
+    private volatile Map<ModbusSlaveEndpoint, EndpointExecutionLane> executionLanes = new ConcurrentHashMap<>();
 
     private void constructConnectionPool() {
         ModbusSlaveConnectionFactoryImpl connectionFactory = new ModbusSlaveConnectionFactoryImpl();
@@ -501,7 +520,9 @@ public class ModbusManagerImpl implements ModbusManager {
     }
 
     private void verifyTaskIsRegistered(PollTask task) throws PollTaskUnregistered {
-        if (!this.scheduledPollTasks.containsKey(task)) {
+        PollTask registeredTask = task instanceof CoalescedPollTask ? ((CoalescedPollTask) task).getPrimaryTask()
+                : task;
+        if (!this.scheduledPollTasks.containsKey(registeredTask)) {
             String msg = String.format("Poll task %s is unregistered", task);
             logger.debug(msg);
             throw new PollTaskUnregistered(msg);
@@ -722,12 +743,57 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Execute regular poll, combining it with other regular polls of the same endpoint when configured so.
+     *
+     * Polls are combined only if the endpoint has non-negative readCoalescingMaxGap configured. The polls combined
+     * must share unit id, function code and poll period. Tasks that were served recently (less than half of the poll
+     * period ago) by a combined poll triggered by some other task are skipped.
+     *
+     * @param task poll task to execute
+     * @param pollPeriodMillis poll period of the task
+     */
+    private void executeRegularPoll(PollTask task, long pollPeriodMillis) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        @Nullable
+        EndpointPoolConfiguration configuration = connectionFactory == null ? null
+                : connectionFactory.getEndpointPoolConfiguration(task.getEndpoint());
+        int maxGap = configuration == null ? -1 : configuration.getReadCoalescingMaxGap();
+        if (maxGap < 0) {
+            executeOperation(task, false, pollOperation);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Long lastCoalesced = lastCoalescedPollMillis.remove(task);
+        if (lastCoalesced != null && now - lastCoalesced < pollPeriodMillis / 2) {
+            logger.debug("Poll task {} was served by combined poll {} ms ago. Skipping this poll.", task,
+                    now - lastCoalesced);
+            return;
+        }
+
+        List<PollTask> candidates = pollPeriods.entrySet().stream()
+                .filter(entry -> entry.getValue().longValue() == pollPeriodMillis).map(Entry::getKey)
+                .collect(Collectors.toList());
+        CoalescedPollTask coalescedTask = CoalescedPollTask.coalesce(task, candidates, maxGap);
+        if (coalescedTask.getTasks().size() == 1) {
+            executeOperation(task, false, pollOperation);
+            return;
+        }
+        logger.debug("Combining {} poll tasks into a single request {}", coalescedTask.getTasks().size(),
+                coalescedTask.getRequest());
+        coalescedTask.getTasks().stream().filter(other -> other != task)
+                .forEach(other -> lastCoalescedPollMillis.put(other, now));
+        executeOperation(coalescedTask, false, pollOperation);
+    }
+
     private class ModbusCommunicationInterfaceImpl implements ModbusCommunicationInterface {
 
         private volatile ModbusSlaveEndpoint endpoint;
         private volatile Set<PollTask> pollTasksRegisteredByThisCommInterface = new ConcurrentHashSet<>();
         private volatile boolean closed;
         private @Nullable EndpointPoolConfiguration configuration;
+        private final boolean usesExecutionLane;
 
         @SuppressWarnings("null")
         public ModbusCommunicationInterfaceImpl(ModbusSlaveEndpoint endpoint,
@@ -735,6 +801,52 @@ public class ModbusManagerImpl implements ModbusManager {
             this.endpoint = endpoint;
             this.configuration = configuration;
             connectionFactory.setEndpointPoolConfiguration(endpoint, configuration);
+            int dedicatedQueueSize = configuration == null ? 0 : configuration.getDedicatedQueueSize();
+            usesExecutionLane = dedicatedQueueSize > 0;
+            if (usesExecutionLane) {
+                executionLanes.compute(endpoint, (e, lane) -> {
+                    EndpointExecutionLane retained = lane == null ? new EndpointExecutionLane(e, dedicatedQueueSize)
+                            : lane;
+                    retained.retain();
+                    return retained;
+                });
+            }
+        }
+
+        private void releaseExecutionLane() {
+            if (usesExecutionLane) {
+                executionLanes.computeIfPresent(endpoint, (e, lane) -> {
+                    if (lane.release()) {
+                        // Last communication interface using the lane was closed
+                        lane.shutdown();
+                        return null;
+                    }
+                    return lane;
+                });
+            }
+        }
+
+        /**
+         * Submit one-off operation, using the dedicated execution lane of the endpoint if such exists
+         *
+         * In case the dedicated queue is full, the failure callback is called with
+         * {@link RejectedExecutionException}.
+         */
+        private <R> Future<?> submitOneTimeOperation(ScheduledExecutorService executor, R request,
+                ModbusFailureCallback<R> failureCallback, boolean write, Runnable operation) {
+            @Nullable
+            EndpointExecutionLane lane = executionLanes.get(endpoint);
+            if (lane == null) {
+                return executor.submit(operation);
+            }
+            try {
+                return lane.submit(operation, write);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Could not queue one-off {} request {} for endpoint {}: {}", write ? "write" : "read",
+                        request, endpoint, e.getMessage());
+                invokeCallbackWithError(request, failureCallback, e);
+                return CompletableFuture.completedFuture(null);
+            }
         }
 
         @Override
@@ -748,13 +860,13 @@ public class ModbusManagerImpl implements ModbusManager {
             long scheduleTime = System.currentTimeMillis();
             BasicPollTask task = new BasicPollTask(endpoint, request, resultCallback, failureCallback);
             logger.debug("Scheduling one-off poll task {}", task);
-            Future<?> future = executor.submit(() -> {
+            Runnable operation = () -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off poll task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
                 executeOperation(task, true, pollOperation);
-            });
-            return future;
+            };
+            return submitOneTimeOperation(executor, request, failureCallback, false, operation);
         }
 
         @Override
@@ -774,12 +886,12 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.trace("Unregistering previous poll task (possibly with different period)");
                     unregisterRegularPoll(task);
                 }
-                ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+                Runnable poll = () -> {
                     long started = System.currentTimeMillis();
                     logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                             started);
                     try {
-                        executeOperation(task, false, pollOperation);
+                        executeRegularPoll(task, pollPeriodMillis);
                     } catch (RuntimeException e) {
                         // We want to catch all unexpected exceptions since all unhandled exceptions make
                         // ScheduledExecutorService halt the polling. It is better to print out the exception, and try
@@ -793,9 +905,28 @@ public class ModbusManagerImpl implements ModbusManager {
                     logger.debug(
                             "Execution of scheduled ({}ms) poll task {} finished at {}. Was started at millis: {} (=duration of {} millis)",
                             pollPeriodMillis, task, finished, started, finished - started);
+                };
+                ScheduledFuture<?> future = executor.scheduleWithFixedDelay(() -> {
+                    @Nullable
+                    EndpointExecutionLane lane = executionLanes.get(endpoint);
+                    if (lane == null) {
+                        poll.run();
+                        return;
+                    }
+                    try {
+                        if (!lane.submitIfNotQueued(task, poll)) {
+                            logger.debug(
+                                    "Scheduled ({}ms) poll task {} is still waiting in the queue of the endpoint. Not queuing it again.",
+                                    pollPeriodMillis, task);
+                        }
+                    } catch (RejectedExecutionException e) {
+                        logger.warn("Could not queue scheduled ({}ms) poll task {}: {}", pollPeriodMillis, task,
+                                e.getMessage());
+                    }
                 }, initialDelayMillis, pollPeriodMillis, TimeUnit.MILLISECONDS);
 
                 scheduledPollTasks.put(task, future);
+                pollPeriods.put(task, pollPeriodMillis);
                 pollTasksRegisteredByThisCommInterface.add(task);
                 logger.trace("Registered poll task {} with period {} using initial delay {}", task, pollPeriodMillis,
                         initialDelayMillis);
@@ -816,6 +947,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 Objects.requireNonNull(localConnectionFactory, "Not activated!");
 
                 // cancel poller
+                pollPeriods.remove(task);
+                lastCoalescedPollMillis.remove(task);
                 @Nullable
                 ScheduledFuture<?> future = scheduledPollTasks.remove(task);
                 if (future == null) {
@@ -841,13 +974,14 @@ public class ModbusManagerImpl implements ModbusManager {
             WriteTask task = new BasicWriteTask(endpoint, request, resultCallback, failureCallback);
             long scheduleTime = System.currentTimeMillis();
             logger.debug("Scheduling one-off write task {}", task);
-            Future<?> future = localScheduledThreadPoolExecutor.submit(() -> {
+            Runnable operation = () -> {
                 long millisInThreadPoolWaiting = System.currentTimeMillis() - scheduleTime;
                 logger.debug("Will now execute one-off write task {}, waited in thread pool for {}", task,
                         millisInThreadPoolWaiting);
                 executeOperation(task, true, writeOperation);
-            });
-            return future;
+            };
+            return submitOneTimeOperation(localScheduledThreadPoolExecutor, request, failureCallback, true,
+                    operation);
         }
 
         @Override
@@ -865,6 +999,7 @@ public class ModbusManagerImpl implements ModbusManager {
                     unregisterRegularPoll(task);
                 }
                 unregisterCommunicationInterface(this);
+                releaseExecutionLane();
                 closed = true;
             }
         }
@@ -964,6 +1099,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            executionLanes.values().forEach(EndpointExecutionLane::shutdown);
+            executionLanes.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -1008,6 +1145,16 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
             }
 
+            executionLanes.forEach((endpoint, lane) -> {
+                pollMonitorLogger.trace("POLL MONITOR: dedicated queue of endpoint {}: size {}, capacity {}", endpoint,
+                        lane.getQueueSize(), lane.getQueueCapacity());
+                if (lane.getQueueSize() >= lane.getQueueCapacity()) {
+                    pollMonitorLogger.warn(
+                            "Dedicated queue of endpoint {} is full ({} tasks)! The endpoint cannot keep up with the requests.",
+                            endpoint, lane.getQueueSize());
+                }
+            });
+
             pollMonitorLogger.trace("</POLL MONITOR>");
         }
     }
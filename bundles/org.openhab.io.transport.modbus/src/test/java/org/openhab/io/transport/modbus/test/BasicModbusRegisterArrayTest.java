@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+
+/**
+ * @author Sami Salonen - Initial contribution
+ */
+public class BasicModbusRegisterArrayTest {
+
+    @Test
+    public void testRegisterValues() {
+        ModbusRegisterArray registers = new ModbusRegisterArray(1, 0xffff, 0x8000);
+        assertThat(registers.size(), is(equalTo(3)));
+        assertThat(registers.getRegisterValue(0), is(equalTo(1)));
+        assertThat(registers.getRegisterValue(1), is(equalTo(0xffff)));
+        assertThat(registers.getRegisterValue(2), is(equalTo(0x8000)));
+        assertThat(registers.getRegister(1).toUnsignedShort(), is(equalTo(0xffff)));
+        assertThat(registers.toHexString(), is(equalTo("00 01 ff ff 80 00")));
+    }
+
+    @Test
+    public void testConstructFromRegisterObjects() {
+        ModbusRegisterArray registers = new ModbusRegisterArray(
+                new ModbusRegister[] { new ModbusRegister((byte) 0x12, (byte) 0x34), new ModbusRegister(0xfedc) });
+        assertThat(registers.size(), is(equalTo(2)));
+        assertThat(registers.getRegisterValue(0), is(equalTo(0x1234)));
+        assertThat(registers.getRegisterValue(1), is(equalTo(0xfedc)));
+    }
+
+    @Test
+    public void testSlice() {
+        short[] values = new short[] { 1, 2, 3, 4, 5 };
+        ModbusRegisterArray registers = new ModbusRegisterArray(values, 1, 3);
+        assertThat(registers.size(), is(equalTo(3)));
+        assertThat(registers.getRegisterValue(0), is(equalTo(2)));
+
+        ModbusRegisterArray slice = registers.slice(1, 2);
+        assertThat(slice.size(), is(equalTo(2)));
+        assertThat(slice.getRegisterValue(0), is(equalTo(3)));
+        assertThat(slice.getRegisterValue(1), is(equalTo(4)));
+        assertThat(slice.slice(2, 0).size(), is(equalTo(0)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSliceOutOfBounds() {
+        new ModbusRegisterArray(1, 2, 3).slice(2, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        new ModbusRegisterArray(new short[] { 1, 2, 3 }, 0, 2).getRegisterValue(2);
+    }
+}
@@ -398,4 +398,26 @@ public class BitUtilitiesExtractStateFromRegistersTest {
         assertThat(String.format("registers=%s, index=%d, type=%s", registers, index, type), actualState,
                 is(equalTo(expectedStateWrapped)));
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testExtractDoubleFromRegisters() {
+        if (expectedResult instanceof Class && Exception.class.isAssignableFrom((Class) expectedResult)) {
+            shouldThrow.expect((Class) expectedResult);
+        }
+
+        double actual = ModbusBitUtilities.extractDoubleFromRegisters(this.registers, this.index, this.type);
+        String message = String.format("registers=%s, index=%d, type=%s", registers, index, type);
+        if (expectedResult instanceof DecimalType) {
+            assertThat(message, actual, is(equalTo(((DecimalType) expectedResult).doubleValue())));
+        } else if (expectedResult instanceof Optional) {
+            Optional<@NonNull DecimalType> expectedOptional = (Optional<@NonNull DecimalType>) expectedResult;
+            if (expectedOptional.isPresent()) {
+                assertThat(message, actual, is(equalTo(expectedOptional.get().doubleValue())));
+            } else {
+                // NaN and infinity are returned as is
+                assertThat(message, Double.isNaN(actual) || Double.isInfinite(actual), is(true));
+            }
+        }
+    }
 }
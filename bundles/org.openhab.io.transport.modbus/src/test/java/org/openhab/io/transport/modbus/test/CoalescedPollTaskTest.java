@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.exception.ModbusUnexpectedResponseSizeException;
+import org.openhab.io.transport.modbus.internal.BasicPollTask;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+
+/**
+ * @author Sami Salonen - Initial contribution
+ */
+public class CoalescedPollTaskTest {
+
+    private final ModbusTCPSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("127.0.0.1", 502);
+    private final List<AsyncModbusReadResult> results = new ArrayList<>();
+    private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+    private PollTask task(ModbusReadFunctionCode functionCode, int start, int length) {
+        return task(endpoint, 1, functionCode, start, length);
+    }
+
+    private PollTask task(ModbusTCPSlaveEndpoint endpoint, int unitId, ModbusReadFunctionCode functionCode, int start,
+            int length) {
+        return new BasicPollTask(endpoint, new ModbusReadRequestBlueprint(unitId, functionCode, start, length, 1),
+                results::add, failures::add);
+    }
+
+    @Test
+    public void testAdjacentRegistersAreCombined() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 10, 2);
+        PollTask after = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 12, 3);
+        PollTask before = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 8, 2);
+
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(primary, after, before), 0);
+
+        assertThat(coalesced.getTasks().size(), is(equalTo(3)));
+        assertThat(coalesced.getRequest().getReference(), is(equalTo(8)));
+        assertThat(coalesced.getRequest().getDataLength(), is(equalTo(7)));
+    }
+
+    @Test
+    public void testGapTolerance() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 2);
+        PollTask other = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 5, 1);
+
+        assertThat(CoalescedPollTask.coalesce(primary, Arrays.asList(other), 2).getTasks().size(), is(equalTo(1)));
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(other), 3);
+        assertThat(coalesced.getTasks().size(), is(equalTo(2)));
+        assertThat(coalesced.getRequest().getReference(), is(equalTo(0)));
+        assertThat(coalesced.getRequest().getDataLength(), is(equalTo(6)));
+    }
+
+    @Test
+    public void testIncompatibleTasksAreNotCombined() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2);
+        PollTask otherFunctionCode = task(ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 2);
+        PollTask otherUnit = task(endpoint, 2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2);
+        PollTask otherEndpoint = task(new ModbusTCPSlaveEndpoint("127.0.0.2", 502), 1,
+                ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2);
+        PollTask tooLong = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 124);
+
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary,
+                Arrays.asList(otherFunctionCode, otherUnit, otherEndpoint, tooLong), 10);
+
+        assertThat(coalesced.getTasks().size(), is(equalTo(1)));
+        assertThat(coalesced.getRequest(), is(sameInstance(primary.getRequest())));
+    }
+
+    @Test
+    public void testRegisterResultIsSliced() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 2);
+        PollTask other = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 1);
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(other), 1);
+
+        coalesced.getResultCallback()
+                .handle(new AsyncModbusReadResult(coalesced.getRequest(), new ModbusRegisterArray(11, 12, 13, 14)));
+
+        assertThat(results.size(), is(equalTo(2)));
+        assertThat(results.get(0).getRequest(), is(sameInstance(primary.getRequest())));
+        assertThat(results.get(0).getRegisters().get().size(), is(equalTo(2)));
+        assertThat(results.get(0).getRegisters().get().getRegister(0).getValue(), is(equalTo(11)));
+        assertThat(results.get(0).getRegisters().get().getRegister(1).getValue(), is(equalTo(12)));
+        assertThat(results.get(1).getRequest(), is(sameInstance(other.getRequest())));
+        assertThat(results.get(1).getRegisters().get().size(), is(equalTo(1)));
+        assertThat(results.get(1).getRegisters().get().getRegister(0).getValue(), is(equalTo(14)));
+    }
+
+    @Test
+    public void testShortResponseIsFailureOfUncoveredTasks() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 2);
+        PollTask other = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 4, 2);
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(other), 1);
+
+        coalesced.getResultCallback()
+                .handle(new AsyncModbusReadResult(coalesced.getRequest(), new ModbusRegisterArray(11, 12, 13, 14)));
+
+        assertThat(results.size(), is(equalTo(1)));
+        assertThat(results.get(0).getRequest(), is(sameInstance(primary.getRequest())));
+        assertThat(failures.size(), is(equalTo(1)));
+        assertThat(failures.get(0).getRequest(), is(sameInstance(other.getRequest())));
+        assertThat(failures.get(0).getCause(), is(instanceOf(ModbusUnexpectedResponseSizeException.class)));
+    }
+
+    @Test
+    public void testBitResultIsSliced() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_COILS, 0, 2);
+        PollTask other = task(ModbusReadFunctionCode.READ_COILS, 2, 2);
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(other), 0);
+
+        coalesced.getResultCallback()
+                .handle(new AsyncModbusReadResult(coalesced.getRequest(), new BitArray(true, false, false, true)));
+
+        assertThat(results.size(), is(equalTo(2)));
+        assertThat(results.get(0).getBits().get(), is(equalTo(new BitArray(true, false))));
+        assertThat(results.get(1).getBits().get(), is(equalTo(new BitArray(false, true))));
+    }
+
+    @Test
+    public void testFailureIsDeliveredToAllTasks() {
+        PollTask primary = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 1);
+        PollTask other = task(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 1, 1);
+        CoalescedPollTask coalesced = CoalescedPollTask.coalesce(primary, Arrays.asList(other), 0);
+        Exception error = new Exception("error");
+
+        coalesced.getFailureCallback().handle(new AsyncModbusFailure<>(coalesced.getRequest(), error));
+
+        assertThat(failures.size(), is(equalTo(2)));
+        assertThat(failures.get(0).getRequest(), is(sameInstance(primary.getRequest())));
+        assertThat(failures.get(1).getRequest(), is(sameInstance(other.getRequest())));
+        assertThat(failures.get(1).getCause(), is(sameInstance(error)));
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointExecutionLane;
+
+/**
+ * @author Sami Salonen - Initial contribution
+ */
+public class EndpointExecutionLaneTest {
+
+    private EndpointExecutionLane lane;
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        lane = new EndpointExecutionLane(new ModbusTCPSlaveEndpoint("127.0.0.1", 502), 3);
+        // Occupy the lane thread so that the following tasks queue up
+        lane.submit(() -> {
+            blockerStarted.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, false);
+        assertThat(blockerStarted.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @After
+    public void tearDown() {
+        lane.shutdown();
+    }
+
+    @Test
+    public void testWritesAreExecutedBeforePolls() throws Exception {
+        lane.submit(() -> executed.add("poll1"), false);
+        lane.submit(() -> executed.add("poll2"), false);
+        Future<?> last = lane.submit(() -> executed.add("write"), true);
+        blocker.countDown();
+
+        last.get(5, TimeUnit.SECONDS);
+        lane.submit(() -> {
+        }, false).get(5, TimeUnit.SECONDS);
+        assertThat(executed.get(0), is(equalTo("write")));
+        assertThat(executed.get(1), is(equalTo("poll1")));
+        assertThat(executed.get(2), is(equalTo("poll2")));
+    }
+
+    @Test
+    public void testSameRegularPollIsQueuedOnce() throws Exception {
+        Object key = new Object();
+        assertThat(lane.submitIfNotQueued(key, () -> executed.add("poll")), is(true));
+        assertThat(lane.submitIfNotQueued(key, () -> executed.add("poll")), is(false));
+        assertThat(lane.getQueueSize(), is(equalTo(1)));
+        blocker.countDown();
+
+        lane.submit(() -> {
+        }, false).get(5, TimeUnit.SECONDS);
+        assertThat(executed.size(), is(equalTo(1)));
+        assertThat(lane.submitIfNotQueued(key, () -> executed.add("poll")), is(true));
+    }
+
+    @Test
+    public void testLaneIsReleasedByLastUser() {
+        lane.retain();
+        lane.retain();
+        assertThat(lane.release(), is(false));
+        assertThat(lane.release(), is(true));
+    }
+
+    @Test
+    public void testConcurrentSubmissionsDoNotExceedQueueSize() throws Exception {
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 50; i++) {
+                submitters.execute(() -> {
+                    try {
+                        start.await();
+                        lane.submit(() -> {
+                        }, false);
+                        accepted.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RejectedExecutionException e) {
+                        // expected when the queue is full
+                    }
+                });
+            }
+            start.countDown();
+            submitters.shutdown();
+            assertThat(submitters.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            submitters.shutdownNow();
+        }
+        assertThat(accepted.get(), is(equalTo(3)));
+        assertThat(lane.getQueueSize(), is(equalTo(3)));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testQueueIsBounded() {
+        lane.submit(() -> {
+        }, false);
+        lane.submit(() -> {
+        }, false);
+        lane.submit(() -> {
+        }, true);
+        lane.submit(() -> {
+        }, true);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+
+/**
+ * Pool of script engines evaluating a single JavaScript file.
+ *
+ * Each pooled instance has its own engine and compiled script, and is used by one thread at a time, since script
+ * engines are not thread-safe. Every evaluation gets fresh bindings, so evaluations never see each other's variables.
+ * Instances are created lazily, up to the size of the pool. When all instances are in use, callers wait for one to be
+ * released.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+public class CompiledScriptPool {
+
+    private final ScriptEngineManager manager;
+    private final String filename;
+    private final String source;
+    private final int size;
+    private final BlockingQueue<CompiledScript> idle;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Create pool, compiling the first instance right away to validate the script.
+     *
+     * @param manager manager used to create the script engines
+     * @param filename name of the JavaScript file
+     * @param source contents of the JavaScript file
+     * @param size maximum number of instances
+     * @throws TransformationException if compile of JavaScript failed
+     */
+    public CompiledScriptPool(ScriptEngineManager manager, String filename, String source, int size)
+            throws TransformationException {
+        this.manager = manager;
+        this.filename = filename;
+        this.source = source;
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<>(size);
+        created.incrementAndGet();
+        idle.add(compile());
+    }
+
+    private CompiledScript compile() throws TransformationException {
+        final ScriptEngine engine = manager.getEngineByName("javascript");
+        try {
+            return ((Compilable) engine).compile(source);
+        } catch (ScriptException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Evaluate the script with the given input.
+     *
+     * @param input value to pass as the 'input' variable
+     * @return result of the script
+     * @throws TransformationException if compile of JavaScript failed, or the thread was interrupted while waiting
+     *             for a free instance
+     * @throws ScriptException if the evaluation failed
+     */
+    public @Nullable Object eval(String input) throws TransformationException, ScriptException {
+        final CompiledScript script = acquire();
+        try {
+            final Bindings bindings = script.getEngine().createBindings();
+            bindings.put("input", input);
+            return script.eval(bindings);
+        } finally {
+            idle.add(script);
+        }
+    }
+
+    private CompiledScript acquire() throws TransformationException {
+        CompiledScript script = idle.poll();
+        if (script != null) {
+            return script;
+        }
+        if (created.incrementAndGet() <= size) {
+            try {
+                return compile();
+            } catch (TransformationException e) {
+                created.decrementAndGet();
+                throw e;
+            }
+        }
+        created.decrementAndGet();
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for JavaScript " + filename, e);
+        }
+    }
+
+    /**
+     * Number of instances created so far.
+     */
+    public int getInstanceCount() {
+        return created.get();
+    }
+}
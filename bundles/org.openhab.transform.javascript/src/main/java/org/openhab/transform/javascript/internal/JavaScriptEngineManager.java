@@ -13,67 +13,128 @@
 package org.openhab.transform.javascript.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import javax.script.Compilable;
-import javax.script.CompiledScript;
-import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Simple cache for compiled JavaScript files.
  *
+ * Each cached script is backed by a pool of engines, see {@link CompiledScriptPool}. The size of the pools can be
+ * configured with the <code>poolSize</code> configuration parameter.
+ *
  * @author Thomas Kordelle - pre compiled scripts
  *
  */
 @NonNullByDefault
-@Component(service = JavaScriptEngineManager.class)
+@Component(service = JavaScriptEngineManager.class, configurationPid = "org.openhab.transform.javascript")
 public class JavaScriptEngineManager {
 
+    private static final String CONFIG_POOL_SIZE = "poolSize";
+    /* keep memory foot print low. max 2 concurrent threads are estimated */
+    private static final int DEFAULT_POOL_SIZE = 2;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, CompiledScriptPool> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, ScriptStatistics> statistics = new ConcurrentHashMap<>();
+    private volatile int poolSize = DEFAULT_POOL_SIZE;
+
+    @Activate
+    @Modified
+    protected void modified(@Nullable Map<String, Object> config) {
+        int newPoolSize = DEFAULT_POOL_SIZE;
+        Object value = config == null ? null : config.get(CONFIG_POOL_SIZE);
+        if (value != null) {
+            try {
+                newPoolSize = Math.max(1, Integer.parseInt(value.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid JavaScript engine pool size '{}', using {}", value, DEFAULT_POOL_SIZE);
+            }
+        }
+        if (newPoolSize != poolSize) {
+            logger.debug("JavaScript engine pool size changed to {}, clearing cache.", newPoolSize);
+            poolSize = newPoolSize;
+            compiledScriptMap.clear();
+        }
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * Get a pre compiled script pool {@link CompiledScriptPool} from cache. If it is not in the cache, then load it
+     * from storage and put a pre compiled version into the cache.
+     *
+     * Lookups of cached scripts do not lock, only loading of new scripts is serialized.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
+     * @return a pool of pre compiled scripts {@link CompiledScriptPool}
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
+    protected CompiledScriptPool getScript(final String filename) throws TransformationException {
+        CompiledScriptPool pool = compiledScriptMap.get(filename);
+        if (pool != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return pool;
+        }
         synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
+            pool = compiledScriptMap.get(filename);
+            if (pool != null) {
+                return pool;
             }
+            final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading script {} from storage ", path);
+            try {
+                final String source = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+                pool = new CompiledScriptPool(manager, filename, source, poolSize);
+            } catch (IOException e) {
+                throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+            }
+            logger.debug("Putting compiled JavaScript {} to cache.", filename);
+            compiledScriptMap.put(filename, pool);
+            return pool;
+        }
+    }
+
+    /**
+     * Evaluate a script with the given input, recording the execution time.
+     *
+     * @param filename name of the JavaScript file
+     * @param input value to pass as the 'input' variable
+     * @return result of the script
+     * @throws TransformationException if loading of the script failed
+     * @throws ScriptException if the evaluation failed
+     */
+    protected @Nullable Object eval(final String filename, final String input)
+            throws TransformationException, ScriptException {
+        final CompiledScriptPool pool = getScript(filename);
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final Object result = pool.eval(input);
+            failed = false;
+            return result;
+        } finally {
+            statistics.computeIfAbsent(filename, key -> new ScriptStatistics()).record(System.nanoTime() - start,
+                    failed);
         }
     }
 
@@ -86,4 +147,31 @@ public class JavaScriptEngineManager {
         logger.debug("Removing JavaScript {} from cache.", fileName);
         compiledScriptMap.remove(fileName);
     }
+
+    /**
+     * Execution statistics of the scripts evaluated so far, by file name.
+     *
+     * @return unmodifiable view to the statistics
+     */
+    public Map<String, ScriptStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Reset the execution statistics.
+     */
+    public void clearStatistics() {
+        statistics.clear();
+    }
+
+    /**
+     * Number of engines created for the given script, or 0 if the script is not in the cache.
+     *
+     * @param filename name of the JavaScript file
+     * @return number of engines
+     */
+    public int getEngineCount(String filename) {
+        CompiledScriptPool pool = compiledScriptMap.get(filename);
+        return pool == null ? 0 : pool.getInstanceCount();
+    }
 }
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link JavaScriptTransformationCommandExtension} provides console commands to inspect the execution times of
+ * JavaScript transformations.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class JavaScriptTransformationCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+    private static final String SUBCMD_CLEAR = "clear";
+
+    private final JavaScriptEngineManager manager;
+
+    @Activate
+    public JavaScriptTransformationCommandExtension(final @Reference JavaScriptEngineManager manager) {
+        super("jstransform", "Inspect JavaScript transformations.");
+        this.manager = manager;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 1 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else if (args.length == 2 && SUBCMD_STATS.equals(args[0]) && SUBCMD_CLEAR.equals(args[1])) {
+            manager.clearStatistics();
+            console.println("Statistics cleared.");
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        Map<String, ScriptStatistics> statistics = manager.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No JavaScript transformations executed.");
+            return;
+        }
+        console.println(String.format("%-40s %8s %8s %10s %10s %12s %7s", "Script", "Count", "Failed", "Avg (ms)",
+                "Max (ms)", "Total (ms)", "Engines"));
+        // slowest scripts in total first
+        statistics.entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, ScriptStatistics> entry) -> entry.getValue().getTotalMillis()).reversed())
+                .forEach(entry -> {
+                    ScriptStatistics stats = entry.getValue();
+                    console.println(String.format("%-40s %8d %8d %10.3f %10.3f %12.3f %7d", entry.getKey(),
+                            stats.getExecutions(), stats.getFailures(), stats.getAverageMillis(),
+                            stats.getMaxMillis(), stats.getTotalMillis(), manager.getEngineCount(entry.getKey())));
+                });
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_STATS, "lists execution time statistics of the scripts"),
+                buildCommandUsage(SUBCMD_STATS + " " + SUBCMD_CLEAR, "resets the execution time statistics"));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.ScriptEngineManager;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CompiledScriptPool}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class CompiledScriptPoolTest {
+
+    // Used by the blocking script to signal that it is running and to wait for the test
+    public static final AtomicInteger RUNNING = new AtomicInteger();
+    public static volatile CountDownLatch release = new CountDownLatch(1);
+
+    private static final String BLOCKING_SCRIPT = "(function(i) {"
+            + " var test = Java.type('org.openhab.transform.javascript.internal.CompiledScriptPoolTest');"
+            + " test.RUNNING.incrementAndGet(); test.release.await(); test.RUNNING.decrementAndGet();"
+            + " return i; })(input)";
+
+    private final ScriptEngineManager manager = new ScriptEngineManager();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @Before
+    public void setUp() {
+        assumeNotNull(manager.getEngineByName("javascript"));
+        RUNNING.set(0);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEvalReturnsResult() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, "test.js", "input + '!'", 2);
+
+        assertEquals("a!", pool.eval("a"));
+        assertEquals("b!", pool.eval("b"));
+    }
+
+    @Test
+    public void testReleasedInstanceIsReused() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, "test.js", "input", 2);
+
+        for (int i = 0; i < 5; i++) {
+            pool.eval(String.valueOf(i));
+        }
+        assertEquals(1, pool.getInstanceCount());
+    }
+
+    @Test
+    public void testEvaluationsDoNotShareVariables() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, "test.js",
+                "var previous = typeof last === 'undefined' ? 'none' : last; last = input; previous", 1);
+
+        assertEquals("none", pool.eval("a"));
+        assertEquals("none", pool.eval("b"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidScriptIsRejected() throws Exception {
+        new CompiledScriptPool(manager, "test.js", "function(", 2);
+    }
+
+    @Test
+    public void testConcurrentEvaluationsAreLimitedToPoolSize() throws Exception {
+        CompiledScriptPool pool = new CompiledScriptPool(manager, "test.js", BLOCKING_SCRIPT, 2);
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String input = String.valueOf(i);
+            results.add(executor.submit(() -> pool.eval(input)));
+        }
+        waitUntilRunning(2);
+        // the remaining evaluations wait for a free instance instead of creating more
+        Thread.sleep(200);
+        assertEquals(2, RUNNING.get());
+        assertEquals(2, pool.getInstanceCount());
+
+        release.countDown();
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(String.valueOf(i), results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, pool.getInstanceCount());
+    }
+
+    private static void waitUntilRunning(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (RUNNING.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, RUNNING.get());
+    }
+}
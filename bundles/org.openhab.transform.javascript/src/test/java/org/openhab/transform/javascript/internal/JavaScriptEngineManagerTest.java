@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the <code>poolSize</code> configuration of {@link JavaScriptEngineManager}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class JavaScriptEngineManagerTest {
+
+    private JavaScriptEngineManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new JavaScriptEngineManager();
+    }
+
+    @Test
+    public void testDefaultPoolSize() {
+        manager.modified(null);
+        assertEquals(2, manager.getPoolSize());
+
+        manager.modified(Collections.emptyMap());
+        assertEquals(2, manager.getPoolSize());
+    }
+
+    @Test
+    public void testConfiguredPoolSize() {
+        manager.modified(Collections.singletonMap("poolSize", "4"));
+        assertEquals(4, manager.getPoolSize());
+
+        manager.modified(Collections.singletonMap("poolSize", 3));
+        assertEquals(3, manager.getPoolSize());
+    }
+
+    @Test
+    public void testPoolSizeIsAtLeastOne() {
+        manager.modified(Collections.singletonMap("poolSize", "0"));
+        assertEquals(1, manager.getPoolSize());
+    }
+
+    @Test
+    public void testInvalidPoolSizeFallsBackToDefault() {
+        manager.modified(Collections.singletonMap("poolSize", "4"));
+        manager.modified(Collections.singletonMap("poolSize", "many"));
+        assertEquals(2, manager.getPoolSize());
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+/**
+ * Tests the <code>jstransform</code> console command.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class JavaScriptTransformationCommandExtensionTest {
+
+    private JavaScriptEngineManager manager;
+    private Console console;
+    private JavaScriptTransformationCommandExtension extension;
+
+    @Before
+    public void setUp() {
+        manager = mock(JavaScriptEngineManager.class);
+        console = mock(Console.class);
+        extension = new JavaScriptTransformationCommandExtension(manager);
+    }
+
+    @Test
+    public void testStatsWithoutExecutions() {
+        when(manager.getStatistics()).thenReturn(Collections.emptyMap());
+
+        extension.execute(new String[] { "stats" }, console);
+
+        verify(console).println("No JavaScript transformations executed.");
+    }
+
+    @Test
+    public void testStatsListsSlowestScriptFirst() {
+        ScriptStatistics fast = new ScriptStatistics();
+        fast.record(1_000_000, false);
+        ScriptStatistics slow = new ScriptStatistics();
+        slow.record(5_000_000, true);
+        Map<String, ScriptStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("fast.js", fast);
+        statistics.put("slow.js", slow);
+        when(manager.getStatistics()).thenReturn(statistics);
+        when(manager.getEngineCount("slow.js")).thenReturn(2);
+
+        extension.execute(new String[] { "stats" }, console);
+
+        InOrder inOrder = inOrder(console);
+        inOrder.verify(console).println(startsWith("Script"));
+        inOrder.verify(console).println(matches("slow\\.js\\s+1\\s+1\\s+5[.,]000\\s+5[.,]000\\s+5[.,]000\\s+2"));
+        inOrder.verify(console).println(matches("fast\\.js\\s+1\\s+0\\s+1[.,]000\\s+1[.,]000\\s+1[.,]000\\s+0"));
+    }
+
+    @Test
+    public void testStatsClear() {
+        extension.execute(new String[] { "stats", "clear" }, console);
+
+        verify(manager).clearStatistics();
+        verify(console).println("Statistics cleared.");
+    }
+
+    @Test
+    public void testUnknownCommandPrintsUsage() {
+        extension.execute(new String[] { "unknown" }, console);
+
+        verify(manager, never()).clearStatistics();
+        verify(console, atLeastOnce()).printUsage(anyString());
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ScriptStatistics}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class ScriptStatisticsTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testEmptyStatistics() {
+        ScriptStatistics statistics = new ScriptStatistics();
+
+        assertEquals(0, statistics.getExecutions());
+        assertEquals(0, statistics.getFailures());
+        assertEquals(0, statistics.getAverageMillis(), DELTA);
+        assertEquals(0, statistics.getMaxMillis(), DELTA);
+        assertEquals(0, statistics.getTotalMillis(), DELTA);
+    }
+
+    @Test
+    public void testRecordedExecutions() {
+        ScriptStatistics statistics = new ScriptStatistics();
+        statistics.record(TimeUnit.MILLISECONDS.toNanos(2), false);
+        statistics.record(TimeUnit.MILLISECONDS.toNanos(6), true);
+        statistics.record(TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        assertEquals(3, statistics.getExecutions());
+        assertEquals(1, statistics.getFailures());
+        assertEquals(3, statistics.getAverageMillis(), DELTA);
+        assertEquals(6, statistics.getMaxMillis(), DELTA);
+        assertEquals(9, statistics.getTotalMillis(), DELTA);
+    }
+}
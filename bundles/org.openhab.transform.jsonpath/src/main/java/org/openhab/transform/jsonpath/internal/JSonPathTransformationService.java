@@ -43,6 +43,10 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private static final int MAX_CACHED_PATHS = 200;
+
+    private final ExpressionCache<JsonPath> paths = new ExpressionCache<>("JSONPATH", MAX_CACHED_PATHS);
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +64,11 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath path = paths.get(jsonPathExpression, expression -> {
+                logger.trace("Compiling JsonPath expression '{}', {}", expression, paths);
+                return JsonPath.compile(expression);
+            });
+            Object transformationResult = path.read(source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +84,10 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    ExpressionCache<JsonPath> getPaths() {
+        return paths;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
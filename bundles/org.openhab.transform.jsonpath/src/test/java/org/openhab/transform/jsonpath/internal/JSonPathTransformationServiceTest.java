@@ -128,4 +128,27 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testCompiledPathsAreCached() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals(2, processor.getPaths().getMisses());
+        assertEquals(1, processor.getPaths().getHits());
+    }
+
+    @Test
+    public void testInvalidPathIsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                processor.transform("$$", jsonArray);
+                Assert.fail("expected TransformationException");
+            } catch (TransformationException e) {
+                // expected
+            }
+        }
+        assertEquals(2, processor.getPaths().getMisses());
+        assertEquals(0, processor.getPaths().size());
+    }
 }
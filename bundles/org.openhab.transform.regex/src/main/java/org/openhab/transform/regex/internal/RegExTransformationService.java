@@ -39,6 +39,11 @@ public class RegExTransformationService implements TransformationService {
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private static final int MAX_CACHED_PATTERNS = 200;
+
+    private final ExpressionCache<Pattern> substitutionPatterns = new ExpressionCache<>("REGEX substitution",
+            MAX_CACHED_PATTERNS);
+    private final ExpressionCache<Pattern> matchPatterns = new ExpressionCache<>("REGEX", MAX_CACHED_PATTERNS);
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
@@ -56,17 +61,21 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher substitutionMatcher = substitutionPatterns.get(regex, Pattern::compile).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = substitutionMatcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = substitutionMatcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = matchPatterns.get(regExpression, expression -> {
+            logger.trace("Compiling regular expression '{}', {}", expression, matchPatterns);
+            return Pattern.compile("^" + expression + "$", Pattern.DOTALL);
+        }).matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +103,12 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    ExpressionCache<Pattern> getMatchPatterns() {
+        return matchPatterns;
+    }
+
+    ExpressionCache<Pattern> getSubstitutionPatterns() {
+        return substitutionPatterns;
+    }
 }
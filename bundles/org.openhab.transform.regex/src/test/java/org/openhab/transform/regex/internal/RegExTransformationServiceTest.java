@@ -75,4 +75,20 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testCompiledPatternsAreCached() throws TransformationException {
+        processor.transform(".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*", source);
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        String transformedResponse = processor.transform(".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*",
+                source);
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "Z1");
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+        assertEquals(1, processor.getMatchPatterns().getMisses());
+        assertEquals(1, processor.getMatchPatterns().getHits());
+        assertEquals(1, processor.getSubstitutionPatterns().getMisses());
+        assertEquals(1, processor.getSubstitutionPatterns().getHits());
+    }
 }
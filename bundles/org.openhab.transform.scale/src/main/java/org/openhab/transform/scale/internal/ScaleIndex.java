@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Scale file compiled for fast lookups.
+ *
+ * The boundaries of all ranges split the number line into non-overlapping segments: every boundary point forms a
+ * segment of its own, and the open intervals between consecutive points form the rest. Each segment is either fully
+ * inside or fully outside of every range, so the first matching range of the scale file can be resolved for each
+ * segment in advance. Looking up a value is then a binary search over the boundary points.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+public class ScaleIndex {
+
+    private static final BigDecimal TWO = new BigDecimal(2);
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+
+    /** Sorted, distinct boundary points of all ranges */
+    private final BigDecimal[] points;
+    /**
+     * Labels of the segments. Segment <code>2 * i + 1</code> is the point <code>points[i]</code>, and segment
+     * <code>2 * i</code> is the open interval just below it. <code>null</code> if no range matches the segment.
+     */
+    private final String[] labels;
+    /** Output format split into literal parts and placeholders */
+    private final String[] formatParts;
+    private final String nonNumeric;
+
+    /**
+     * Compile the scale
+     *
+     * @param ranges ranges and their labels, in the order of the scale file
+     * @param format output format, possibly referring to <code>%value%</code> and <code>%label%</code>
+     * @param nonNumeric label for non numeric inputs, or <code>null</code> if not defined
+     */
+    public ScaleIndex(Map<Range, String> ranges, String format, String nonNumeric) {
+        TreeSet<BigDecimal> boundaries = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                boundaries.add(range.min);
+            }
+            if (range.max != null) {
+                boundaries.add(range.max);
+            }
+        }
+        points = boundaries.toArray(new BigDecimal[boundaries.size()]);
+        labels = new String[2 * points.length + 1];
+        for (int segment = 0; segment < labels.length; segment++) {
+            labels[segment] = firstMatch(ranges, representative(segment));
+        }
+        formatParts = compileFormat(format);
+        this.nonNumeric = nonNumeric;
+    }
+
+    /**
+     * Get a value belonging to the segment
+     */
+    private BigDecimal representative(int segment) {
+        if (points.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        int index = segment / 2;
+        if (segment % 2 == 1) {
+            return points[index];
+        } else if (index == 0) {
+            return points[0].subtract(BigDecimal.ONE);
+        } else if (index == points.length) {
+            return points[index - 1].add(BigDecimal.ONE);
+        } else {
+            return points[index - 1].add(points[index]).divide(TWO);
+        }
+    }
+
+    private static String firstMatch(Map<Range, String> ranges, BigDecimal value) {
+        for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+            if (entry.getKey().contains(value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String[] compileFormat(String format) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (start < format.length()) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            int next = valueIndex < 0 ? labelIndex : labelIndex < 0 ? valueIndex : Math.min(valueIndex, labelIndex);
+            if (next < 0) {
+                parts.add(format.substring(start));
+                break;
+            }
+            if (next > start) {
+                parts.add(format.substring(start, next));
+            }
+            String placeholder = next == valueIndex ? FORMAT_VALUE : FORMAT_LABEL;
+            parts.add(placeholder);
+            start = next + placeholder.length();
+        }
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    /**
+     * Get the label of the first range containing the value
+     *
+     * @param value value to look up
+     * @return label, or <code>null</code> if no range contains the value
+     */
+    public String getLabel(BigDecimal value) {
+        int index = Arrays.binarySearch(points, value);
+        return labels[index >= 0 ? 2 * index + 1 : 2 * (-index - 1)];
+    }
+
+    /**
+     * Format the output
+     *
+     * @param value the input value as given to the transformation
+     * @param label label of the range matching the value
+     * @return formatted output
+     */
+    public String format(String value, String label) {
+        if (formatParts.length == 1 && FORMAT_LABEL.equals(formatParts[0])) {
+            return label;
+        }
+        // literal parts never equal to placeholders, since format was split at them
+        StringBuilder result = new StringBuilder();
+        for (String part : formatParts) {
+            if (FORMAT_VALUE.equals(part)) {
+                result.append(value);
+            } else if (FORMAT_LABEL.equals(part)) {
+                result.append(label);
+            } else {
+                result.append(part);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Get the label for non numeric inputs
+     *
+     * @return label, or <code>null</code> if not defined in the scale file
+     */
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    /**
+     * Number of non-overlapping segments in the index
+     *
+     * @return number of segments
+     */
+    int getSegmentCount() {
+        return labels.length;
+    }
+}
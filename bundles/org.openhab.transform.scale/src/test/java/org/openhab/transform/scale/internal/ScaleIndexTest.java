@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author Sami Salonen - Initial contribution
+ */
+public class ScaleIndexTest {
+
+    private static BigDecimal bd(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    public void testBoundsInclusiveness() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.lessThan(bd("10")), "low");
+        ranges.put(Range.closedOpen(bd("10"), bd("20")), "middle");
+        ranges.put(Range.openClosed(bd("20"), bd("30")), "high");
+        ScaleIndex scale = new ScaleIndex(ranges, "%label%", null);
+
+        assertEquals("low", scale.getLabel(bd("-1000")));
+        assertEquals("low", scale.getLabel(bd("9.999")));
+        assertEquals("middle", scale.getLabel(bd("10")));
+        assertEquals("middle", scale.getLabel(bd("10.00")));
+        assertEquals("middle", scale.getLabel(bd("19.999")));
+        assertNull(scale.getLabel(bd("20")));
+        assertEquals("high", scale.getLabel(bd("20.001")));
+        assertEquals("high", scale.getLabel(bd("30")));
+        assertNull(scale.getLabel(bd("30.001")));
+        assertEquals(7, scale.getSegmentCount());
+    }
+
+    @Test
+    public void testFirstMatchWinsForOverlappingRanges() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.lessThan(bd("15")), "first");
+        ranges.put(Range.closedOpen(bd("10"), bd("17")), "second");
+        ranges.put(Range.atLeast(bd("15")), "last");
+        ranges.put(Range.all(), "never");
+        ScaleIndex scale = new ScaleIndex(ranges, "%label%", null);
+
+        assertEquals("first", scale.getLabel(bd("12")));
+        assertEquals("second", scale.getLabel(bd("15")));
+        assertEquals("second", scale.getLabel(bd("16.99")));
+        assertEquals("last", scale.getLabel(bd("17")));
+        assertEquals("last", scale.getLabel(bd("1000")));
+    }
+
+    @Test
+    public void testCatchAllOnly() {
+        Map<Range, String> ranges = new LinkedHashMap<>();
+        ranges.put(Range.all(), "catchall");
+        ScaleIndex scale = new ScaleIndex(ranges, "%label%", "nan");
+
+        assertEquals("catchall", scale.getLabel(bd("-1")));
+        assertEquals("nan", scale.getNonNumeric());
+    }
+
+    @Test
+    public void testFormat() {
+        ScaleIndex scale = new ScaleIndex(new LinkedHashMap<>(), "%label% (%value%) %label%!", null);
+        assertEquals("a$1 (5) a$1!", scale.format("5", "a$1"));
+        assertEquals("x", new ScaleIndex(new LinkedHashMap<>(), "%label%", null).format("5", "x"));
+        assertEquals("5 units", new ScaleIndex(new LinkedHashMap<>(), "%value% units", null).format("5", "x"));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xpath.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of compiled expressions, evicting the least recently used expression when full.
+ *
+ * Hits and misses are counted, and a summary is logged at debug level every {@value #SUMMARY_INTERVAL} lookups.
+ *
+ * @author Sami Salonen - Initial contribution
+ *
+ * @param <T> type of the compiled expression
+ */
+@NonNullByDefault
+class ExpressionCache<T> {
+
+    /**
+     * Function compiling expressions
+     */
+    @FunctionalInterface
+    interface ExpressionCompiler<T, E extends Exception> {
+        T compile(String expression) throws E;
+    }
+
+    static final long SUMMARY_INTERVAL = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(ExpressionCache.class);
+
+    private final String name;
+    private final Map<String, T> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param name name of the cache used in the log messages
+     * @param maxSize maximum number of cached expressions
+     */
+    ExpressionCache(String name, int maxSize) {
+        this.name = name;
+        cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(@Nullable Entry<String, T> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get compiled expression from the cache, compiling it if it is not cached yet
+     *
+     * Compilation is done without holding the cache lock, so the same expression might occasionally be compiled more
+     * than once by concurrent callers.
+     *
+     * @param expression expression to compile
+     * @param compiler function compiling the expression
+     * @return compiled expression
+     * @throws E when compilation fails. Failed compilations are not cached.
+     */
+    <E extends Exception> T get(String expression, ExpressionCompiler<T, E> compiler) throws E {
+        T compiled;
+        synchronized (cache) {
+            compiled = cache.get(expression);
+        }
+        if (compiled != null) {
+            logSummary(hits.incrementAndGet() + misses.get());
+            return compiled;
+        }
+        logSummary(hits.get() + misses.incrementAndGet());
+        compiled = compiler.compile(expression);
+        synchronized (cache) {
+            cache.put(expression, compiled);
+        }
+        return compiled;
+    }
+
+    private void logSummary(long lookups) {
+        if (lookups % SUMMARY_INTERVAL == 0) {
+            logger.debug("{}", this);
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s expression cache [size=%d, hits=%d, misses=%d]", name, size(), getHits(),
+                getMisses());
+    }
+}
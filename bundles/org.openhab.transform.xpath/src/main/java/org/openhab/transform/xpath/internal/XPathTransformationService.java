@@ -16,7 +16,7 @@ import java.io.StringReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
@@ -43,6 +43,25 @@ public class XPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private static final int MAX_CACHED_EXPRESSIONS = 200;
+
+    private final XPathFactory xpathFactory = XPathFactory.newInstance();
+    private final ExpressionCache<XPathExpression> expressions = new ExpressionCache<>("XPATH",
+            MAX_CACHED_EXPRESSIONS);
+    /**
+     * Document builders are not thread-safe, and thus reused only within a thread
+     */
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Could not create document builder", e);
+        }
+    });
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -54,10 +73,8 @@ public class XPathTransformationService implements TransformationService {
         StringReader stringReader = null;
 
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            DocumentBuilder builder = documentBuilders.get();
+            builder.reset();
 
             stringReader = new StringReader(source);
             InputSource inputSource = new InputSource(stringReader);
@@ -65,10 +82,19 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = expressions.get(xpathExpression, expression -> {
+                logger.trace("Compiling XPath expression '{}', {}", expression, expressions);
+                // XPath objects are not thread-safe, use a new one for each compilation
+                synchronized (xpathFactory) {
+                    return xpathFactory.newXPath().compile(expression);
+                }
+            });
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            // Compiled expressions are not thread-safe
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -81,4 +107,8 @@ public class XPathTransformationService implements TransformationService {
             }
         }
     }
+
+    ExpressionCache<XPathExpression> getExpressions() {
+        return expressions;
+    }
 }
@@ -38,4 +38,16 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testCompiledExpressionsAreCached() throws TransformationException {
+        processor.transform("//current_conditions/temp_c/@data", source);
+        String transformedResponse = processor.transform("//current_conditions/temp_c/@data", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+        assertEquals(1, processor.getExpressions().getMisses());
+        assertEquals(1, processor.getExpressions().getHits());
+        assertEquals(1, processor.getExpressions().size());
+    }
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets.
+ *
+ * Stylesheets are compiled once to {@link Templates}, and each thread is handed its own {@link Transformer}, since
+ * transformers are not thread-safe.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltStylesheetManager.class)
+public class XsltStylesheetManager {
+
+    /**
+     * Compiled stylesheet with transformers for each of the threads using it
+     */
+    private static class CompiledStylesheet {
+        private final ThreadLocal<Transformer> transformers;
+
+        CompiledStylesheet(Templates templates) {
+            transformers = ThreadLocal.withInitial(() -> {
+                try {
+                    return templates.newTransformer();
+                } catch (TransformerConfigurationException e) {
+                    // should not happen since templates have been compiled successfully already
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(XsltStylesheetManager.class);
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    private final Map<String, CompiledStylesheet> stylesheets = new ConcurrentHashMap<>();
+
+    /**
+     * Get transformer for the given stylesheet, to be used by the calling thread only. If the stylesheet is not in the
+     * cache, it is loaded from storage and compiled.
+     *
+     * @param filename name of the XSLT file, relative to the transform folder
+     * @return transformer, reset to its initial state
+     * @throws TransformationException if compilation of the stylesheet fails
+     */
+    protected Transformer getTransformer(String filename) throws TransformationException {
+        String key = normalize(filename);
+        CompiledStylesheet stylesheet = stylesheets.get(key);
+        if (stylesheet == null) {
+            stylesheet = compile(filename);
+            stylesheets.put(key, stylesheet);
+        } else {
+            logger.trace("Using XSLT {} from cache.", filename);
+        }
+        Transformer transformer = stylesheet.transformers.get();
+        transformer.reset();
+        return transformer;
+    }
+
+    private CompiledStylesheet compile(String filename) throws TransformationException {
+        String path = XsltTransformationWatcher.TRANSFORM_FOLDER + File.separator + filename;
+        logger.debug("Loading XSLT {} from storage", path);
+        try {
+            Templates templates;
+            // factory is not guaranteed to be thread-safe
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(new StreamSource(new File(path)));
+            }
+            return new CompiledStylesheet(templates);
+        } catch (TransformerConfigurationException e) {
+            throw new TransformationException("An error occurred while compiling XSLT " + filename, e);
+        }
+    }
+
+    /**
+     * Remove a compiled stylesheet from cache.
+     *
+     * @param filename name of the XSLT file, relative to the transform folder
+     */
+    protected void removeFromCache(String filename) {
+        logger.debug("Removing XSLT {} from cache.", filename);
+        stylesheets.remove(normalize(filename));
+    }
+
+    /**
+     * Check whether a compiled stylesheet is in the cache.
+     *
+     * @param filename name of the XSLT file, relative to the transform folder
+     * @return true if the stylesheet is cached
+     */
+    boolean isCached(String filename) {
+        return stylesheets.containsKey(normalize(filename));
+    }
+
+    private static String normalize(String filename) {
+        Path path = Paths.get(filename).normalize();
+        return path.toString().replace(File.separatorChar, '/');
+    }
+}
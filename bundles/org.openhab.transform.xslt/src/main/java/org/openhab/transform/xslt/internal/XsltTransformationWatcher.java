@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.service.AbstractWatchService;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link XsltTransformationWatcher} watches the transformation directory for files. If a deleted/modified file is
+ * detected, the stylesheet is removed from the cache of {@link XsltStylesheetManager}.
+ *
+ * @author Sami Salonen - Initial contribution
+ */
+@Component()
+public class XsltTransformationWatcher extends AbstractWatchService {
+
+    public static final String TRANSFORM_FOLDER = ConfigConstants.getConfigFolder() + File.separator
+            + TransformationService.TRANSFORM_FOLDER_NAME;
+
+    private XsltStylesheetManager manager;
+
+    public XsltTransformationWatcher() {
+        super(TRANSFORM_FOLDER);
+    }
+
+    @Reference
+    public void setXsltStylesheetManager(XsltStylesheetManager manager) {
+        this.manager = manager;
+    }
+
+    public void unsetXsltStylesheetManager(XsltStylesheetManager manager) {
+        this.manager = null;
+    }
+
+    @Override
+    public void activate() {
+        super.activate();
+    }
+
+    @Override
+    protected boolean watchSubDirectories() {
+        return true;
+    }
+
+    @Override
+    protected Kind<?>[] getWatchEventKinds(Path directory) {
+        return new Kind<?>[] { ENTRY_DELETE, ENTRY_MODIFY };
+    }
+
+    @Override
+    protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
+        logger.debug("New watch event {} for path {}.", kind, path);
+
+        if (kind == OVERFLOW) {
+            return;
+        }
+
+        // stylesheets are cached by their path relative to the transform folder
+        Path filename = Paths.get(TRANSFORM_FOLDER).toAbsolutePath().relativize(path.toAbsolutePath());
+
+        logger.debug("Reloading XSLT file {}.", filename);
+
+        manager.removeFromCache(filename.toString());
+    }
+}
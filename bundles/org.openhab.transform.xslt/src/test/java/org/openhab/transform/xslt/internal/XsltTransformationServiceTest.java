@@ -12,7 +12,7 @@
  */
 package org.openhab.transform.xslt.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -24,10 +24,13 @@ import org.junit.Test;
 public class XsltTransformationServiceTest extends AbstractTransformationServiceTest {
 
     private XsltTransformationService processor;
+    private XsltStylesheetManager manager;
 
     @Before
     public void init() {
+        manager = new XsltStylesheetManager();
         processor = new XsltTransformationService();
+        processor.setXsltStylesheetManager(manager);
     }
 
     @Test
@@ -38,4 +41,37 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformByCachedXSLT() throws TransformationException {
+        processor.transform("http/google_weather.xsl", source);
+        // method under test
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
+    @Test
+    public void testTransformAfterRemovalFromCache() throws TransformationException {
+        processor.transform("http/google_weather.xsl", source);
+        processor.transform("http/google_weather_humidity.xsl", source);
+        manager.removeFromCache("http/../http/google_weather.xsl");
+
+        assertFalse(manager.isCached("http/google_weather.xsl"));
+        assertTrue(manager.isCached("http/google_weather_humidity.xsl"));
+
+        // method under test
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+        assertTrue(manager.isCached("http/google_weather.xsl"));
+        assertEquals("Feuchtigkeit: 66 %", processor.transform("http/google_weather_humidity.xsl", source));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testMissingStylesheet() throws TransformationException {
+        processor.transform("http/missing.xsl", source);
+    }
 }
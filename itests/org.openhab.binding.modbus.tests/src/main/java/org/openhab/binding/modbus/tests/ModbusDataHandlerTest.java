@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal.*;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -561,6 +562,38 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersDeadband() {
+        ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("thisishost", 502);
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        doReturn(3).when(request).getDataLength();
+        doReturn(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS).when(request).getFunctionCode();
+        PollTask task = Mockito.mock(PollTask.class);
+        doReturn(endpoint).when(task).getEndpoint();
+        doReturn(request).when(task).getRequest();
+        Bridge poller = createPollerMock("poller1", task);
+
+        Configuration dataConfig = new Configuration();
+        dataConfig.put("readStart", "0");
+        dataConfig.put("readTransform", "default");
+        dataConfig.put("readValueType", "int16");
+        dataConfig.put("readDeadband", new BigDecimal(5));
+        // update only on change
+        dataConfig.put("updateUnchangedValuesEveryMillis", new BigDecimal(-1));
+        ModbusDataThingHandler dataHandler = createDataHandler("read1", poller,
+                builder -> builder.withConfiguration(dataConfig));
+        assertThat(dataHandler.getThing().getStatus(), is(equalTo(ThingStatus.ONLINE)));
+
+        for (int value : new int[] { 10, 10, 15, 16, 4 }) {
+            dataHandler.onReadResult(new AsyncModbusReadResult(request, new ModbusRegisterArray(value)));
+        }
+
+        // 15 is within deadband of 10, while 16 is not. 4 is not within deadband of 16
+        String itemName = getItemName(new ChannelUID(dataHandler.getThing().getUID(), CHANNEL_NUMBER));
+        waitForAssert(() -> assertThat(getStateUpdates(itemName),
+                is(equalTo(Arrays.asList(new DecimalType(10), new DecimalType(16), new DecimalType(4))))));
+    }
+
     @Test
     public void testOnRegistersNaNFloatInRegisters() throws InvalidSyntaxException {
         ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,